@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.BinaryModJson;
+import org.quiltmc.mod_spec.api.CustomJsonValue;
+import org.quiltmc.mod_spec.api.JsonReadLimits;
+import org.quiltmc.parsers.json.JsonReader;
+
+/** Reading {@link BinaryModJson} compared to reading the same value from json text. The encoded sizes are printed
+ * during setup. */
+@State(Scope.Benchmark)
+public class BinaryBenchmark {
+
+    @Param({ Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL })
+    public String corpus;
+
+    @Param({ "false", "true" })
+    public boolean locations;
+
+    private String text;
+    private CustomJsonValue value;
+    private ByteBuffer binary;
+
+    @Setup
+    public void setup() throws IOException {
+        text = Corpus.load(corpus);
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            value = CustomJsonValue.read(reader, JsonReadLimits.UNLIMITED);
+        }
+        binary = ByteBuffer.wrap(BinaryModJson.write(value, locations));
+        System.out.println(corpus + ": json is " + text.length() + " chars, binary is " + binary.remaining() + " bytes");
+    }
+
+    @Benchmark
+    public CustomJsonValue readJson() throws IOException {
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            return CustomJsonValue.read(reader, JsonReadLimits.UNLIMITED);
+        }
+    }
+
+    @Benchmark
+    public CustomJsonValue readBinary() throws IOException {
+        return BinaryModJson.readValue(binary);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return BinaryModJson.write(value, locations);
+    }
+}
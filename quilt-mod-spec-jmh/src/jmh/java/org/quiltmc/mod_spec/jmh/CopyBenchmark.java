@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.CustomJsonValue;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1;
+import org.quiltmc.mod_spec.api.InvalidModJsonException;
+import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1;
+import org.quiltmc.parsers.json.JsonReader;
+
+/** Constructing {@link MutableQuiltModJsonV1}s from json, and copying them from {@link FinalQuiltModJsonV1}s. */
+@State(Scope.Benchmark)
+public class CopyBenchmark {
+
+    @Param({ Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL })
+    public String corpus;
+
+    private CustomJsonObject loader;
+    private FinalQuiltModJsonV1 finalJson;
+
+    @Setup
+    public void setup() throws IOException, InvalidModJsonException {
+        String text = Corpus.load(corpus);
+        CustomJsonObject root = (CustomJsonObject) CustomJsonValue.read(corpus, text);
+        loader = (CustomJsonObject) root.get("quilt_loader");
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            finalJson = FinalQuiltModJsonV1.read(reader);
+        }
+    }
+
+    @Benchmark
+    public MutableQuiltModJsonV1 mutableFromJson() {
+        return new MutableQuiltModJsonV1(loader);
+    }
+
+    @Benchmark
+    public MutableQuiltModJsonV1 mutableCopyOfFinal() {
+        return new MutableQuiltModJsonV1(finalJson);
+    }
+}
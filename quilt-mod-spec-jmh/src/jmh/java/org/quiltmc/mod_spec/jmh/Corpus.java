@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** Loads the checked-in quilt.mod.json files used as benchmark inputs. */
+final class Corpus {
+
+    /** Only the required fields. */
+    static final String SMALL = "small";
+    /** A realistic mod, using most fields of the spec. */
+    static final String TYPICAL = "typical";
+    /** A very large file, with a big custom section, deeply nested values, and long strings. */
+    static final String PATHOLOGICAL = "pathological";
+
+    private Corpus() {}
+
+    static String load(String name) {
+        String path = "/corpus/" + name + ".quilt.mod.json";
+        try (InputStream stream = Corpus.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                throw new IllegalArgumentException("Unknown corpus file " + path);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.CustomJsonValue;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1;
+import org.quiltmc.mod_spec.api.InvalidModJsonException;
+import org.quiltmc.parsers.json.JsonReader;
+
+/** Parsing json text into {@link CustomJsonValue}s and {@link FinalQuiltModJsonV1}s. */
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+
+    @Param({ Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL })
+    public String corpus;
+
+    private String text;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setup() {
+        text = Corpus.load(corpus);
+        bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Every value gets its location string computed up-front. */
+    @Benchmark
+    public CustomJsonValue customJsonValueRead() throws IOException {
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            return CustomJsonValue.read(reader);
+        }
+    }
+
+    /** Locations are only computed on demand. */
+    @Benchmark
+    public CustomJsonValue customJsonValueReadText() throws IOException {
+        return CustomJsonValue.read(corpus, text);
+    }
+
+    @Benchmark
+    public CustomJsonValue customJsonValueReadBuffer() throws IOException {
+        return CustomJsonValue.read(corpus, bytes);
+    }
+
+    @Benchmark
+    public FinalQuiltModJsonV1 finalQuiltModJsonRead() throws IOException, InvalidModJsonException {
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            return FinalQuiltModJsonV1.read(reader);
+        }
+    }
+}
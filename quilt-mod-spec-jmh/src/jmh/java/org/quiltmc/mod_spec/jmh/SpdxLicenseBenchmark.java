@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.SpdxLicense;
+
+/** Looking up SPDX licenses by id, for common, rare and unknown ids. */
+@State(Scope.Benchmark)
+public class SpdxLicenseBenchmark {
+
+    @Param({ "MIT", "LGPL-3.0-or-later", "Zlib", "LicenseRef-Unknown" })
+    public String id;
+
+    @Benchmark
+    public SpdxLicense get() {
+        return SpdxLicense.get(id);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.CustomJsonValue;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointContainerV1;
+import org.quiltmc.mod_spec.api.InvalidModJsonException;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1;
+
+/** Validating an already parsed {@link CustomJsonValue} tree, separately from parsing it, and the cost of the
+ * identifier checks on their own. */
+@State(Scope.Benchmark)
+public class ValidateBenchmark {
+
+    @Param({ Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL })
+    public String corpus;
+
+    private CustomJsonObject root;
+    private CustomJsonValue entrypoints;
+
+    public String id = "example_mod-id_with_a_fairly_long_name";
+    public String group = "org.example.some-group_name";
+
+    @Setup
+    public void setup() throws IOException {
+        root = (CustomJsonObject) CustomJsonValue.read(corpus, Corpus.load(corpus));
+        CustomJsonObject loader = (CustomJsonObject) root.get("quilt_loader");
+        CustomJsonValue value = loader.get("entrypoints");
+        entrypoints = value != null ? value : CustomJsonValue.createObject(Collections.emptyMap());
+    }
+
+    @Benchmark
+    public FinalQuiltModJsonV1 rootFrom() throws InvalidModJsonException {
+        return FinalQuiltModJsonV1.from(root);
+    }
+
+    @Benchmark
+    public FinalEntrypointContainerV1 entrypointsFrom() throws InvalidModJsonException {
+        return FinalEntrypointContainerV1.from(entrypoints);
+    }
+
+    @Benchmark
+    public boolean idRegex() {
+        return QuiltModJsonV1.ID_PATTERN.matcher(id).matches();
+    }
+
+    @Benchmark
+    public boolean idTable() {
+        return QuiltModJsonV1.indexOfInvalidId(id) < 0;
+    }
+
+    @Benchmark
+    public boolean groupRegex() {
+        return QuiltModJsonV1.GROUP_PATTERN.matcher(group).matches();
+    }
+
+    @Benchmark
+    public boolean groupTable() {
+        return QuiltModJsonV1.indexOfInvalidGroup(group) < 0;
+    }
+}
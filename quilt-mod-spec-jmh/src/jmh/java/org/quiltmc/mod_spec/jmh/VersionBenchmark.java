@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.ModVersion;
+import org.quiltmc.mod_spec.api.VersionConstraintMatcher;
+import org.quiltmc.mod_spec.api.VersionIntervalSet;
+
+/** Comparing versions which have already been parsed, against parsing them for every comparison. Also checks
+ * versions against compiled constraints, and their normalized interval sets. */
+@State(Scope.Benchmark)
+public class VersionBenchmark {
+
+    @Param({ "1.2.3|1.2.4", "1.0.0-beta.2|1.0.0-beta.11", "0.5.0+1.20.1|0.5.0+1.20.4", "1.20.1-rc1|1.20.1_01" })
+    public String pair;
+
+    private String a;
+    private String b;
+    private ModVersion parsedA;
+    private ModVersion parsedB;
+    private String constraint;
+    private VersionConstraintMatcher matcher;
+    private VersionIntervalSet intervals;
+
+    @Setup
+    public void setup() {
+        int split = pair.indexOf('|');
+        a = pair.substring(0, split);
+        b = pair.substring(split + 1);
+        parsedA = ModVersion.parse(a);
+        parsedB = ModVersion.parse(b);
+        constraint = "^" + b;
+        matcher = VersionConstraintMatcher.compile(constraint);
+        intervals = VersionIntervalSet.of(matcher);
+    }
+
+    @Benchmark
+    public ModVersion parse() {
+        return ModVersion.parse(a);
+    }
+
+    @Benchmark
+    public int compareParsed() {
+        return parsedA.compareTo(parsedB);
+    }
+
+    @Benchmark
+    public int parseAndCompare() {
+        return ModVersion.parse(a).compareTo(ModVersion.parse(b));
+    }
+
+    @Benchmark
+    public boolean matchCompiled() {
+        return matcher.matches(parsedA);
+    }
+
+    @Benchmark
+    public boolean compileCachedAndMatch() {
+        return VersionConstraintMatcher.compile(constraint).matches(parsedA);
+    }
+
+    @Benchmark
+    public boolean containsIntervals() {
+        return intervals.contains(parsedA);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.jmh;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1;
+import org.quiltmc.mod_spec.api.InvalidModJsonException;
+import org.quiltmc.mod_spec.api.JsonSerializationContext;
+import org.quiltmc.mod_spec.api.JsonWritable;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonWriter;
+
+/** Compares {@link JsonWritable#write(JsonWriter)} with writing the value returned by {@link JsonWritable#toJson()},
+ * and with a reused {@link JsonSerializationContext}. Output goes to a writer which discards everything (or stays in
+ * the context's buffer), so only the cost of producing the json is measured. */
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+
+    @Param({ Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL })
+    public String corpus;
+
+    private JsonWritable entrypoints;
+    private JsonWritable provides;
+
+    private final JsonSerializationContext context = new JsonSerializationContext();
+
+    @Setup
+    public void setup() throws IOException, InvalidModJsonException {
+        FinalQuiltModJsonV1 json;
+        try (JsonReader reader = JsonReader.json(new StringReader(Corpus.load(corpus)))) {
+            json = FinalQuiltModJsonV1.read(reader);
+        }
+        entrypoints = json.entrypoints();
+        provides = json.provides().isEmpty() ? null : json.provides().get(0);
+    }
+
+    @Benchmark
+    public void entrypointsWrite() throws IOException {
+        try (JsonWriter writer = JsonWriter.json(new NullWriter())) {
+            entrypoints.write(writer);
+        }
+    }
+
+    @Benchmark
+    public void entrypointsToJsonWrite() throws IOException {
+        try (JsonWriter writer = JsonWriter.json(new NullWriter())) {
+            entrypoints.toJson().write(writer);
+        }
+    }
+
+    @Benchmark
+    public void providesWrite() throws IOException {
+        if (provides != null) {
+            try (JsonWriter writer = JsonWriter.json(new NullWriter())) {
+                provides.write(writer);
+            }
+        }
+    }
+
+    @Benchmark
+    public void providesToJsonWrite() throws IOException {
+        if (provides != null) {
+            try (JsonWriter writer = JsonWriter.json(new NullWriter())) {
+                provides.toJson().write(writer);
+            }
+        }
+    }
+
+    @Benchmark
+    public int entrypointsContext() {
+        context.reset();
+        return context.write(entrypoints).size();
+    }
+
+    @Benchmark
+    public int providesContext() {
+        if (provides == null) {
+            return 0;
+        }
+        context.reset();
+        return context.write(provides).size();
+    }
+
+    static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {}
+
+        @Override
+        public void write(String str, int off, int len) {}
+
+        @Override
+        public void write(int c) {}
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,630 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonBoolean;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNull;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointContainerV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalProvidesV1;
+
+/** A compact binary encoding of {@link CustomJsonValue}s and {@link FinalQuiltModJsonV1}s, for caching already parsed
+ * files. Reading this is much cheaper than parsing the original json, and produces the same objects.
+ * <p>
+ * The format starts with the magic bytes "QMJB", the {@link #FORMAT_VERSION}, the kind of content, and a flags field.
+ * This is followed by a table of every distinct string (keys, string values, and locations), each stored once as UTF-8,
+ * and then the content itself, which refers to strings by their index in the table. Every integer is stored as a
+ * variable-length "varint", so small numbers only take a single byte.
+ * <p>
+ * Locations are optional: when they are written each value can still describe where it originally came from, but when
+ * they are left out every value read back will have the default location. */
+public final class BinaryModJson {
+
+    /** The current format version. Newer versions are rejected when reading. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = { 'Q', 'M', 'J', 'B' };
+
+    private static final int KIND_VALUE = 0;
+    private static final int KIND_QUILT_MOD_JSON_V1 = 1;
+
+    private static final int FLAG_LOCATIONS = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_INT = 4;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_FLOAT = 6;
+    private static final int TAG_DOUBLE = 7;
+    private static final int TAG_BIG_INTEGER = 8;
+    private static final int TAG_BIG_DECIMAL = 9;
+    private static final int TAG_ARRAY = 10;
+    private static final int TAG_OBJECT = 11;
+
+    private static final int FORM_STRING = 0;
+    private static final int FORM_OBJECT = 1;
+
+    private BinaryModJson() {}
+
+    // #############
+    // # Writing
+    // #############
+
+    /** @param includeLocations True to store the location of every value, so they can be read back. */
+    public static byte[] write(CustomJsonValue value, boolean includeLocations) {
+        Encoder encoder = new Encoder(includeLocations);
+        encoder.value(value);
+        return encoder.finish(KIND_VALUE);
+    }
+
+    /** @param includeLocations True to store the location of every value, so they can be read back. */
+    public static void write(CustomJsonValue value, boolean includeLocations, OutputStream out) throws IOException {
+        out.write(write(value, includeLocations));
+    }
+
+    /** @param includeLocations True to store the location of every value, so they can be read back. */
+    public static byte[] write(FinalQuiltModJsonV1 json, boolean includeLocations) {
+        Encoder encoder = new Encoder(includeLocations);
+        encoder.quiltModJson(json);
+        return encoder.finish(KIND_QUILT_MOD_JSON_V1);
+    }
+
+    /** @param includeLocations True to store the location of every value, so they can be read back. */
+    public static void write(FinalQuiltModJsonV1 json, boolean includeLocations, OutputStream out)
+        throws IOException {
+
+        out.write(write(json, includeLocations));
+    }
+
+    // #############
+    // # Reading
+    // #############
+
+    /** Reads a value written by {@link #write(CustomJsonValue, boolean)}, from the bytes between the buffer's position
+     * and limit. The buffer's position is not changed.
+     * 
+     * @throws IOException if the bytes aren't a binary {@link CustomJsonValue}, were written by a newer version, or
+     *             are corrupt. */
+    public static CustomJsonValue readValue(ByteBuffer bytes) throws IOException {
+        Decoder decoder = new Decoder(bytes, KIND_VALUE);
+        try {
+            return decoder.value();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw decoder.corrupt(e);
+        }
+    }
+
+    /** Reads a value written by {@link #write(CustomJsonValue, boolean, OutputStream)}. */
+    public static CustomJsonValue readValue(InputStream in) throws IOException {
+        return readValue(ByteBuffer.wrap(readAll(in)));
+    }
+
+    /** Reads a {@link FinalQuiltModJsonV1} written by {@link #write(FinalQuiltModJsonV1, boolean)}, from the bytes
+     * between the buffer's position and limit. The buffer's position is not changed.
+     * 
+     * @throws IOException if the bytes aren't a binary {@link FinalQuiltModJsonV1}, were written by a newer version,
+     *             or are corrupt. */
+    public static FinalQuiltModJsonV1 readQuiltModJson(ByteBuffer bytes) throws IOException {
+        Decoder decoder = new Decoder(bytes, KIND_QUILT_MOD_JSON_V1);
+        try {
+            return decoder.quiltModJson();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw decoder.corrupt(e);
+        }
+    }
+
+    /** Reads a {@link FinalQuiltModJsonV1} written by {@link #write(FinalQuiltModJsonV1, boolean, OutputStream)}. */
+    public static FinalQuiltModJsonV1 readQuiltModJson(InputStream in) throws IOException {
+        return readQuiltModJson(ByteBuffer.wrap(readAll(in)));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Encoder {
+        final boolean locations;
+        final Map<String, Integer> stringIndices = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        byte[] body = new byte[256];
+        int size;
+
+        Encoder(boolean locations) {
+            this.locations = locations;
+        }
+
+        byte[] finish(int kind) {
+            byte[] content = Arrays.copyOf(body, size);
+            body = new byte[64 + content.length / 2];
+            size = 0;
+
+            for (byte b : MAGIC) {
+                writeByte(b);
+            }
+            writeVarInt(FORMAT_VERSION);
+            writeVarInt(kind);
+            writeVarInt(locations ? FLAG_LOCATIONS : 0);
+
+            writeVarInt(strings.size());
+            for (String string : strings) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(utf8.length);
+                writeBytes(utf8, 0, utf8.length);
+            }
+
+            writeBytes(content, 0, content.length);
+            return Arrays.copyOf(body, size);
+        }
+
+        void quiltModJson(FinalQuiltModJsonV1 json) {
+            location(json.source);
+            nullableString(json.group());
+            nullableString(json.id());
+            nullableString(json.version());
+
+            List<FinalProvidesV1> provides = json.provides();
+            writeVarInt(provides.size());
+            for (FinalProvidesV1 provided : provides) {
+                writeVarInt(provided.source instanceof CustomJsonString ? FORM_STRING : FORM_OBJECT);
+                location(provided.source);
+                nullableString(provided.id());
+                nullableString(provided.version());
+            }
+
+            FinalEntrypointContainerV1 entrypoints = json.entrypoints();
+            writeVarInt(entrypoints.size());
+            for (Map.Entry<String, List<FinalEntrypointV1>> entry : entrypoints.entrySet()) {
+                writeVarInt(string(entry.getKey()));
+                writeVarInt(entry.getValue().size());
+                for (FinalEntrypointV1 entrypoint : entry.getValue()) {
+                    writeVarInt(entrypoint.source instanceof CustomJsonString ? FORM_STRING : FORM_OBJECT);
+                    location(entrypoint.source);
+                    nullableString(entrypoint.adapter());
+                    nullableString(entrypoint.value());
+                }
+            }
+
+            Map<String, CustomJsonValue> custom = json.custom();
+            writeVarInt(custom.size());
+            for (Map.Entry<String, CustomJsonValue> entry : custom.entrySet()) {
+                writeVarInt(string(entry.getKey()));
+                value(entry.getValue());
+            }
+        }
+
+        void value(CustomJsonValue value) {
+            if (value instanceof CustomJsonObject) {
+                CustomJsonObject object = (CustomJsonObject) value;
+                writeVarInt(TAG_OBJECT);
+                location(value);
+                writeVarInt(object.size());
+                for (Map.Entry<String, CustomJsonValue> entry : object.entrySet()) {
+                    writeVarInt(string(entry.getKey()));
+                    value(entry.getValue());
+                }
+            } else if (value instanceof CustomJsonArray) {
+                CustomJsonArray array = (CustomJsonArray) value;
+                writeVarInt(TAG_ARRAY);
+                location(value);
+                writeVarInt(array.size());
+                for (CustomJsonValue element : array) {
+                    value(element);
+                }
+            } else if (value instanceof CustomJsonString) {
+                writeVarInt(TAG_STRING);
+                location(value);
+                writeVarInt(string(((CustomJsonString) value).value()));
+            } else if (value instanceof CustomJsonNumber) {
+                number(value, ((CustomJsonNumber) value).value());
+            } else if (value instanceof CustomJsonBoolean) {
+                writeVarInt(((CustomJsonBoolean) value).value() ? TAG_TRUE : TAG_FALSE);
+                location(value);
+            } else if (value instanceof CustomJsonNull) {
+                writeVarInt(TAG_NULL);
+                location(value);
+            } else {
+                throw new IllegalArgumentException("Unknown CustomJsonValue " + value.getClass());
+            }
+        }
+
+        private void number(CustomJsonValue value, Number number) {
+            if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                writeVarInt(TAG_INT);
+                location(value);
+                int i = number.intValue();
+                writeVarInt((i << 1) ^ (i >> 31));
+            } else if (number instanceof Long) {
+                writeVarInt(TAG_LONG);
+                location(value);
+                long l = number.longValue();
+                writeVarLong((l << 1) ^ (l >> 63));
+            } else if (number instanceof Float) {
+                writeVarInt(TAG_FLOAT);
+                location(value);
+                writeFixed(Float.floatToRawIntBits(number.floatValue()), 4);
+            } else if (number instanceof Double) {
+                writeVarInt(TAG_DOUBLE);
+                location(value);
+                writeFixed(Double.doubleToRawLongBits(number.doubleValue()), 8);
+            } else if (number instanceof BigInteger) {
+                writeVarInt(TAG_BIG_INTEGER);
+                location(value);
+                writeVarInt(string(number.toString()));
+            } else {
+                writeVarInt(TAG_BIG_DECIMAL);
+                location(value);
+                writeVarInt(string(number.toString()));
+            }
+        }
+
+        private void location(CustomJsonValue value) {
+            if (locations) {
+                writeVarInt(string(value.location()));
+            }
+        }
+
+        private void nullableString(String string) {
+            writeVarInt(string == null ? 0 : string(string) + 1);
+        }
+
+        private int string(String string) {
+            Integer index = stringIndices.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                stringIndices.put(string, index);
+            }
+            return index;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > body.length) {
+                body = Arrays.copyOf(body, Math.max(body.length * 2, size + extra));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensureCapacity(1);
+            body[size++] = (byte) b;
+        }
+
+        private void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, body, size, length);
+            size += length;
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                body[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            body[size++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                body[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            body[size++] = (byte) value;
+        }
+
+        private void writeFixed(long value, int bytes) {
+            ensureCapacity(bytes);
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                body[size++] = (byte) (value >>> shift);
+            }
+        }
+    }
+
+    private static final class Decoder {
+        final ByteBuffer in;
+        final boolean locations;
+        final String[] strings;
+        final JsonSource source;
+        int depth;
+
+        Decoder(ByteBuffer bytes, int expectedKind) throws IOException {
+            this.in = bytes.duplicate().order(ByteOrder.BIG_ENDIAN);
+            try {
+                for (byte b : MAGIC) {
+                    if (in.get() != b) {
+                        throw new IOException("Not a binary quilt mod json (wrong magic bytes)");
+                    }
+                }
+                int version = readVarInt();
+                if (version > FORMAT_VERSION) {
+                    throw new IOException(
+                        "Unsupported binary quilt mod json version " + version + " (the latest supported version is "
+                            + FORMAT_VERSION + ")"
+                    );
+                }
+                int kind = readVarInt();
+                if (kind != expectedKind) {
+                    throw new IOException("Expected binary content of kind " + expectedKind + ", but got " + kind);
+                }
+                locations = (readVarInt() & FLAG_LOCATIONS) != 0;
+
+                int count = readVarInt();
+                if (count < 0 || count > in.remaining()) {
+                    throw new IOException("Corrupt binary quilt mod json (bad string count " + count + ")");
+                }
+                strings = new String[count];
+                for (int i = 0; i < count; i++) {
+                    int length = readVarInt();
+                    if (length < 0 || length > in.remaining()) {
+                        throw new IOException("Corrupt binary quilt mod json (bad string length " + length + ")");
+                    }
+                    strings[i] = decodeUtf8(length);
+                }
+            } catch (BufferUnderflowException e) {
+                throw corrupt(e);
+            }
+            source = locations ? JsonSource.ofTable(strings) : JsonSource.CREATED_THROUGH_CODE;
+        }
+
+        IOException corrupt(RuntimeException cause) {
+            return new IOException("Truncated or corrupt binary quilt mod json", cause);
+        }
+
+        private String decodeUtf8(int length) {
+            String string;
+            if (in.hasArray()) {
+                string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                in.duplicate().get(bytes);
+                string = new String(bytes, StandardCharsets.UTF_8);
+            }
+            in.position(in.position() + length);
+            return string;
+        }
+
+        FinalQuiltModJsonV1 quiltModJson() throws IOException {
+            long rootPosition = location();
+            String group = nullableString();
+            String id = nullableString();
+            String version = nullableString();
+
+            int providesCount = count();
+            List<FinalProvidesV1> provides;
+            if (providesCount == 0) {
+                provides = Collections.emptyList();
+            } else {
+                FinalProvidesV1[] array = new FinalProvidesV1[providesCount];
+                for (int i = 0; i < providesCount; i++) {
+                    int form = readVarInt();
+                    long position = location();
+                    String providedId = nullableString();
+                    String providedVersion = nullableString();
+                    CustomJsonValue providedSource = locatedSource(form, position, providedId);
+                    array[i] = new FinalProvidesV1(providedSource, providedId, providedVersion);
+                }
+                provides = Collections.unmodifiableList(Arrays.asList(array));
+            }
+
+            int entrypointKeys = count();
+            FinalEntrypointContainerV1 entrypoints;
+            if (entrypointKeys == 0) {
+                entrypoints = FinalEntrypointContainerV1.EMPTY;
+            } else {
+                Map<String, List<FinalEntrypointV1>> map = new LinkedHashMap<>();
+                for (int i = 0; i < entrypointKeys; i++) {
+                    String key = string();
+                    int count = count();
+                    FinalEntrypointV1[] array = new FinalEntrypointV1[count];
+                    for (int j = 0; j < count; j++) {
+                        int form = readVarInt();
+                        long position = location();
+                        String adapter = nullableString();
+                        String value = nullableString();
+                        array[j] = new FinalEntrypointV1(locatedSource(form, position, value), adapter, value);
+                    }
+                    map.put(key, Collections.unmodifiableList(Arrays.asList(array)));
+                }
+                entrypoints = new FinalEntrypointContainerV1(Collections.unmodifiableMap(map));
+            }
+
+            int customCount = count();
+            Map<String, CustomJsonValue> custom = new LinkedHashMap<>();
+            for (int i = 0; i < customCount; i++) {
+                String key = string();
+                custom.put(key, value());
+            }
+
+            CustomJsonValue rootSource = locatedSource(FORM_OBJECT, rootPosition, null);
+            return new FinalQuiltModJsonV1(
+                rootSource, group, id, version, provides, entrypoints, Collections.unmodifiableMap(custom)
+            );
+        }
+
+        /** @return The source value for a {@link Located} object, which only needs to have the right type and
+         *         location. */
+        private CustomJsonValue locatedSource(int form, long position, String value) {
+            if (form == FORM_STRING) {
+                return new CustomString(source, position, value != null ? value : "");
+            }
+            return CustomObject.adopt(source, position, CustomObject.NO_KEYS, CustomObject.NO_VALUES, 0);
+        }
+
+        CustomJsonValue value() throws IOException {
+            int tag = readVarInt();
+            long position = location();
+            switch (tag) {
+            case TAG_NULL:
+                return new CustomNull(source, position);
+            case TAG_FALSE:
+                return new CustomBoolean(source, position, false);
+            case TAG_TRUE:
+                return new CustomBoolean(source, position, true);
+            case TAG_STRING:
+                return new CustomString(source, position, string());
+            case TAG_INT: {
+                int raw = readVarInt();
+                return new CustomNumber(source, position, (raw >>> 1) ^ -(raw & 1));
+            }
+            case TAG_LONG: {
+                long raw = readVarLong();
+                return new CustomNumber(source, position, (raw >>> 1) ^ -(raw & 1));
+            }
+            case TAG_FLOAT:
+                return new CustomNumber(source, position, Float.intBitsToFloat(in.getInt()));
+            case TAG_DOUBLE:
+                return new CustomNumber(source, position, Double.longBitsToDouble(in.getLong()));
+            case TAG_BIG_INTEGER:
+            case TAG_BIG_DECIMAL: {
+                String digits = string();
+                try {
+                    Number number = tag == TAG_BIG_INTEGER ? new BigInteger(digits) : new BigDecimal(digits);
+                    return new CustomNumber(source, position, number);
+                } catch (NumberFormatException e) {
+                    throw corrupt(e);
+                }
+            }
+            case TAG_ARRAY: {
+                enter();
+                int count = count();
+                CustomJsonValue[] values = count == 0 ? CustomObject.NO_VALUES : new CustomJsonValue[count];
+                for (int i = 0; i < count; i++) {
+                    values[i] = value();
+                }
+                depth--;
+                return CustomArray.adopt(source, position, values, count);
+            }
+            case TAG_OBJECT: {
+                enter();
+                int count = count();
+                String[] keys = count == 0 ? CustomObject.NO_KEYS : new String[count];
+                CustomJsonValue[] values = count == 0 ? CustomObject.NO_VALUES : new CustomJsonValue[count];
+                for (int i = 0; i < count; i++) {
+                    keys[i] = string();
+                    values[i] = value();
+                }
+                depth--;
+                return CustomObject.adopt(source, position, keys, values, count);
+            }
+            default:
+                throw new IOException("Corrupt binary quilt mod json (unknown tag " + tag + ")");
+            }
+        }
+
+        private void enter() throws IOException {
+            if (++depth > JsonReadLimits.DEFAULT.maxDepth()) {
+                throw new IOException(
+                    "Corrupt binary quilt mod json (nested more than " + JsonReadLimits.DEFAULT.maxDepth() + " deep)"
+                );
+            }
+        }
+
+        private long location() throws IOException {
+            if (locations) {
+                int index = readVarInt();
+                if (index < 0 || index >= strings.length) {
+                    throw new IOException("Corrupt binary quilt mod json (bad location index " + index + ")");
+                }
+                return index;
+            }
+            return 0;
+        }
+
+        private String string() throws IOException {
+            int index = readVarInt();
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Corrupt binary quilt mod json (bad string index " + index + ")");
+            }
+            return strings[index];
+        }
+
+        /** Reads a string index which is one more than the index in the table, or 0 for null. */
+        private String nullableString() throws IOException {
+            int index = readVarInt();
+            if (index == 0) {
+                return null;
+            }
+            if (index < 0 || index > strings.length) {
+                throw new IOException("Corrupt binary quilt mod json (bad string index " + (index - 1) + ")");
+            }
+            return strings[index - 1];
+        }
+
+        /** Reads a count, checking that it's small enough that each element could have at least one byte. */
+        private int count() throws IOException {
+            int count = readVarInt();
+            if (count < 0 || count > in.remaining()) {
+                throw new IOException("Corrupt binary quilt mod json (bad count " + count + ")");
+            }
+            return count;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IndexOutOfBoundsException("varint is too long");
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte b = in.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IndexOutOfBoundsException("varlong is too long");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.parsers.json.JsonWriter;
+
+final class CustomArray extends AbstractList<CustomJsonValue> implements CustomJsonArray, RandomAccess {
+
+    final JsonSource jsonSource;
+    final long position;
+
+    /** This may be longer than {@link #size}. */
+    final CustomJsonValue[] values;
+    final int size;
+
+    /** The {@link List#hashCode()} of this, or zero if it hasn't been computed yet. */
+    private int hash;
+
+    private CustomArray(JsonSource jsonSource, long position, CustomJsonValue[] values, int size) {
+        this.jsonSource = jsonSource;
+        this.position = position;
+        this.values = values;
+        this.size = size;
+    }
+
+    /** Creates an array which takes ownership of the given array, rather than copying it. */
+    static CustomArray adopt(JsonSource jsonSource, long position, CustomJsonValue[] values, int size) {
+        return new CustomArray(jsonSource, position, values, size);
+    }
+
+    @Override
+    public String location() {
+        return jsonSource.describe(position);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CustomJsonValue get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[index];
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * Like every {@link CustomJsonValue}, this ignores locations. */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CustomArray)) {
+            return super.equals(obj);
+        }
+        CustomArray other = (CustomArray) obj;
+        if (size != other.size || hashCode() != other.hashCode()) {
+            return false;
+        }
+        for (int index = 0; index < size; index++) {
+            if (!values[index].equals(other.values[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This is only computed once. */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 1;
+            for (int index = 0; index < size; index++) {
+                h = 31 * h + values[index].hashCode();
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.beginArray();
+        for (int index = 0; index < size; index++) {
+            values[index].write(writer);
+        }
+        writer.endArray();
+    }
+}
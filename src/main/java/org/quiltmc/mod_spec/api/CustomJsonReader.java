@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonToken;
+import org.quiltmc.parsers.json.MalformedSyntaxException;
+import org.quiltmc.parsers.json.ParseException;
+
+/** Reads a {@link CustomJsonValue} from a {@link JsonReader}. Each instance only reads a single value.
+ * <p>
+ * This doesn't recurse - instead unfinished arrays and objects are kept in an explicit stack, so deeply nested files
+ * can't overflow the thread's stack, and so the {@link JsonReadLimits} can be checked before anything is allocated for
+ * a value. */
+final class CustomJsonReader {
+
+    private final JsonReader reader;
+
+    /** The source shared by every value. If none was given then this is {@link #paths}, once the first value has been
+     * read. */
+    private JsonSource source;
+
+    /** Used when no source was given, so each value records its path from the first value instead. */
+    private JsonSource.PathJsonSource paths;
+
+    private final JsonReadLimits limits;
+
+    private long nextPosition;
+
+    /** Unfinished arrays and objects. Frames are reused once their value has been built. */
+    private Frame[] stack = new Frame[8];
+
+    CustomJsonReader(JsonReader reader, JsonSource source, JsonReadLimits limits) {
+        this.reader = reader;
+        this.source = source;
+        this.limits = limits;
+    }
+
+    CustomJsonValue read() throws IOException, ParseException {
+        int depth = 0;
+        long nodes = 0;
+
+        while (true) {
+            Frame parent = depth == 0 ? null : stack[depth - 1];
+            CustomJsonValue value;
+
+            JsonToken token = reader.peek();
+            switch (token) {
+            case NAME: {
+                if (parent == null || !parent.object) {
+                    throw new MalformedSyntaxException(reader, "Unexpected name encountered");
+                }
+                if (parent.size >= limits.maxObjectKeys()) {
+                    throw new ParseException(reader, "Object has more than " + limits.maxObjectKeys() + " keys");
+                }
+                parent.pendingKey = checkLength(reader.nextName());
+                continue;
+            }
+            case END_ARRAY: {
+                if (parent == null || parent.object) {
+                    throw new MalformedSyntaxException(reader, "Unexpected array end encountered");
+                }
+                reader.endArray();
+                depth--;
+                value = CustomArray.adopt(parent.source, parent.position, parent.values, parent.size);
+                parent.clear();
+                break;
+            }
+            case END_OBJECT: {
+                if (parent == null || !parent.object) {
+                    throw new MalformedSyntaxException(reader, "Unexpected object end encountered");
+                }
+                reader.endObject();
+                depth--;
+                value = CustomObject.adopt(parent.source, parent.position, parent.keys, parent.values, parent.size);
+                parent.clear();
+                break;
+            }
+            case END_DOCUMENT: {
+                throw new ParseException(reader, "Encountered end of document");
+            }
+            default: {
+                if (parent != null && parent.object && parent.pendingKey == null) {
+                    throw new MalformedSyntaxException(reader, "Entry in object had an entry with no key");
+                }
+
+                if (++nodes > limits.maxNodes()) {
+                    throw new ParseException(reader, "File has more than " + limits.maxNodes() + " values");
+                }
+
+                long position;
+                if (source == null) {
+                    // Only the first value is given a location by the reader, since building it is expensive
+                    source = paths = JsonSource.ofPaths(reader.locationString());
+                    position = 0;
+                } else if (paths == null) {
+                    position = nextPosition++;
+                } else if (parent.object) {
+                    position = paths.add(parent.position, parent.pendingKey);
+                } else {
+                    position = paths.add(parent.position, parent.size);
+                }
+                JsonSource valueSource = source;
+
+                switch (token) {
+                case BEGIN_ARRAY:
+                case BEGIN_OBJECT: {
+                    if (depth >= limits.maxDepth()) {
+                        throw new ParseException(reader, "Values are nested more than " + limits.maxDepth() + " deep");
+                    }
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    Frame frame = stack[depth];
+                    if (frame == null) {
+                        frame = stack[depth] = new Frame();
+                    }
+                    frame.object = token == JsonToken.BEGIN_OBJECT;
+                    frame.source = valueSource;
+                    frame.position = position;
+                    depth++;
+
+                    if (frame.object) {
+                        reader.beginObject();
+                    } else {
+                        reader.beginArray();
+                    }
+                    continue;
+                }
+                case STRING:
+                    value = new CustomString(valueSource, position, checkLength(reader.nextString()));
+                    break;
+                case NUMBER:
+                    value = new CustomNumber(valueSource, position, reader.nextNumber());
+                    break;
+                case BOOLEAN:
+                    value = new CustomBoolean(valueSource, position, reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    value = new CustomNull(valueSource, position);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(
+                        "Encountered unreachable state (unknown token " + token + ")"
+                    );
+                }
+            }
+            }
+
+            if (depth == 0) {
+                return value;
+            }
+
+            stack[depth - 1].add(value);
+        }
+    }
+
+    private String checkLength(String string) {
+        if (string.length() > limits.maxStringLength()) {
+            throw new ParseException(reader, "String is longer than " + limits.maxStringLength() + " characters");
+        }
+        return string;
+    }
+
+    private static int grow(int size) {
+        return size == 0 ? 4 : size * 2;
+    }
+
+    /** An unfinished array or object. */
+    private static final class Frame {
+        boolean object;
+        JsonSource source;
+        long position;
+        String[] keys = CustomObject.NO_KEYS;
+        CustomJsonValue[] values = CustomObject.NO_VALUES;
+        int size;
+        String pendingKey;
+
+        void add(CustomJsonValue value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+                if (object) {
+                    keys = Arrays.copyOf(keys, values.length);
+                }
+            }
+            if (object) {
+                keys[size] = pendingKey;
+                pendingKey = null;
+            }
+            values[size++] = value;
+        }
+
+        /** Forgets the arrays, since they are now owned by the built value. */
+        void clear() {
+            source = null;
+            keys = CustomObject.NO_KEYS;
+            values = CustomObject.NO_VALUES;
+            size = 0;
+            pendingKey = null;
+        }
+    }
+}
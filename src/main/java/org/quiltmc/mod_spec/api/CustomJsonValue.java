@@ -17,15 +17,14 @@
 package org.quiltmc.mod_spec.api;
 
 import java.io.IOException;
-import java.util.AbstractList;
-import java.util.AbstractMap;
-import java.util.ArrayList;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonBoolean;
@@ -34,9 +33,7 @@ import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
 import org.quiltmc.parsers.json.JsonReader;
-import org.quiltmc.parsers.json.JsonToken;
 import org.quiltmc.parsers.json.JsonWriter;
-import org.quiltmc.parsers.json.MalformedSyntaxException;
 import org.quiltmc.parsers.json.ParseException;
 
 /** A general-purpose object representation of json, normally easier to use than {@link JsonReader} / {@link JsonWriter}
@@ -64,66 +61,47 @@ public interface CustomJsonValue extends JsonWritable {
     @Override
     void write(JsonWriter writer) throws IOException;
 
+    /** Reads the next value from the given reader, using {@link JsonReadLimits#DEFAULT}. Only the location of the value
+     * itself is taken from the reader: everything inside it is located by its path from that value. If the whole text
+     * is available then {@link #read(String, String)} should be preferred, since that gives every value a line and
+     * column. */
     public static CustomJsonValue read(JsonReader reader) throws IOException, ParseException {
+        return read(reader, JsonReadLimits.DEFAULT);
+    }
 
-        switch (reader.peek()) {
-        case BEGIN_ARRAY: {
-            String location = reader.locationString();
-
-            reader.beginArray();
-
-            List<CustomJsonValue> array = new ArrayList<>();
-
-            while (reader.hasNext()) {
-                array.add(read(reader));
-            }
-
-            reader.endArray();
+    /** Reads the next value from the given reader.
+     * 
+     * @throws ParseException if the value exceeds any of the given limits. */
+    public static CustomJsonValue read(JsonReader reader, JsonReadLimits limits) throws IOException, ParseException {
+        return new CustomJsonReader(reader, null, limits).read();
+    }
 
-            return createArray(location, array);
+    /** Reads a value from the given text. The text is scanned once to record the line and column where each value
+     * starts (which is much cheaper than building a location string for each one), and isn't kept afterwards.
+     * 
+     * @param name The name of the file, which is prepended to every location. May be null. */
+    public static CustomJsonValue read(String name, String json) throws IOException, ParseException {
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            return new CustomJsonReader(reader, JsonSource.ofText(name, json), JsonReadLimits.DEFAULT).read();
         }
-        case BEGIN_OBJECT: {
-            String location = reader.locationString();
-
-            reader.beginObject();
-
-            Map<String, CustomJsonValue> elements = new LinkedHashMap<>();
-
-            while (reader.hasNext()) {
-                if (reader.peek() != JsonToken.NAME) {
-                    throw new MalformedSyntaxException(reader, "Entry in object had an entry with no key");
-                }
-
-                String key = reader.nextName();
-                elements.put(key, read(reader));
-            }
-
-            reader.endObject();
+    }
 
-            return createObject(location, elements);
-        }
-        case STRING:
-            return createString(reader.locationString(), reader.nextString());
-        case NUMBER:
-            return createNumber(reader.locationString(), reader.nextNumber());
-        case BOOLEAN:
-            return createBoolean(reader.locationString(), reader.nextBoolean());
-        case NULL:
-            String location = reader.locationString();
-            reader.nextNull();
-            return createNull(location);
-        // Invalid
-        case NAME:
-            throw new MalformedSyntaxException(reader, "Unexpected name encountered");
-        case END_ARRAY:
-            throw new MalformedSyntaxException(reader, "Unexpected array end encountered");
-        case END_OBJECT:
-            throw new MalformedSyntaxException(reader, "Unexpected object end encountered");
-        case END_DOCUMENT:
-            throw new ParseException(reader, "Encountered end of document");
+    /** Reads a value from the UTF-8 encoded bytes between the buffer's position and limit, in the same way as
+     * {@link #read(String, String)}. The bytes are decoded directly from the buffer rather than being copied into a
+     * string first, so this works well with a {@link java.nio.MappedByteBuffer}. The buffer's position is not changed,
+     * and it isn't kept once this returns.
+     * 
+     * @param name The name of the file, which is prepended to every location. May be null. */
+    public static CustomJsonValue read(String name, ByteBuffer utf8) throws IOException, ParseException {
+        try (JsonReader reader = JsonReader.json(new Utf8BufferReader(utf8.duplicate()))) {
+            return new CustomJsonReader(reader, JsonSource.ofBuffer(name, utf8), JsonReadLimits.DEFAULT).read();
         }
+    }
 
-        throw new UnsupportedOperationException("Encountered unreachable state (unknown token " + reader.peek() + ")");
+    /** Reads a UTF-8 encoded value from the given file, in the same way as {@link #read(String, String)}. */
+    public static CustomJsonValue read(Path path) throws IOException, ParseException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        return read(path.toString(), json);
     }
 
     public static CustomJsonObject createObject(Map<String, CustomJsonValue> map) {
@@ -131,7 +109,7 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonObject createObject(String location, Map<String, CustomJsonValue> map) {
-        return new CustomObject(location, Collections.unmodifiableMap(new LinkedHashMap<>(map)));
+        return CustomObject.copyOf(JsonSource.fixed(location), 0, map);
     }
 
     public static CustomJsonArray createArray(List<CustomJsonValue> list) {
@@ -139,8 +117,8 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonArray createArray(String location, List<CustomJsonValue> list) {
-        List<CustomJsonValue> copiedList = Arrays.asList(list.toArray(new CustomJsonValue[0]));
-        return new CustomArray(location, Collections.unmodifiableList(copiedList));
+        CustomJsonValue[] values = list.toArray(new CustomJsonValue[0]);
+        return CustomArray.adopt(JsonSource.fixed(location), 0, values, values.length);
     }
 
     public static CustomJsonNumber createNumber(Number number) {
@@ -148,7 +126,7 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonNumber createNumber(String location, Number number) {
-        return new CustomNumber(location, number);
+        return new CustomNumber(JsonSource.fixed(location), 0, number);
     }
 
     public static CustomJsonString createString(String value) {
@@ -156,7 +134,7 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonString createString(String location, String value) {
-        return new CustomString(location, value);
+        return new CustomString(JsonSource.fixed(location), 0, value);
     }
 
     public static CustomJsonBoolean createBoolean(boolean value) {
@@ -164,7 +142,7 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonBoolean createBoolean(String location, boolean value) {
-        return new CustomBoolean(location, value);
+        return new CustomBoolean(JsonSource.fixed(location), 0, value);
     }
 
     public static CustomJsonNull createNull() {
@@ -172,7 +150,7 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static CustomJsonNull createNull(String location) {
-        return new CustomNull(location);
+        return new CustomNull(JsonSource.fixed(location), 0);
     }
 
     public enum CustomJsonType {
@@ -239,10 +217,24 @@ public interface CustomJsonValue extends JsonWritable {
     }
 
     public static final class CustomJsonObjectBuilder {
-        private final Map<String, CustomJsonValue> map = new LinkedHashMap<>();
+        private String[] keys = new String[4];
+        private CustomJsonValue[] values = new CustomJsonValue[4];
+        private int size;
+
+        /** True if the arrays are in use by an object returned from {@link #build()}, and so must be copied before
+         * being modified. */
+        private boolean shared;
 
         public void put(String name, CustomJsonValue value) {
-            map.put(name, value);
+            if (shared || size == keys.length) {
+                int capacity = size == keys.length ? size * 2 : keys.length;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+                shared = false;
+            }
+            keys[size] = name;
+            values[size] = value;
+            size++;
         }
 
         public void put(String name, CustomJsonObjectBuilder value) {
@@ -254,31 +246,44 @@ public interface CustomJsonValue extends JsonWritable {
         }
 
         public void put(String name, JsonWritable value) {
-            map.put(name, value.toJson());
+            put(name, value.toJson());
         }
 
         public void put(String name, Number value) {
-            map.put(name, createNumber(value));
+            put(name, createNumber(value));
         }
 
         public void put(String name, String value) {
-            map.put(name, createString(value));
+            put(name, createString(value));
         }
 
         public void put(String name, boolean value) {
-            map.put(name, createBoolean(value));
+            put(name, createBoolean(value));
         }
 
         public CustomJsonObject build() {
-            return createObject(map);
+            CustomObject object = CustomObject.adopt(JsonSource.CREATED_THROUGH_CODE, 0, keys, values, size);
+            // Duplicate keys are removed from the arrays by adopt
+            size = object.size;
+            shared = true;
+            return object;
         }
     }
 
     public static final class CustomJsonArrayBuilder {
-        private final List<CustomJsonValue> list = new ArrayList<>();
+        private CustomJsonValue[] values = new CustomJsonValue[4];
+        private int size;
+
+        /** True if the array is in use by an array returned from {@link #build()}, and so must be copied before
+         * being modified. */
+        private boolean shared;
 
         public void add(CustomJsonValue value) {
-            list.add(value);
+            if (shared || size == values.length) {
+                values = Arrays.copyOf(values, size == values.length ? size * 2 : values.length);
+                shared = false;
+            }
+            values[size++] = value;
         }
 
         public void add(CustomJsonObjectBuilder value) {
@@ -290,243 +295,25 @@ public interface CustomJsonValue extends JsonWritable {
         }
 
         public void add(JsonWritable value) {
-            list.add(value.toJson());
+            add(value.toJson());
         }
 
         public void add(Number value) {
-            list.add(createNumber(value));
+            add(createNumber(value));
         }
 
         public void add(String value) {
-            list.add(createString(value));
+            add(createString(value));
         }
 
         public void add(boolean value) {
-            list.add(createBoolean(value));
+            add(createBoolean(value));
         }
 
         public CustomJsonArray build() {
-            return createArray(list);
+            shared = true;
+            return CustomArray.adopt(JsonSource.CREATED_THROUGH_CODE, 0, values, size);
         }
     }
 
 }
-
-final class CustomObject extends AbstractMap<String, CustomJsonValue> implements CustomJsonObject {
-
-    final String location;
-    final Map<String, CustomJsonValue> map;
-
-    CustomObject(String location, Map<String, CustomJsonValue> map) {
-        this.location = location;
-        this.map = map;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public Set<Entry<String, CustomJsonValue>> entrySet() {
-        return map.entrySet();
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.beginObject();
-        for (Map.Entry<String, CustomJsonValue> entry : entrySet()) {
-            writer.name(entry.getKey());
-            entry.getValue().write(writer);
-        }
-        writer.endObject();
-    }
-}
-
-final class CustomArray extends AbstractList<CustomJsonValue> implements CustomJsonArray {
-
-    final String location;
-    final List<CustomJsonValue> list;
-
-    CustomArray(String location, List<CustomJsonValue> list) {
-        this.location = location;
-        this.list = list;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public int size() {
-        return list.size();
-    }
-
-    @Override
-    public CustomJsonValue get(int index) {
-        return list.get(index);
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.beginArray();
-        for (CustomJsonValue value : this) {
-            value.write(writer);
-        }
-        writer.endArray();
-    }
-}
-
-final class CustomNumber implements CustomJsonNumber {
-    final String location;
-    final Number value;
-
-    CustomNumber(String location, Number value) {
-        this.location = location;
-        this.value = value;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public Number value() {
-        return value;
-    }
-
-    @Override
-    public int hashCode() {
-        return value.hashCode();
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        return obj instanceof CustomNumber && value.equals(((CustomNumber) obj).value);
-    }
-
-    @Override
-    public String toString() {
-        return value.toString();
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.value(value);
-    }
-}
-
-final class CustomString implements CustomJsonString {
-    final String location;
-    final String value;
-
-    CustomString(String location, String value) {
-        this.location = location;
-        this.value = value;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public String value() {
-        return value;
-    }
-
-    @Override
-    public int hashCode() {
-        return value.hashCode();
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        return obj instanceof CustomString && value.equals(((CustomString) obj).value);
-    }
-
-    @Override
-    public String toString() {
-        return value;
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.value(value);
-    }
-}
-
-final class CustomBoolean implements CustomJsonBoolean {
-    final String location;
-    final boolean value;
-
-    CustomBoolean(String location, boolean value) {
-        this.location = location;
-        this.value = value;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public boolean value() {
-        return value;
-    }
-
-    @Override
-    public int hashCode() {
-        return Boolean.hashCode(value);
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        return obj instanceof CustomString && value == ((CustomBoolean) obj).value;
-    }
-
-    @Override
-    public String toString() {
-        return Boolean.toString(value);
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.value(value);
-    }
-}
-
-final class CustomNull implements CustomJsonNull {
-    final String location;
-
-    CustomNull(String location) {
-        this.location = location;
-    }
-
-    @Override
-    public String location() {
-        return location;
-    }
-
-    @Override
-    public int hashCode() {
-        return 0;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        return obj instanceof CustomNull;
-    }
-
-    @Override
-    public String toString() {
-        return "null";
-    }
-
-    @Override
-    public void write(JsonWriter writer) throws IOException {
-        writer.nullValue();
-    }
-}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNull;
+import org.quiltmc.parsers.json.JsonWriter;
+
+final class CustomNull implements CustomJsonNull {
+    final JsonSource jsonSource;
+    final long position;
+
+    CustomNull(JsonSource jsonSource, long position) {
+        this.jsonSource = jsonSource;
+        this.position = position;
+    }
+
+    @Override
+    public String location() {
+        return jsonSource.describe(position);
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CustomNull;
+    }
+
+    @Override
+    public String toString() {
+        return "null";
+    }
+
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.nullValue();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.JsonWriter;
+
+final class CustomObject extends AbstractMap<String, CustomJsonValue> implements CustomJsonObject {
+
+    /** Objects with at most this many entries are searched linearly, rather than through a hash table. Most objects in
+     * mod jsons (provides, entrypoints, dependencies, version logic) only have a few keys. */
+    static final int HASH_THRESHOLD = 8;
+
+    static final String[] NO_KEYS = new String[0];
+    static final CustomJsonValue[] NO_VALUES = new CustomJsonValue[0];
+
+    final JsonSource jsonSource;
+    final long position;
+
+    /** The keys, in insertion order. Small objects intern their keys, so lookups with constant strings normally only
+     * need an identity check. This may be longer than {@link #size}. */
+    final String[] keys;
+    final CustomJsonValue[] values;
+    final int size;
+
+    /** Null for small objects. Otherwise an open-addressed hash table of indices (plus one) into {@link #keys}, where
+     * zero is an empty slot. */
+    final int[] table;
+
+    /** The {@link Map#hashCode()} of this, or zero if it hasn't been computed yet. Races only cause the hash to be
+     * computed more than once. */
+    private int hash;
+
+    private CustomObject(
+        JsonSource jsonSource, long position, String[] keys, CustomJsonValue[] values, int size, int[] table
+    ) {
+        this.jsonSource = jsonSource;
+        this.position = position;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+        this.table = table;
+    }
+
+    static CustomObject copyOf(JsonSource jsonSource, long position, Map<String, CustomJsonValue> map) {
+        int size = map.size();
+        if (size == 0) {
+            return adopt(jsonSource, position, NO_KEYS, NO_VALUES, 0);
+        }
+        String[] keys = new String[size];
+        CustomJsonValue[] values = new CustomJsonValue[size];
+        int index = 0;
+        for (Map.Entry<String, CustomJsonValue> entry : map.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+            index++;
+        }
+        return adopt(jsonSource, position, keys, values, size);
+    }
+
+    /** Creates an object which takes ownership of the given arrays, rather than copying them. If a key is present more
+     * than once then the last value is used, but at the position of the first key (like {@link Map#put}), and the
+     * remaining entries are moved down in the arrays. */
+    static CustomObject adopt(JsonSource jsonSource, long position, String[] keys, CustomJsonValue[] values, int size) {
+        boolean small = size <= HASH_THRESHOLD;
+        int[] table = small ? null : new int[Integer.highestOneBit(size * 4 - 1)];
+        int count = 0;
+
+        for (int index = 0; index < size; index++) {
+            String key = Objects.requireNonNull(keys[index], "Json object keys may not be null");
+            if (small) {
+                key = key.intern();
+            }
+
+            int existing = small ? linearIndexOf(keys, count, key) : insert(table, keys, count, key);
+            if (existing >= 0) {
+                values[existing] = values[index];
+            } else {
+                keys[count] = key;
+                values[count] = values[index];
+                count++;
+            }
+        }
+
+        for (int index = count; index < size; index++) {
+            keys[index] = null;
+            values[index] = null;
+        }
+
+        return new CustomObject(jsonSource, position, keys, values, count, table);
+    }
+
+    private static int linearIndexOf(String[] keys, int size, Object key) {
+        for (int index = 0; index < size; index++) {
+            if (keys[index] == key) {
+                return index;
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            if (keys[index].equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** Adds the key at the given index to the table, unless an equal key is already present.
+     * 
+     * @return The index of the existing equal key, or -1 if the key was added. */
+    private static int insert(int[] table, String[] keys, int index, String key) {
+        // The table is kept at a load factor of 0.5 or below, so there's always an empty slot
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int existing = table[slot] - 1;
+            if (existing < 0) {
+                table[slot] = index + 1;
+                return -1;
+            }
+            if (keys[existing].equals(key)) {
+                return existing;
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+
+        if (table == null) {
+            return linearIndexOf(keys, size, key);
+        }
+
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (keys[index].equals(key)) {
+                return index;
+            }
+        }
+    }
+
+    @Override
+    public String location() {
+        return jsonSource.describe(position);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public CustomJsonValue get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Set<Entry<String, CustomJsonValue>> entrySet() {
+        return new AbstractSet<Entry<String, CustomJsonValue>>() {
+            @Override
+            public Iterator<Entry<String, CustomJsonValue>> iterator() {
+                return new Iterator<Entry<String, CustomJsonValue>>() {
+                    int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size;
+                    }
+
+                    @Override
+                    public Entry<String, CustomJsonValue> next() {
+                        if (index >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, CustomJsonValue> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * Like every {@link CustomJsonValue}, this ignores locations. */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CustomObject)) {
+            return super.equals(obj);
+        }
+        CustomObject other = (CustomObject) obj;
+        if (size != other.size || hashCode() != other.hashCode()) {
+            return false;
+        }
+        for (int index = 0; index < size; index++) {
+            if (!values[index].equals(other.get(keys[index]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This is only computed once. */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int index = 0; index < size; index++) {
+                h += keys[index].hashCode() ^ values[index].hashCode();
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        for (int index = 0; index < size; index++) {
+            writer.name(keys[index]);
+            values[index].write(writer);
+        }
+        writer.endObject();
+    }
+}
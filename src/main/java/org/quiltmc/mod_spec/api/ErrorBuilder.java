@@ -1,5 +1,6 @@
 package org.quiltmc.mod_spec.api;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -16,27 +17,79 @@ import org.quiltmc.mod_spec.api.InvalidModJsonException.InvalidValueProblem;
 import org.quiltmc.mod_spec.api.InvalidModJsonException.MissingValueProblem;
 import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
 import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonToken;
+import org.quiltmc.parsers.json.ParseException;
 
 final class ErrorBuilder {
 
+    /** Every set of types, indexed by a bitmask of their ordinals. */
+    private static final List<Set<CustomJsonType>> TYPE_SETS;
+
+    static {
+        CustomJsonType[] types = CustomJsonType.values();
+        List<Set<CustomJsonType>> sets = new ArrayList<>(1 << types.length);
+        for (int mask = 0; mask < 1 << types.length; mask++) {
+            EnumSet<CustomJsonType> set = EnumSet.noneOf(CustomJsonType.class);
+            for (CustomJsonType type : types) {
+                if ((mask & (1 << type.ordinal())) != 0) {
+                    set.add(type);
+                }
+            }
+            sets.add(Collections.unmodifiableSet(set));
+        }
+        TYPE_SETS = Collections.unmodifiableList(sets);
+    }
+
     private final List<ModJsonProblem> problems = new ArrayList<>();
+    private final int maxProblems;
+
+    ErrorBuilder() {
+        this(ModJsonErrorPolicy.COLLECT_ALL);
+    }
+
+    ErrorBuilder(ModJsonErrorPolicy policy) {
+        this.maxProblems = policy.maxProblems();
+    }
+
+    /** Thrown once the {@link ModJsonErrorPolicy} says to stop, to skip the rest of the validation. This must be caught
+     * by whatever created the {@link ErrorBuilder}, which should then throw {@link #build()} instead. */
+    static final class StopException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StopException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private void add(ModJsonProblem problem) {
+        problems.add(problem);
+        if (problems.size() >= maxProblems) {
+            throw new StopException();
+        }
+    }
 
     void appendMissingValue(String location, String name, String reason, CustomJsonType... validTypes) {
-        problems.add(new MissingValueProblem(location, name, setOf(validTypes), reason));
+        add(new MissingValueProblem(location, name, setOf(validTypes), reason));
     }
 
     void appendWrongType(String name, CustomJsonValue actualValue, String reason, CustomJsonType... validTypes) {
-        problems.add(new WrongTypeProblem(name, setOf(validTypes), actualValue, reason));
+        add(new WrongTypeProblem(name, setOf(validTypes), actualValue, reason));
     }
 
     void appendInvalidValue(String name, CustomJsonValue actualValue, String reason) {
-        problems.add(new InvalidValueProblem(name, actualValue, reason));
+        add(new InvalidValueProblem(name, actualValue, reason));
+    }
+
+    /** @param invalidIndex The index of the first invalid character in the actual string value. */
+    void appendInvalidValue(String name, CustomJsonValue actualValue, String reason, int invalidIndex) {
+        add(new InvalidValueProblem(name, actualValue, reason, invalidIndex));
     }
 
     CustomJsonObject expectObject(CustomJsonObject obj, String name, String reason) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.OBJECT), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.OBJECT), reason));
             return null;
         }
 
@@ -55,7 +108,7 @@ final class ErrorBuilder {
         if (value instanceof CustomJsonObject) {
             return (CustomJsonObject) value;
         } else {
-            problems.add(new WrongTypeProblem(name, setOf(CustomJsonType.OBJECT), value, reason));
+            add(new WrongTypeProblem(name, setOf(CustomJsonType.OBJECT), value, reason));
         }
         return null;
     }
@@ -63,7 +116,7 @@ final class ErrorBuilder {
     CustomJsonArray expectArray(CustomJsonObject obj, String name, String reason) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.ARRAY), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.ARRAY), reason));
             return null;
         }
 
@@ -82,7 +135,7 @@ final class ErrorBuilder {
         if (value instanceof CustomJsonArray) {
             return (CustomJsonArray) value;
         } else {
-            problems.add(new WrongTypeProblem(name, setOf(CustomJsonType.ARRAY), value, reason));
+            add(new WrongTypeProblem(name, setOf(CustomJsonType.ARRAY), value, reason));
         }
         return null;
     }
@@ -90,7 +143,7 @@ final class ErrorBuilder {
     CustomJsonNumber expectNumber(CustomJsonObject obj, String name, String reason) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.NUMBER), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.NUMBER), reason));
             return null;
         }
         return expectNumber(value, name, reason);
@@ -108,7 +161,7 @@ final class ErrorBuilder {
         if (value instanceof CustomJsonNumber) {
             return (CustomJsonNumber) value;
         } else {
-            problems.add(new WrongTypeProblem(name, setOf(CustomJsonType.NUMBER), value, reason));
+            add(new WrongTypeProblem(name, setOf(CustomJsonType.NUMBER), value, reason));
         }
         return null;
     }
@@ -116,7 +169,7 @@ final class ErrorBuilder {
     CustomJsonString expectString(CustomJsonObject obj, String name, String reason) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.STRING), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.STRING), reason));
             return null;
         }
 
@@ -136,7 +189,7 @@ final class ErrorBuilder {
         if (value instanceof CustomJsonString) {
             return (CustomJsonString) value;
         } else {
-            problems.add(new WrongTypeProblem(name, setOf(CustomJsonType.STRING), value, reason));
+            add(new WrongTypeProblem(name, setOf(CustomJsonType.STRING), value, reason));
         }
         return null;
     }
@@ -144,7 +197,7 @@ final class ErrorBuilder {
     CustomJsonBoolean expectBoolean(CustomJsonObject obj, String name, String reason) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.BOOLEAN), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(CustomJsonType.BOOLEAN), reason));
             return null;
         }
 
@@ -164,7 +217,7 @@ final class ErrorBuilder {
         if (value instanceof CustomJsonBoolean) {
             return (CustomJsonBoolean) value;
         } else {
-            problems.add(new WrongTypeProblem(name, setOf(CustomJsonType.BOOLEAN), value, reason));
+            add(new WrongTypeProblem(name, setOf(CustomJsonType.BOOLEAN), value, reason));
         }
         return null;
     }
@@ -172,7 +225,7 @@ final class ErrorBuilder {
     CustomJsonValue expect(CustomJsonObject obj, String name, String reason, CustomJsonType... validTypes) {
         CustomJsonValue value = obj.get(name);
         if (value == null) {
-            problems.add(new MissingValueProblem(obj.location(), name, setOf(validTypes), reason));
+            add(new MissingValueProblem(obj.location(), name, setOf(validTypes), reason));
             return null;
         }
 
@@ -196,12 +249,69 @@ final class ErrorBuilder {
             }
         }
 
-        problems.add(new WrongTypeProblem(name, setOf(validTypes), value, reason));
+        add(new WrongTypeProblem(name, setOf(validTypes), value, reason));
         return null;
     }
 
+    // Streaming variants, used when reading directly from a JsonReader rather than a CustomJsonValue
+
+    /** Checks that the next value in the reader is one of the given types. If it isn't then the value is read (so it
+     * can be stored in the problem) and skipped.
+     * 
+     * @return True if the next value is one of the valid types, and so hasn't been consumed. */
+    boolean expectNext(JsonReader reader, String name, String reason, CustomJsonType... validTypes)
+        throws IOException, ParseException {
+
+        CustomJsonType actualType = typeOf(reader.peek());
+        for (CustomJsonType allowed : validTypes) {
+            if (actualType == allowed) {
+                return true;
+            }
+        }
+
+        add(new WrongTypeProblem(name, setOf(validTypes), CustomJsonValue.read(reader), reason));
+        return false;
+    }
+
+    /** @return The next string in the reader, or null if the next value wasn't a string (in which case it has been
+     *         skipped and reported). */
+    String nextString(JsonReader reader, String name, String reason) throws IOException, ParseException {
+        if (expectNext(reader, name, reason, CustomJsonType.STRING)) {
+            return reader.nextString();
+        }
+        return null;
+    }
+
+    /** @return The {@link CustomJsonType} that the given token begins, or null if it doesn't begin a value. */
+    static CustomJsonType typeOf(JsonToken token) {
+        switch (token) {
+        case BEGIN_OBJECT:
+            return CustomJsonType.OBJECT;
+        case BEGIN_ARRAY:
+            return CustomJsonType.ARRAY;
+        case NUMBER:
+            return CustomJsonType.NUMBER;
+        case STRING:
+            return CustomJsonType.STRING;
+        case BOOLEAN:
+            return CustomJsonType.BOOLEAN;
+        case NULL:
+            return CustomJsonType.NULL;
+        default:
+            return null;
+        }
+    }
+
+    private static Set<CustomJsonType> setOf(CustomJsonType value) {
+        return TYPE_SETS.get(1 << value.ordinal());
+    }
+
     private static Set<CustomJsonType> setOf(CustomJsonType... values) {
-        return Collections.unmodifiableSet(EnumSet.of(values[0], values));
+        int mask = 0;
+        for (CustomJsonType value : values) {
+            mask |= 1 << value.ordinal();
+        }
+        return TYPE_SETS.get(mask);
     }
 
     InvalidModJsonException build() {
@@ -16,23 +16,365 @@
 
 package org.quiltmc.mod_spec.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArrayBuilder;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObjectBuilder;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.ProjectedQuiltModJsonV1.Field;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonToken;
+import org.quiltmc.parsers.json.ParseException;
 
-public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
+public final class FinalQuiltModJsonV1 extends Located implements QuiltModJsonV1 {
 
+    private static final String REASON_SCHEMA_VERSION = "[TODO:SCHEMA_VERSION]";
+    private static final String REASON_QUILT_LOADER = "[TODO:QUILT_LOADER]";
+    private static final String REASON_GROUP = "[TODO:GROUP]";
+    private static final String REASON_ID = "[TODO:ID]";
+    private static final String REASON_VERSION = "[TODO:VERSION]";
+    private static final String REASON_PROVIDES = "[TODO:PROVIDES]";
+
+    /** The fields which this represents, and so are read by {@link #read(JsonReader)}. */
+    private static final Set<Field> READ_FIELDS = Collections.unmodifiableSet(
+        EnumSet.of(Field.GROUP, Field.ID, Field.VERSION, Field.PROVIDES, Field.ENTRYPOINTS, Field.CUSTOM)
+    );
+
+    private final String group;
+    private final String id;
+    private final String version;
     private final List<FinalProvidesV1> provides;
     private final FinalEntrypointContainerV1 entrypoints;
+    private final Map<String, CustomJsonValue> custom;
+
+    private volatile CustomJsonObject json;
+    private volatile byte[] utf8;
+    private volatile ModVersion parsedVersion;
+
+    /** Zero if the hash hasn't been computed yet. Races only cause the hash to be computed more than once. */
+    private int hash;
+
+    FinalQuiltModJsonV1(
+        CustomJsonValue source, String group, String id, String version, List<FinalProvidesV1> provides,
+        FinalEntrypointContainerV1 entrypoints, Map<String, CustomJsonValue> custom
+    ) {
+        super(source);
+        this.group = group;
+        this.id = id;
+        this.version = version;
+        this.provides = provides;
+        this.entrypoints = entrypoints;
+        this.custom = custom;
+    }
+
+    /** Reads a {@link FinalQuiltModJsonV1} directly from the given reader, in a single pass. Unlike reading the file
+     * with {@link CustomJsonValue#read(JsonReader)} first, this only creates {@link CustomJsonValue}s for
+     * {@link #custom()} elements, and for invalid values which are stored in the thrown exception.
+     * 
+     * @throws InvalidModJsonException if the json was read successfully, but isn't a valid quilt.mod.json file. */
+    public static FinalQuiltModJsonV1 read(JsonReader reader)
+        throws IOException, ParseException, InvalidModJsonException {
+
+        return read(reader, ModJsonErrorPolicy.COLLECT_ALL);
+    }
+
+    /** Reads a quilt.mod.json file in the same way as {@link #read(JsonReader)}, but stops as soon as the given policy
+     * says to. If that happens then the rest of the value isn't read, so the reader shouldn't be used afterwards.
+     * 
+     * @throws InvalidModJsonException if the json was read successfully, but isn't a valid quilt.mod.json file. */
+    public static FinalQuiltModJsonV1 read(JsonReader reader, ModJsonErrorPolicy policy)
+        throws IOException, ParseException, InvalidModJsonException {
+
+        ErrorBuilder errors = new ErrorBuilder(policy);
+        FinalQuiltModJsonV1 result;
+        try {
+            result = read(reader, errors);
+        } catch (ErrorBuilder.StopException e) {
+            throw errors.build();
+        }
+        errors.throwIfErrored();
+        return result;
+    }
+
+    /** @return The read object, or null if the root value wasn't an object. */
+    static FinalQuiltModJsonV1 read(JsonReader reader, ErrorBuilder errors) throws IOException, ParseException {
+        ProjectedQuiltModJsonV1 read = ProjectedQuiltModJsonV1.read(reader, READ_FIELDS, errors);
+        if (read == null) {
+            return null;
+        }
+        return new FinalQuiltModJsonV1(
+            read.source, read.group(), read.id(), read.version(), read.provides(), read.entrypoints(), read.custom()
+        );
+    }
+
+    /** Creates a {@link FinalQuiltModJsonV1} from an already read json object, validating it in the same way as
+     * {@link #read(JsonReader)}.
+     * 
+     * @throws InvalidModJsonException if the json isn't a valid quilt.mod.json file. */
+    public static FinalQuiltModJsonV1 from(CustomJsonObject json) throws InvalidModJsonException {
+        return from(json, ModJsonErrorPolicy.COLLECT_ALL);
+    }
+
+    /** Creates a {@link FinalQuiltModJsonV1} from an already read json object, but stops validating as soon as the
+     * given policy says to.
+     * 
+     * @throws InvalidModJsonException if the json isn't a valid quilt.mod.json file. */
+    public static FinalQuiltModJsonV1 from(CustomJsonObject json, ModJsonErrorPolicy policy)
+        throws InvalidModJsonException {
+
+        ErrorBuilder errors = new ErrorBuilder(policy);
+        FinalQuiltModJsonV1 result;
+        try {
+            result = from(json, errors);
+        } catch (ErrorBuilder.StopException e) {
+            throw errors.build();
+        }
+        errors.throwIfErrored();
+        return result;
+    }
+
+    /** Visits each entry of the object (and of the quilt_loader object) exactly once, rather than looking up every
+     * known key. Locations are only computed for problems. */
+    static FinalQuiltModJsonV1 from(CustomJsonObject json, ErrorBuilder errors) {
+        boolean hasSchemaVersion = false;
+        CustomJsonValue loaderValue = null;
+        CustomJsonObject loader = null;
+        CustomJsonString group = null;
+        CustomJsonString id = null;
+        CustomJsonString version = null;
+        List<FinalProvidesV1> provides = Collections.emptyList();
+        FinalEntrypointContainerV1 entrypoints = FinalEntrypointContainerV1.EMPTY;
+        Map<String, CustomJsonValue> custom = new LinkedHashMap<>();
+
+        CustomObject root = asCustomObject(json);
+        for (int index = 0; index < root.size; index++) {
+            String key = root.keys[index];
+            CustomJsonValue value = root.values[index];
+            switch (key) {
+            case "schema_version": {
+                hasSchemaVersion = true;
+                CustomJsonNumber number = errors.expectNumber(value, key, REASON_SCHEMA_VERSION);
+                if (number != null && number.value().doubleValue() != 1) {
+                    errors.appendInvalidValue(key, number, REASON_SCHEMA_VERSION);
+                }
+                break;
+            }
+            case "quilt_loader": {
+                loaderValue = value;
+                loader = errors.expectObject(value, key, REASON_QUILT_LOADER);
+                if (loader == null) {
+                    break;
+                }
+                CustomObject loaderObject = asCustomObject(loader);
+                for (int loaderIndex = 0; loaderIndex < loaderObject.size; loaderIndex++) {
+                    String loaderKey = loaderObject.keys[loaderIndex];
+                    CustomJsonValue loaderEntry = loaderObject.values[loaderIndex];
+                    switch (loaderKey) {
+                    case "group": {
+                        group = errors.expectString(loaderEntry, loaderKey, REASON_GROUP);
+                        break;
+                    }
+                    case "id": {
+                        id = errors.expectString(loaderEntry, loaderKey, REASON_ID);
+                        break;
+                    }
+                    case "version": {
+                        version = errors.expectString(loaderEntry, loaderKey, REASON_VERSION);
+                        break;
+                    }
+                    case "provides": {
+                        provides = FinalProvidesV1.fromArray(loaderEntry, errors);
+                        break;
+                    }
+                    case "entrypoints": {
+                        entrypoints = new FinalEntrypointContainerV1(loaderEntry, errors);
+                        break;
+                    }
+                    default: {
+                        // Everything else (including metadata) isn't represented by FinalQuiltModJsonV1 yet, so it's
+                        // skipped without being validated
+                    }
+                    }
+                }
+                break;
+            }
+            case "mixin":
+            case "access_widener":
+            case "minecraft": {
+                // Not yet represented by FinalQuiltModJsonV1, so these are skipped without being validated, but they
+                // still aren't custom values
+                break;
+            }
+            default: {
+                custom.put(key, value);
+            }
+            }
+        }
+
+        if (!hasSchemaVersion) {
+            errors.appendMissingValue(json.location(), "schema_version", REASON_SCHEMA_VERSION, CustomJsonType.NUMBER);
+        }
+
+        if (loaderValue == null) {
+            errors.appendMissingValue(json.location(), "quilt_loader", REASON_QUILT_LOADER, CustomJsonType.OBJECT);
+        } else if (loader != null) {
+            int invalid;
+            if (group == null) {
+                if (!loader.containsKey("group")) {
+                    errors.appendMissingValue(loader.location(), "group", REASON_GROUP, CustomJsonType.STRING);
+                }
+            } else if ((invalid = IdentifierValidator.indexOfInvalidGroup(group.value())) >= 0) {
+                errors.appendInvalidValue("group", group, REASON_GROUP, invalid);
+            }
+            if (id == null) {
+                if (!loader.containsKey("id")) {
+                    errors.appendMissingValue(loader.location(), "id", REASON_ID, CustomJsonType.STRING);
+                }
+            } else if ((invalid = IdentifierValidator.indexOfInvalidId(id.value())) >= 0) {
+                errors.appendInvalidValue("id", id, REASON_ID, invalid);
+            }
+            if (version == null && !loader.containsKey("version")) {
+                errors.appendMissingValue(loader.location(), "version", REASON_VERSION, CustomJsonType.STRING);
+            }
+        }
+
+        return new FinalQuiltModJsonV1(
+            json, group != null ? group.value() : null, id != null ? id.value() : null,
+            version != null ? version.value() : null, provides, entrypoints, Collections.unmodifiableMap(custom)
+        );
+    }
+
+    private static CustomObject asCustomObject(CustomJsonObject object) {
+        if (object instanceof CustomObject) {
+            return (CustomObject) object;
+        }
+        return CustomObject.copyOf(JsonSource.suffixed(object, ""), 0, object);
+    }
+
+    @Override
+    public String group() {
+        return group;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public String version() {
+        return version;
+    }
+
+    /** @return The {@link #version()}, parsed. This is only parsed once, so every call returns the same object. */
+    public ModVersion parsedVersion() {
+        ModVersion value = parsedVersion;
+        if (value == null && version != null) {
+            parsedVersion = value = ModVersion.parse(version);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, CustomJsonValue> custom() {
+        return custom;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This is only computed once, so every call returns the same object. */
+    @Override
+    public CustomJsonObject toJson() {
+        CustomJsonObject value = json;
+        if (value == null) {
+            CustomJsonObjectBuilder loader = new CustomJsonObjectBuilder();
+            if (group != null) {
+                loader.put("group", group);
+            }
+            if (id != null) {
+                loader.put("id", id);
+            }
+            if (version != null) {
+                loader.put("version", version);
+            }
+            if (!provides.isEmpty()) {
+                CustomJsonArrayBuilder array = new CustomJsonArrayBuilder();
+                for (FinalProvidesV1 provided : provides) {
+                    array.add(provided.toJson());
+                }
+                loader.put("provides", array);
+            }
+            if (!entrypoints.isEmpty()) {
+                loader.put("entrypoints", entrypoints.toJson());
+            }
+
+            CustomJsonObjectBuilder root = new CustomJsonObjectBuilder();
+            root.put("schema_version", 1);
+            root.put("quilt_loader", loader);
+            for (Map.Entry<String, CustomJsonValue> entry : custom.entrySet()) {
+                root.put(entry.getKey(), entry.getValue());
+            }
+            json = value = root.build();
+        }
+        return value;
+    }
+
+    /** Writes {@link #toJson()} to the given stream as compact UTF-8 encoded json. The bytes are only computed once,
+     * so writing the same object again just copies them. */
+    public void write(OutputStream out) throws IOException {
+        byte[] bytes = utf8;
+        if (bytes == null) {
+            utf8 = bytes = toCompactUtf8(this);
+        }
+        out.write(bytes);
+    }
+
+    static byte[] toCompactUtf8(JsonWritable value) {
+        return new JsonSerializationContext().write(value).toByteArray();
+    }
+
+    /** Compares the content of this with another {@link FinalQuiltModJsonV1}. Locations are ignored. */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof FinalQuiltModJsonV1)) {
+            return false;
+        }
+        FinalQuiltModJsonV1 other = (FinalQuiltModJsonV1) obj;
+        return hashCode() == other.hashCode() && Objects.equals(group, other.group) && Objects.equals(id, other.id)
+            && Objects.equals(version, other.version) && provides.equals(other.provides)
+            && entrypoints.equals(other.entrypoints) && custom.equals(other.custom);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This is only computed once. */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            hash = h = Objects.hash(group, id, version, provides, entrypoints, custom);
+        }
+        return h;
+    }
 
     @Override
     public List<FinalProvidesV1> provides() {
@@ -43,26 +385,33 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
 
         private static final String REASON_ID = "[TODO:ID]";
         private static final String REASON_VERSION = "[TODO:VERSION]";
+        private static final String REASON_PROVIDES = "[TODO:PROVIDES]";
 
         private final String id;
         private final String version;
 
+        private volatile CustomJsonValue json;
+        private volatile byte[] utf8;
+        private volatile ModVersion parsedVersion;
+        private int hash;
+
         FinalProvidesV1(ProvidesV1 source, ErrorBuilder errors) {
             super(((Located) source).source);
-            String location = this.source.location();
 
             this.id = source.id();
             this.version = source.version();
 
             if (id == null) {
-                errors.appendMissingValue(location, "id", REASON_ID, CustomJsonType.STRING);
+                // Only computed here, since most values never need their location described
+                errors.appendMissingValue(this.source.location(), "id", REASON_ID, CustomJsonType.STRING);
             } else {
                 validateID(errors);
             }
         }
 
         private void validateID(ErrorBuilder errors) {
-            if (!ID_PATTERN.matcher(id).matches()) {
+            int invalid = IdentifierValidator.indexOfInvalidId(id);
+            if (invalid >= 0) {
                 final String actualLocation;
                 CustomJsonValue actualValue;
                 if (source instanceof CustomJsonObject) {
@@ -76,7 +425,7 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
                     actualLocation = source.location() + ".id";
                     actualValue = CustomJsonValue.createString(actualLocation, id);
                 }
-                errors.appendInvalidValue("id", actualValue, REASON_ID);
+                errors.appendInvalidValue("id", actualValue, REASON_ID, invalid);
             }
         }
 
@@ -86,6 +435,7 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
             CustomJsonString id = errors.expectString(source, "id", REASON_ID);
             if (id != null) {
                 this.id = id.value();
+                validateID(errors);
             } else {
                 this.id = "";
             }
@@ -127,6 +477,109 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
             this.version = version;
         }
 
+        FinalProvidesV1(CustomJsonValue source, String id, String version) {
+            super(source);
+            this.id = id;
+            this.version = version;
+        }
+
+        static List<FinalProvidesV1> fromArray(CustomJsonValue value, ErrorBuilder errors) {
+            CustomJsonArray array = errors.expectArray(value, "provides", REASON_PROVIDES);
+            if (array == null) {
+                return Collections.emptyList();
+            }
+
+            List<FinalProvidesV1> list = new ArrayList<>(array.size());
+            for (CustomJsonValue element : array) {
+                if (element instanceof CustomJsonString) {
+                    FinalProvidesV1 provides = new FinalProvidesV1(element, ((CustomJsonString) element).value(), null);
+                    provides.validateID(errors);
+                    list.add(provides);
+                } else if (element instanceof CustomJsonObject) {
+                    list.add(new FinalProvidesV1((CustomJsonObject) element, errors));
+                } else {
+                    errors.appendWrongType(
+                        "provides", element, REASON_PROVIDES, CustomJsonType.OBJECT, CustomJsonType.STRING
+                    );
+                }
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        /** @param paths The source used for the location of each element.
+         * @param position The position of the array in the paths. */
+        static List<FinalProvidesV1> readArray(
+            JsonReader reader, ErrorBuilder errors, JsonSource.PathJsonSource paths, int position
+        ) throws IOException, ParseException {
+
+            if (!errors.expectNext(reader, "provides", REASON_PROVIDES, CustomJsonType.ARRAY)) {
+                return Collections.emptyList();
+            }
+
+            List<FinalProvidesV1> list = new ArrayList<>();
+            reader.beginArray();
+            for (int i = 0; reader.hasNext(); i++) {
+                FinalProvidesV1 provides = read(reader, errors, paths, paths.add(position, i));
+                if (provides != null) {
+                    list.add(provides);
+                }
+            }
+            reader.endArray();
+            return Collections.unmodifiableList(list);
+        }
+
+        /** @param position The position of the next value in the paths.
+         * @return The read provides, or null if the next value was the wrong type. */
+        static FinalProvidesV1 read(
+            JsonReader reader, ErrorBuilder errors, JsonSource.PathJsonSource paths, int position
+        ) throws IOException, ParseException {
+
+            if (!errors.expectNext(reader, "provides", REASON_PROVIDES, CustomJsonType.OBJECT, CustomJsonType.STRING)) {
+                return null;
+            }
+
+            if (reader.peek() == JsonToken.STRING) {
+                String id = reader.nextString();
+                FinalProvidesV1 provides = new FinalProvidesV1(new CustomString(paths, position, id), id, null);
+                provides.validateID(errors);
+                return provides;
+            }
+
+            boolean hasId = false;
+            String id = null;
+            String version = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                switch (key) {
+                case "id": {
+                    hasId = true;
+                    id = errors.nextString(reader, key, REASON_ID);
+                    break;
+                }
+                case "version": {
+                    version = errors.nextString(reader, key, REASON_VERSION);
+                    break;
+                }
+                default: {
+                    reader.skipValue();
+                }
+                }
+            }
+            reader.endObject();
+
+            if (!hasId) {
+                errors.appendMissingValue(paths.describe(position), "id", REASON_ID, CustomJsonType.STRING);
+            }
+
+            CustomJsonValue source = paths.emptyObject(position);
+            FinalProvidesV1 provides = new FinalProvidesV1(source, id == null ? "" : id, version);
+            if (id != null) {
+                provides.validateID(errors);
+            }
+            return provides;
+        }
+
         public static FinalProvidesV1 of(String id, String version) throws InvalidModJsonException {
             FinalProvidesV1 result = new FinalProvidesV1(id, version);
             ErrorBuilder errors = new ErrorBuilder();
@@ -144,6 +597,61 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
         public String version() {
             return version;
         }
+
+        /** @return The {@link #version()}, parsed, or null if the version was omitted. This is only parsed once, so
+         *         every call returns the same object. */
+        public ModVersion parsedVersion() {
+            ModVersion value = parsedVersion;
+            if (value == null && version != null) {
+                parsedVersion = value = ModVersion.parse(version);
+            }
+            return value;
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * This is only computed once, so every call returns the same object. */
+        @Override
+        public CustomJsonValue toJson() {
+            CustomJsonValue value = json;
+            if (value == null) {
+                json = value = ProvidesV1.super.toJson();
+            }
+            return value;
+        }
+
+        /** Compares the id and version of this with another {@link FinalProvidesV1}. Locations are ignored. */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof FinalProvidesV1)) {
+                return false;
+            }
+            FinalProvidesV1 other = (FinalProvidesV1) obj;
+            return hashCode() == other.hashCode() && Objects.equals(id, other.id)
+                && Objects.equals(version, other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                hash = h = Objects.hash(id, version);
+            }
+            return h;
+        }
+
+        /** Writes {@link #toJson()} to the given stream as compact UTF-8 encoded json. The bytes are only computed
+         * once, so writing the same object again just copies them. */
+        public void write(OutputStream out) throws IOException {
+            byte[] bytes = utf8;
+            if (bytes == null) {
+                utf8 = bytes = toCompactUtf8(this);
+            }
+            out.write(bytes);
+        }
     }
 
     @Override
@@ -157,8 +665,18 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
         private static final String REASON_ENTRYPOINTS = "[TODO:ENTRYPOINTS]";
         private static final String REASON_ENTRYPOINT_ENTRY = "[TODO:ENTRYPOINT_ENTRY]";
 
+        static final FinalEntrypointContainerV1 EMPTY = new FinalEntrypointContainerV1(Collections.emptyMap());
+
         private final Map<String, List<FinalEntrypointV1>> map;
 
+        private volatile CustomJsonObject json;
+        private volatile byte[] utf8;
+        private int hash;
+
+        FinalEntrypointContainerV1(Map<String, List<FinalEntrypointV1>> map) {
+            this.map = map;
+        }
+
         <E extends EntrypointV1> FinalEntrypointContainerV1(EntrypointContainerV1<E> source, ErrorBuilder errors) {
             Map<String, List<FinalEntrypointV1>> out = new LinkedHashMap<>();
 
@@ -207,6 +725,50 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
             }
         }
 
+        /** @param paths The source used for the location of each entrypoint.
+         * @param position The position of the container in the paths. */
+        FinalEntrypointContainerV1(
+            JsonReader reader, ErrorBuilder errors, JsonSource.PathJsonSource paths, int position
+        ) throws IOException, ParseException {
+
+            if (!errors.expectNext(reader, "entrypoints", REASON_ENTRYPOINTS, CustomJsonType.OBJECT)) {
+                this.map = Collections.emptyMap();
+                return;
+            }
+
+            Map<String, List<FinalEntrypointV1>> out = new LinkedHashMap<>();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                int keyPosition = paths.add(position, key);
+                List<FinalEntrypointV1> outList = new ArrayList<>();
+
+                if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    for (int i = 0; reader.hasNext(); i++) {
+                        FinalEntrypointV1 entrypoint = FinalEntrypointV1.read(
+                            reader, errors, paths, paths.add(keyPosition, i)
+                        );
+                        if (entrypoint != null) {
+                            outList.add(entrypoint);
+                        }
+                    }
+                    reader.endArray();
+                } else if (errors.expectNext(
+                    reader, "entrypoints." + key, REASON_ENTRYPOINT_ENTRY, CustomJsonType.ARRAY,
+                    CustomJsonType.STRING, CustomJsonType.OBJECT
+                )) {
+                    outList.add(FinalEntrypointV1.read(reader, errors, paths, keyPosition));
+                }
+
+                out.put(key, Collections.unmodifiableList(outList));
+            }
+            reader.endObject();
+
+            this.map = Collections.unmodifiableMap(out);
+        }
+
         public static <E extends EntrypointV1> FinalEntrypointContainerV1 from(EntrypointContainerV1<E> source) throws InvalidModJsonException {
             ErrorBuilder errors = new ErrorBuilder();
             FinalEntrypointContainerV1 result = new FinalEntrypointContainerV1(source, errors);
@@ -229,6 +791,54 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
         public Set<Map.Entry<String, List<FinalEntrypointV1>>> entrySet() {
             return map.entrySet();
         }
+
+        /** {@inheritDoc}
+         * <p>
+         * This is only computed once, so every call returns the same object. */
+        @Override
+        public CustomJsonObject toJson() {
+            CustomJsonObject value = json;
+            if (value == null) {
+                json = value = EntrypointContainerV1.super.toJson();
+            }
+            return value;
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * Locations are ignored, since {@link FinalEntrypointV1#equals(Object)} ignores them. */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof FinalEntrypointContainerV1 && hashCode() != obj.hashCode()) {
+                return false;
+            }
+            return super.equals(obj);
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * This is only computed once. */
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                hash = h = map.hashCode();
+            }
+            return h;
+        }
+
+        /** Writes {@link #toJson()} to the given stream as compact UTF-8 encoded json. The bytes are only computed
+         * once, so writing the same object again just copies them. */
+        public void write(OutputStream out) throws IOException {
+            byte[] bytes = utf8;
+            if (bytes == null) {
+                utf8 = bytes = toCompactUtf8(this);
+            }
+            out.write(bytes);
+        }
     }
 
     public static final class FinalEntrypointV1 extends Located implements EntrypointV1 {
@@ -240,15 +850,18 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
         private final String adapter;
         private final String value;
 
+        private volatile CustomJsonValue json;
+        private volatile byte[] utf8;
+        private int hash;
+
         FinalEntrypointV1(EntrypointV1 source, ErrorBuilder errors) {
             super(((Located) source).source);
-            String location = this.source.location();
 
             this.adapter = source.adapter();
             this.value = source.value();
 
             if (value == null) {
-                errors.appendMissingValue(location, "value", REASON_VALUE, CustomJsonType.STRING);
+                errors.appendMissingValue(this.source.location(), "value", REASON_VALUE, CustomJsonType.STRING);
             }
         }
 
@@ -302,6 +915,60 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
             this.value = value;
         }
 
+        FinalEntrypointV1(CustomJsonValue source, String adapter, String value) {
+            super(source);
+            this.adapter = adapter;
+            this.value = value;
+        }
+
+        /** @param position The position of the next value in the paths.
+         * @return The read entrypoint, or null if the next value was the wrong type. */
+        static FinalEntrypointV1 read(
+            JsonReader reader, ErrorBuilder errors, JsonSource.PathJsonSource paths, int position
+        ) throws IOException, ParseException {
+
+            if (!errors.expectNext(
+                reader, "entrypoint", REASON_ENTRYPOINT, CustomJsonType.OBJECT, CustomJsonType.STRING
+            )) {
+                return null;
+            }
+
+            if (reader.peek() == JsonToken.STRING) {
+                String value = reader.nextString();
+                return new FinalEntrypointV1(new CustomString(paths, position, value), null, value);
+            }
+
+            String adapter = null;
+            String value = null;
+            boolean hasValue = false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                switch (key) {
+                case "adapter": {
+                    adapter = errors.nextString(reader, key, REASON_ADAPTER);
+                    break;
+                }
+                case "value": {
+                    hasValue = true;
+                    value = errors.nextString(reader, key, REASON_VALUE);
+                    break;
+                }
+                default: {
+                    reader.skipValue();
+                }
+                }
+            }
+            reader.endObject();
+
+            if (!hasValue) {
+                errors.appendMissingValue(paths.describe(position), "value", REASON_VALUE, CustomJsonType.STRING);
+            }
+
+            CustomJsonValue source = paths.emptyObject(position);
+            return new FinalEntrypointV1(source, adapter, value);
+        }
+
         public static FinalEntrypointV1 of(String adapter, String value) throws InvalidModJsonException {
             FinalEntrypointV1 result = new FinalEntrypointV1(adapter, value);
             ErrorBuilder errors = new ErrorBuilder();
@@ -318,5 +985,158 @@ public final class FinalQuiltModJsonV1 implements QuiltModJsonV1 {
         public String value() {
             return value;
         }
+
+        /** {@inheritDoc}
+         * <p>
+         * This is only computed once, so every call returns the same object. */
+        @Override
+        public CustomJsonValue toJson() {
+            CustomJsonValue result = json;
+            if (result == null) {
+                json = result = EntrypointV1.super.toJson();
+            }
+            return result;
+        }
+
+        /** Compares the adapter and value of this with another {@link FinalEntrypointV1}. Locations are ignored. */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof FinalEntrypointV1)) {
+                return false;
+            }
+            FinalEntrypointV1 other = (FinalEntrypointV1) obj;
+            return hashCode() == other.hashCode() && Objects.equals(adapter, other.adapter)
+                && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                hash = h = Objects.hash(adapter, value);
+            }
+            return h;
+        }
+
+        /** Writes {@link #toJson()} to the given stream as compact UTF-8 encoded json. The bytes are only computed
+         * once, so writing the same object again just copies them. */
+        public void write(OutputStream out) throws IOException {
+            byte[] bytes = utf8;
+            if (bytes == null) {
+                utf8 = bytes = toCompactUtf8(this);
+            }
+            out.write(bytes);
+        }
+    }
+
+    private static final String REASON_ICON = "[TODO:ICON]";
+    private static final String REASON_ICON_SIZE = "[TODO:ICON_SIZE]";
+
+    /** @param position The position of the next value in the paths.
+     * @return The read icon (or icons), or null if the next value was the wrong type. */
+    static IconsV1 readIcon(JsonReader reader, ErrorBuilder errors, JsonSource.PathJsonSource paths, int position)
+        throws IOException, ParseException {
+
+        if (!errors.expectNext(reader, "icon", REASON_ICON, CustomJsonType.STRING, CustomJsonType.OBJECT)) {
+            return null;
+        }
+
+        if (reader.peek() == JsonToken.STRING) {
+            String icon = reader.nextString();
+            return new FinalSingleIconV1(new CustomString(paths, position, icon), icon);
+        }
+
+        SortedMap<Integer, String> icons = new TreeMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            String path = errors.nextString(reader, "icon." + key, REASON_ICON);
+            if (path == null) {
+                continue;
+            }
+            int size;
+            try {
+                size = Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                size = -1;
+            }
+            if (size <= 0) {
+                CustomJsonValue value = new CustomString(paths, paths.add(position, key), key);
+                errors.appendInvalidValue("icon", value, REASON_ICON_SIZE);
+            } else {
+                icons.put(size, path);
+            }
+        }
+        reader.endObject();
+
+        CustomJsonValue source = paths.emptyObject(position);
+        return new FinalMultiIconV1(source, Collections.unmodifiableSortedMap(icons));
+    }
+
+    public static final class FinalSingleIconV1 extends Located implements IconsV1.SingleIconV1 {
+
+        private final String icon;
+
+        FinalSingleIconV1(CustomJsonValue source, String icon) {
+            super(source);
+            this.icon = icon;
+        }
+
+        @Override
+        public String icon() {
+            return icon;
+        }
+
+        /** Compares the icon of this with another {@link FinalSingleIconV1}. Locations are ignored. */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof FinalSingleIconV1 && Objects.equals(icon, ((FinalSingleIconV1) obj).icon);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(icon);
+        }
+    }
+
+    public static final class FinalMultiIconV1 extends Located implements IconsV1.MultiIconV1 {
+
+        private final SortedMap<Integer, String> icons;
+        private int hash;
+
+        FinalMultiIconV1(CustomJsonValue source, SortedMap<Integer, String> icons) {
+            super(source);
+            this.icons = icons;
+        }
+
+        @Override
+        public SortedMap<Integer, String> icons() {
+            return icons;
+        }
+
+        /** Compares the icons of this with another {@link FinalMultiIconV1}. Locations are ignored. */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof FinalMultiIconV1)) {
+                return false;
+            }
+            FinalMultiIconV1 other = (FinalMultiIconV1) obj;
+            return hashCode() == other.hashCode() && icons.equals(other.icons);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                hash = h = icons.hashCode();
+            }
+            return h;
+        }
     }
 }
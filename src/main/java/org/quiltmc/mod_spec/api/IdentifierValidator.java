@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+/** Hand-written matchers for the simple regular expressions in {@link QuiltModJsonV1}, which check each character
+ * against a lookup table instead of allocating a {@link java.util.regex.Matcher}. Each method returns the index of the
+ * first character which stops the string from matching, or -1 if it matches. */
+final class IdentifierValidator {
+
+    /** [a-z] */
+    private static final byte ID_START = 1;
+    /** [a-z0-9-_] */
+    private static final byte ID_PART = 2;
+    /** [a-zA-Z0-9-_.] */
+    private static final byte MAVEN_PART = 4;
+
+    private static final byte[] TABLE = new byte[128];
+
+    /** The maximum length of {@link QuiltModJsonV1#ID_REGEX}. */
+    static final int ID_MAX_LENGTH = 64;
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            TABLE[c] = ID_START | ID_PART | MAVEN_PART;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            TABLE[c] = MAVEN_PART;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            TABLE[c] = ID_PART | MAVEN_PART;
+        }
+        TABLE['-'] = ID_PART | MAVEN_PART;
+        TABLE['_'] = ID_PART | MAVEN_PART;
+        TABLE['.'] = MAVEN_PART;
+    }
+
+    private IdentifierValidator() {}
+
+    private static boolean is(char c, byte type) {
+        return c < 128 && (TABLE[c] & type) != 0;
+    }
+
+    /** Matches {@link QuiltModJsonV1#ID_REGEX}. If the id is too short then this returns its length, and if it's too
+     * long then this returns {@link #ID_MAX_LENGTH}. */
+    static int indexOfInvalidId(String id) {
+        int length = id.length();
+        if (length == 0 || !is(id.charAt(0), ID_START)) {
+            return 0;
+        }
+        int end = Math.min(length, ID_MAX_LENGTH);
+        for (int i = 1; i < end; i++) {
+            if (!is(id.charAt(i), ID_PART)) {
+                return i;
+            }
+        }
+        if (length < 2) {
+            return length;
+        }
+        return length > ID_MAX_LENGTH ? ID_MAX_LENGTH : -1;
+    }
+
+    /** Matches {@link QuiltModJsonV1#GROUP_REGEX}. An empty group is invalid at index 0. */
+    static int indexOfInvalidGroup(String group) {
+        int length = group.length();
+        if (length == 0) {
+            return 0;
+        }
+        return indexOfInvalidMavenPart(group, 0, length);
+    }
+
+    /** Matches {@link QuiltModJsonV1#INTERMEDIATE_MAPPINGS_REGEX}. If the colon is missing, or nothing follows it, then
+     * this returns the length of the string. */
+    static int indexOfInvalidIntermediateMappings(String mappings) {
+        int length = mappings.length();
+        int colon = mappings.indexOf(':');
+        if (colon < 0) {
+            int invalid = indexOfInvalidMavenPart(mappings, 0, length);
+            return invalid < 0 ? length : invalid;
+        }
+        if (colon == 0) {
+            return 0;
+        }
+        int invalid = indexOfInvalidMavenPart(mappings, 0, colon);
+        if (invalid >= 0) {
+            return invalid;
+        }
+        if (colon == length - 1) {
+            return length;
+        }
+        return indexOfInvalidMavenPart(mappings, colon + 1, length);
+    }
+
+    private static int indexOfInvalidMavenPart(String string, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!is(string.charAt(i), MAVEN_PART)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -15,6 +15,11 @@ public class InvalidModJsonException extends Exception {
         this.problems = problems;
     }
 
+    /** @return Every problem that was found. */
+    public List<ModJsonProblem> problems() {
+        return problems;
+    }
+
     private static String buildDescription(List<ModJsonProblem> from) {
         StringBuilder sb = new StringBuilder();
 
@@ -123,12 +128,18 @@ public class InvalidModJsonException extends Exception {
         private final String valueName;
         private final CustomJsonValue actualValue;
         private final String reason;
+        private final int invalidIndex;
 
         InvalidValueProblem(String valueName, CustomJsonValue actualValue, String reason) {
+            this(valueName, actualValue, reason, -1);
+        }
+
+        InvalidValueProblem(String valueName, CustomJsonValue actualValue, String reason, int invalidIndex) {
             this.location = actualValue.location();
             this.valueName = valueName;
             this.actualValue = actualValue;
             this.reason = reason;
+            this.invalidIndex = invalidIndex;
         }
 
         /** @return Where the value should be. */
@@ -150,5 +161,11 @@ public class InvalidModJsonException extends Exception {
         public String reason() {
             return reason;
         }
+
+        /** @return The index of the first invalid character in the {@link #actualValue()} string, or -1 if the problem
+         *         isn't with a specific character. */
+        public int invalidIndex() {
+            return invalidIndex;
+        }
     }
 }
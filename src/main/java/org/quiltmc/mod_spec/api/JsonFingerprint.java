@@ -0,0 +1,722 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonBoolean;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNull;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.parsers.json.JsonWriter;
+
+/** Computes a hash of the content of json values. {@link CustomJsonValue}s are hashed directly. Everything else is
+ * written with {@link JsonWritable#write(JsonWriter)} to a writer which splits the text into tokens as it arrives and
+ * hashes them straight away, so no {@link CustomJsonValue} tree is built and the text is never stored or parsed. Only
+ * the entries of objects which haven't ended yet are kept, so they can be sorted.
+ * <p>
+ * Values are fed to a {@link Hasher} as a canonical stream of tokens, so values which are semantically equal always
+ * have the same fingerprint:
+ * <ul>
+ * <li>Object keys are visited in {@link String#compareTo(String) natural order}, not insertion order.</li>
+ * <li>Numbers with the same value have the same fingerprint regardless of their type or how they are written, so 1,
+ * 1.0 and 1e0 are equal, and so are -0.0 and 0.</li>
+ * <li>Locations are ignored, unless they are explicitly included.</li>
+ * </ul>
+ * Fingerprints are only stable within the same {@link #VERSION}. */
+public final class JsonFingerprint {
+
+    /** Changed whenever the token stream changes, which changes every fingerprint. */
+    public static final int VERSION = 2;
+
+    private static final byte TOKEN_OBJECT = 1;
+    private static final byte TOKEN_OBJECT_END = 2;
+    private static final byte TOKEN_ARRAY = 3;
+    private static final byte TOKEN_ARRAY_END = 4;
+    private static final byte TOKEN_STRING = 5;
+    private static final byte TOKEN_INTEGER = 6;
+    private static final byte TOKEN_DECIMAL = 8;
+    private static final byte TOKEN_TRUE = 9;
+    private static final byte TOKEN_FALSE = 10;
+    private static final byte TOKEN_NULL = 11;
+    private static final byte TOKEN_LOCATION = 12;
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private JsonFingerprint() {}
+
+    /** Something which consumes bytes and produces a hash from them. Instances are only used once. */
+    public interface Hasher {
+        void update(byte[] bytes, int offset, int length);
+
+        /** @return The final hash. No more bytes will be passed to {@link #update(byte[], int, int)} after this. */
+        byte[] digest();
+    }
+
+    /** @return A new {@link Hasher} which computes a SHA-256 hash. */
+    public static Hasher sha256() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+        return new Hasher() {
+            @Override
+            public void update(byte[] bytes, int offset, int length) {
+                digest.update(bytes, offset, length);
+            }
+
+            @Override
+            public byte[] digest() {
+                return digest.digest();
+            }
+        };
+    }
+
+    /** @return A new {@link Hasher} which computes the 128-bit x64 variant of MurmurHash3. This is much faster than
+     *         {@link #sha256()}, but isn't resistant to deliberate collisions. */
+    public static Hasher murmur3_128() {
+        return new Murmur3Hasher();
+    }
+
+    /** Computes the fingerprint of the given value, ignoring locations. */
+    public static byte[] of(JsonWritable value, Hasher hasher) {
+        return of(value, hasher, false);
+    }
+
+    /** Computes the fingerprint of the given value.
+     * 
+     * @param includeLocations True if the {@link CustomJsonValue#location()} of each value should be included, so
+     *            that equal values from different places have different fingerprints. Only {@link CustomJsonValue}s
+     *            have locations, so values which aren't are converted with {@link JsonWritable#toJson()} first. */
+    public static byte[] of(JsonWritable value, Hasher hasher, boolean includeLocations) {
+        Feeder feeder = new Feeder(hasher, includeLocations);
+        if (value instanceof CustomJsonValue) {
+            feeder.value((CustomJsonValue) value);
+        } else if (includeLocations) {
+            feeder.value(value.toJson());
+        } else {
+            feeder.written(value);
+        }
+        feeder.flush();
+        return hasher.digest();
+    }
+
+    /** Buffers tokens, to avoid calling the {@link Hasher} for every byte. */
+    private static final class Feeder {
+        final Hasher hasher;
+        final boolean includeLocations;
+        byte[] buffer = new byte[256];
+        int size;
+
+        /** The streamed objects which haven't ended. Their tokens stay in the buffer until the object ends, so its
+         * entries can be sorted by key. */
+        StreamedObject[] streamed = new StreamedObject[4];
+        int openObjects;
+
+        Feeder(Hasher hasher, boolean includeLocations) {
+            this.hasher = hasher;
+            this.includeLocations = includeLocations;
+        }
+
+        void value(CustomJsonValue value) {
+            if (value instanceof CustomJsonObject) {
+                putByte(TOKEN_OBJECT);
+                location(value);
+                object((CustomJsonObject) value);
+                putByte(TOKEN_OBJECT_END);
+            } else if (value instanceof CustomJsonArray) {
+                putByte(TOKEN_ARRAY);
+                location(value);
+                for (CustomJsonValue element : (CustomJsonArray) value) {
+                    value(element);
+                }
+                putByte(TOKEN_ARRAY_END);
+            } else if (value instanceof CustomJsonString) {
+                putByte(TOKEN_STRING);
+                location(value);
+                putString(((CustomJsonString) value).value());
+            } else if (value instanceof CustomJsonNumber) {
+                number(value, ((CustomJsonNumber) value).value());
+            } else if (value instanceof CustomJsonBoolean) {
+                putByte(((CustomJsonBoolean) value).value() ? TOKEN_TRUE : TOKEN_FALSE);
+                location(value);
+            } else if (value instanceof CustomJsonNull) {
+                putByte(TOKEN_NULL);
+                location(value);
+            } else {
+                throw new IllegalArgumentException("Unknown CustomJsonValue " + value.getClass());
+            }
+        }
+
+        /** Hashes the tokens which the value writes, in the same way as {@link #value(CustomJsonValue)} hashes the
+         * equivalent tree. */
+        void written(JsonWritable value) {
+            TokenWriter tokens = new TokenWriter(this);
+            try {
+                JsonWriter writer = JsonWriter.json(tokens);
+                value.write(writer);
+                writer.flush();
+            } catch (IOException e) {
+                // Nothing here does real IO, so this can only come from a JsonWritable
+                throw new UncheckedIOException(e);
+            }
+            tokens.endDocument();
+        }
+
+        void beginObject() {
+            putByte(TOKEN_OBJECT);
+            if (openObjects == streamed.length) {
+                streamed = Arrays.copyOf(streamed, openObjects * 2);
+            }
+            StreamedObject object = streamed[openObjects];
+            if (object == null) {
+                object = streamed[openObjects] = new StreamedObject();
+            }
+            object.start = size;
+            object.count = 0;
+            openObjects++;
+        }
+
+        void name(String key) {
+            StreamedObject object = streamed[openObjects - 1];
+            if (object.count == object.keys.length) {
+                object.keys = Arrays.copyOf(object.keys, object.count * 2);
+                object.starts = Arrays.copyOf(object.starts, object.count * 2);
+            }
+            object.keys[object.count] = key;
+            object.starts[object.count] = size;
+            object.count++;
+        }
+
+        /** Moves the entries of the object into the same order as {@link #object(CustomJsonObject)} would visit
+         * them. */
+        void endObject() {
+            StreamedObject object = streamed[openObjects - 1];
+            int start = object.start;
+            int count = object.count;
+            String[] keys = object.keys;
+            int[] starts = object.starts;
+
+            byte[] entries = Arrays.copyOfRange(buffer, start, size);
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+
+            size = start;
+            putInt(count);
+            for (int index : order) {
+                int from = starts[index] - start;
+                int to = index + 1 < count ? starts[index + 1] - start : entries.length;
+                putString(keys[index]);
+                ensure(to - from);
+                System.arraycopy(entries, from, buffer, size, to - from);
+                size += to - from;
+            }
+            Arrays.fill(keys, 0, count, null);
+            openObjects--;
+            putByte(TOKEN_OBJECT_END);
+        }
+
+        void beginArray() {
+            putByte(TOKEN_ARRAY);
+        }
+
+        void endArray() {
+            putByte(TOKEN_ARRAY_END);
+        }
+
+        void string(String string) {
+            putByte(TOKEN_STRING);
+            putString(string);
+        }
+
+        void bool(boolean value) {
+            putByte(value ? TOKEN_TRUE : TOKEN_FALSE);
+        }
+
+        void nullValue() {
+            putByte(TOKEN_NULL);
+        }
+
+        void number(String text) {
+            decimal(null, new BigDecimal(text));
+        }
+
+        private void object(CustomJsonObject object) {
+            String[] keys;
+            int size;
+            if (object instanceof CustomObject) {
+                CustomObject custom = (CustomObject) object;
+                size = custom.size;
+                keys = Arrays.copyOf(custom.keys, size);
+            } else {
+                keys = object.keySet().toArray(new String[0]);
+                size = keys.length;
+            }
+            Arrays.sort(keys);
+            putInt(size);
+            for (String key : keys) {
+                putString(key);
+                value(object.get(key));
+            }
+        }
+
+        /** Every number is hashed through here, so equal values always have the same tokens. Integral values which fit
+         * in a long (including zeros of either sign) are integers, and everything else is the decimal which it is
+         * written as, which for doubles and floats is the shortest one which represents them.
+         * 
+         * @param value The value to take the location from, or null if the number was streamed. */
+        private void number(CustomJsonValue value, Number number) {
+            if (number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte) {
+                integer(value, number.longValue());
+            } else if (number instanceof Double || number instanceof Float) {
+                double d = number.doubleValue();
+                long l = (long) d;
+                if (l == d && l != Long.MAX_VALUE) {
+                    integer(value, l);
+                } else if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    throw new IllegalArgumentException("Json doesn't allow the number " + number);
+                } else {
+                    decimal(value, new BigDecimal(number.toString()));
+                }
+            } else if (number instanceof BigDecimal) {
+                decimal(value, (BigDecimal) number);
+            } else if (number instanceof BigInteger) {
+                decimal(value, new BigDecimal((BigInteger) number));
+            } else {
+                decimal(value, new BigDecimal(number.toString()));
+            }
+        }
+
+        private void decimal(CustomJsonValue value, BigDecimal decimal) {
+            if (decimal.signum() == 0) {
+                integer(value, 0);
+                return;
+            }
+            BigDecimal stripped = decimal.stripTrailingZeros();
+            if (stripped.scale() <= 0) {
+                BigInteger integer = stripped.toBigIntegerExact();
+                if (integer.compareTo(LONG_MIN) >= 0 && integer.compareTo(LONG_MAX) <= 0) {
+                    integer(value, integer.longValue());
+                    return;
+                }
+            }
+            putByte(TOKEN_DECIMAL);
+            location(value);
+            putInt(stripped.scale());
+            byte[] unscaled = stripped.unscaledValue().toByteArray();
+            putInt(unscaled.length);
+            for (byte b : unscaled) {
+                putByte(b);
+            }
+        }
+
+        private void integer(CustomJsonValue value, long l) {
+            putByte(TOKEN_INTEGER);
+            location(value);
+            putLong(l);
+        }
+
+        private void location(CustomJsonValue value) {
+            if (includeLocations) {
+                putByte(TOKEN_LOCATION);
+                putString(value.location());
+            }
+        }
+
+        private void putString(String string) {
+            int length = string.length();
+            putInt(length);
+            for (int i = 0; i < length; i++) {
+                char c = string.charAt(i);
+                ensure(2);
+                buffer[size++] = (byte) (c >>> 8);
+                buffer[size++] = (byte) c;
+            }
+        }
+
+        private void putByte(byte b) {
+            ensure(1);
+            buffer[size++] = b;
+        }
+
+        private void putInt(int i) {
+            ensure(4);
+            buffer[size++] = (byte) (i >>> 24);
+            buffer[size++] = (byte) (i >>> 16);
+            buffer[size++] = (byte) (i >>> 8);
+            buffer[size++] = (byte) i;
+        }
+
+        private void putLong(long l) {
+            putInt((int) (l >>> 32));
+            putInt((int) l);
+        }
+
+        /** Makes room for the given number of bytes, by passing the buffer to the hasher or (if a streamed object is
+         * still being read) by growing it. */
+        private void ensure(int extra) {
+            if (size + extra <= buffer.length) {
+                return;
+            }
+            if (openObjects == 0) {
+                flush();
+                if (extra <= buffer.length) {
+                    return;
+                }
+            }
+            buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+        }
+
+        void flush() {
+            if (size > 0) {
+                hasher.update(buffer, 0, size);
+                size = 0;
+            }
+        }
+    }
+
+    /** An object written to a {@link TokenWriter} which hasn't ended yet. */
+    private static final class StreamedObject {
+        /** The position in the buffer of the first entry. */
+        int start;
+        String[] keys = new String[8];
+        /** The position in the buffer of each entry's value. */
+        int[] starts = new int[8];
+        int count;
+    }
+
+    /** Receives the text written by a {@link JsonWriter}, and passes each token to the {@link Feeder} as soon as it's
+     * complete. This only needs to understand what {@link JsonWriter} writes, so anything which isn't punctuation,
+     * whitespace, or a string is the start of a number or literal. */
+    private static final class TokenWriter extends Writer {
+        private static final int OUTSIDE = 0;
+        private static final int STRING = 1;
+        private static final int ESCAPE = 2;
+        private static final int UNICODE = 3;
+        private static final int LITERAL = 4;
+
+        private final Feeder feeder;
+        private final StringBuilder text = new StringBuilder();
+        private int state = OUTSIDE;
+        private int unicode;
+        private int unicodeDigits;
+
+        /** For each unfinished array or object, true if it's an object. */
+        private boolean[] objects = new boolean[16];
+        private int depth;
+        private boolean expectKey;
+
+        TokenWriter(Feeder feeder) {
+            this.feeder = feeder;
+        }
+
+        @Override
+        public void write(int c) {
+            accept((char) c);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                accept(chars[i]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                accept(string.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+
+        /** Finishes a number or literal at the very end of the text, which has nothing after it to end it. */
+        void endDocument() {
+            if (state == LITERAL) {
+                endLiteral();
+            }
+            state = OUTSIDE;
+        }
+
+        private void accept(char c) {
+            switch (state) {
+            case STRING: {
+                if (c == '\\') {
+                    state = ESCAPE;
+                } else if (c == '"') {
+                    state = OUTSIDE;
+                    endString();
+                } else {
+                    text.append(c);
+                }
+                return;
+            }
+            case ESCAPE: {
+                state = STRING;
+                switch (c) {
+                case 'u':
+                    state = UNICODE;
+                    unicode = 0;
+                    unicodeDigits = 0;
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                default:
+                    text.append(c);
+                }
+                return;
+            }
+            case UNICODE: {
+                unicode = (unicode << 4) | Character.digit(c, 16);
+                if (++unicodeDigits == 4) {
+                    text.append((char) unicode);
+                    state = STRING;
+                }
+                return;
+            }
+            case LITERAL: {
+                if (c != ',' && c != ']' && c != '}' && !Character.isWhitespace(c)) {
+                    text.append(c);
+                    return;
+                }
+                endLiteral();
+                state = OUTSIDE;
+                // The character which ended the literal still needs to be handled
+                break;
+            }
+            default: {
+                break;
+            }
+            }
+
+            switch (c) {
+            case '{':
+            case '[': {
+                if (c == '{') {
+                    feeder.beginObject();
+                } else {
+                    feeder.beginArray();
+                }
+                if (depth == objects.length) {
+                    objects = Arrays.copyOf(objects, depth * 2);
+                }
+                objects[depth++] = c == '{';
+                expectKey = c == '{';
+                break;
+            }
+            case '}': {
+                depth--;
+                feeder.endObject();
+                expectKey = false;
+                break;
+            }
+            case ']': {
+                depth--;
+                feeder.endArray();
+                expectKey = false;
+                break;
+            }
+            case ',': {
+                expectKey = depth > 0 && objects[depth - 1];
+                break;
+            }
+            case '"': {
+                state = STRING;
+                text.setLength(0);
+                break;
+            }
+            default: {
+                if (c != ':' && !Character.isWhitespace(c)) {
+                    state = LITERAL;
+                    text.setLength(0);
+                    text.append(c);
+                }
+            }
+            }
+        }
+
+        private void endString() {
+            if (expectKey) {
+                feeder.name(text.toString());
+                expectKey = false;
+            } else {
+                feeder.string(text.toString());
+            }
+        }
+
+        private void endLiteral() {
+            String literal = text.toString();
+            switch (literal) {
+            case "true":
+                feeder.bool(true);
+                break;
+            case "false":
+                feeder.bool(false);
+                break;
+            case "null":
+                feeder.nullValue();
+                break;
+            default:
+                feeder.number(literal);
+            }
+        }
+    }
+
+    /** MurmurHash3, x64 128-bit variant, computed incrementally. */
+    private static final class Murmur3Hasher implements Hasher {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private final byte[] block = new byte[16];
+        private int blockSize;
+        private long length;
+        private long h1;
+        private long h2;
+
+        @Override
+        public void update(byte[] bytes, int offset, int count) {
+            length += count;
+            int end = offset + count;
+            while (offset < end) {
+                if (blockSize == 0 && end - offset >= 16) {
+                    mix(getLong(bytes, offset), getLong(bytes, offset + 8));
+                    offset += 16;
+                } else {
+                    int take = Math.min(16 - blockSize, end - offset);
+                    System.arraycopy(bytes, offset, block, blockSize, take);
+                    blockSize += take;
+                    offset += take;
+                    if (blockSize == 16) {
+                        mix(getLong(block, 0), getLong(block, 8));
+                        blockSize = 0;
+                    }
+                }
+            }
+        }
+
+        private static long getLong(byte[] bytes, int offset) {
+            long value = 0;
+            for (int i = 7; i >= 0; i--) {
+                value = (value << 8) | (bytes[offset + i] & 0xFF);
+            }
+            return value;
+        }
+
+        private void mix(long k1, long k2) {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            return k1;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            return k2;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+
+        @Override
+        public byte[] digest() {
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = blockSize - 1; i >= 8; i--) {
+                k2 = (k2 << 8) | (block[i] & 0xFF);
+            }
+            for (int i = Math.min(blockSize, 8) - 1; i >= 0; i--) {
+                k1 = (k1 << 8) | (block[i] & 0xFF);
+            }
+            if (blockSize > 8) {
+                h2 ^= mixK2(k2);
+            }
+            if (blockSize > 0) {
+                h1 ^= mixK1(k1);
+            }
+
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+
+            byte[] result = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                result[i] = (byte) (h1 >>> (i * 8));
+                result[i + 8] = (byte) (h2 >>> (i * 8));
+            }
+            return result;
+        }
+    }
+}
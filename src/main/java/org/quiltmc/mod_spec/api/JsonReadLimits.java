@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import org.quiltmc.parsers.json.ParseException;
+
+/** Limits on the size of json read into {@link CustomJsonValue}s, to protect against corrupted or malicious files.
+ * Reading throws a {@link ParseException} (at the location of the offending value) as soon as any limit is exceeded.
+ * <p>
+ * This is immutable - the "with" methods return a new instance. */
+public final class JsonReadLimits {
+
+    /** The limits used by {@link CustomJsonValue#read(org.quiltmc.parsers.json.JsonReader)}. These are far larger than
+     * any real quilt.mod.json file should need. */
+    public static final JsonReadLimits DEFAULT = new JsonReadLimits(512, 1 << 22, 1 << 22, 1 << 16);
+
+    /** No limits at all. Note that even without a depth limit, deeply nested values won't overflow the stack. */
+    public static final JsonReadLimits UNLIMITED = new JsonReadLimits(
+        Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE
+    );
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final int maxStringLength;
+    private final int maxObjectKeys;
+
+    private JsonReadLimits(int maxDepth, long maxNodes, int maxStringLength, int maxObjectKeys) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxStringLength = maxStringLength;
+        this.maxObjectKeys = maxObjectKeys;
+    }
+
+    /** @return The maximum number of arrays and objects that may be nested inside each other. */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /** @return The maximum number of values (including every array, object, and the values inside them) that may be
+     *         read. */
+    public long maxNodes() {
+        return maxNodes;
+    }
+
+    /** @return The maximum length of any string, including object keys. */
+    public int maxStringLength() {
+        return maxStringLength;
+    }
+
+    /** @return The maximum number of entries in a single object. */
+    public int maxObjectKeys() {
+        return maxObjectKeys;
+    }
+
+    public JsonReadLimits withMaxDepth(int maxDepth) {
+        return new JsonReadLimits(requirePositive(maxDepth), maxNodes, maxStringLength, maxObjectKeys);
+    }
+
+    public JsonReadLimits withMaxNodes(long maxNodes) {
+        if (maxNodes <= 0) {
+            throw new IllegalArgumentException("Limits must be positive, but got " + maxNodes);
+        }
+        return new JsonReadLimits(maxDepth, maxNodes, maxStringLength, maxObjectKeys);
+    }
+
+    public JsonReadLimits withMaxStringLength(int maxStringLength) {
+        return new JsonReadLimits(maxDepth, maxNodes, requirePositive(maxStringLength), maxObjectKeys);
+    }
+
+    public JsonReadLimits withMaxObjectKeys(int maxObjectKeys) {
+        return new JsonReadLimits(maxDepth, maxNodes, maxStringLength, requirePositive(maxObjectKeys));
+    }
+
+    private static int requirePositive(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limits must be positive, but got " + limit);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import org.quiltmc.parsers.json.JsonWriter;
+
+/** Serialises {@link JsonWritable}s straight to UTF-8 bytes in a buffer which is reused between documents, so writing
+ * many documents doesn't allocate an encoder or string for each one. Values are written with
+ * {@link JsonWritable#write(JsonWriter)}, so types which can stream themselves never build a {@link CustomJsonValue}
+ * tree.
+ * <p>
+ * Typical usage is:
+ * 
+ * <pre>
+ * JsonSerializationContext context = new JsonSerializationContext();
+ * for (QuiltModJson mod : mods) {
+ *     context.reset();
+ *     context.write(mod);
+ *     context.writeTo(channel);
+ * }
+ * </pre>
+ * 
+ * Instances are not thread safe. */
+public final class JsonSerializationContext {
+
+    /** The indent for each level of nesting, or null for compact output. */
+    private final String indent;
+
+    /** Encodes everything the {@link JsonWriter}s write into {@link #buffer}. */
+    private final Utf8Writer utf8 = new Utf8Writer();
+
+    private byte[] buffer = new byte[1024];
+    private int size;
+
+    /** Creates a context which writes compact json, without any whitespace. */
+    public JsonSerializationContext() {
+        this.indent = null;
+    }
+
+    /** Creates a context which writes pretty json, with each value on a new line.
+     * 
+     * @param indent The indent for each level of nesting, which must only contain spaces and tabs. */
+    public JsonSerializationContext(String indent) {
+        for (int i = 0; i < indent.length(); i++) {
+            char c = indent.charAt(i);
+            if (c != ' ' && c != '\t') {
+                throw new IllegalArgumentException(
+                    "Indents may only contain spaces and tabs, but got '" + indent + "'"
+                );
+            }
+        }
+        this.indent = indent;
+    }
+
+    /** @return True if this writes pretty json, or false if it writes compact json. */
+    public boolean isPretty() {
+        return indent != null;
+    }
+
+    /** Forgets everything written so far, but keeps the buffer to use for the next document. */
+    public void reset() {
+        size = 0;
+    }
+
+    /** @return The number of bytes written since the last {@link #reset()}. */
+    public int size() {
+        return size;
+    }
+
+    /** Appends the given value to the buffer.
+     * 
+     * @throws IllegalArgumentException if the value contains a number which can't be represented in json, like
+     *             {@link Double#NaN}. */
+    public JsonSerializationContext write(JsonWritable value) {
+        // A JsonWriter only accepts a single top level value, so each document gets its own (small) writer, but they
+        // all share the encoder and buffer
+        JsonWriter writer = JsonWriter.json(utf8);
+        if (indent != null) {
+            writer.setIndent(indent);
+        }
+        try {
+            value.write(writer);
+            writer.flush();
+        } catch (IOException e) {
+            // Nothing here does real IO, so this can only come from a JsonWritable
+            throw new UncheckedIOException(e);
+        }
+        utf8.endDocument();
+        return this;
+    }
+
+    /** Appends a line feed to the buffer, for separating documents or ending a file. */
+    public JsonSerializationContext newLine() {
+        ensure(1);
+        buffer[size++] = '\n';
+        return this;
+    }
+
+    /** Writes everything in the buffer to the given stream. This doesn't {@link #reset()} this context. */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /** Writes everything in the buffer to the given channel. This doesn't {@link #reset()} this context. */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, size);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /** @return A copy of everything in the buffer. */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /** @return A read-only view of everything in the buffer, which is only valid until the next {@link #reset()} or
+     *         write. */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(buffer, 0, size).slice().asReadOnlyBuffer();
+    }
+
+    private void ensure(int extra) {
+        int required = size + extra;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    /** A {@link Writer} which encodes chars as UTF-8 directly into the buffer of the context. */
+    private final class Utf8Writer extends Writer {
+
+        /** A high surrogate at the end of the last write, which is waiting for the low surrogate in the next one. */
+        private char pendingHigh;
+
+        @Override
+        public void write(int c) {
+            ensure(4);
+            size = encode((char) c, buffer, size);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            // Every char takes at most 3 bytes, and a pending surrogate pair takes 4
+            ensure(len * 3 + 1);
+            byte[] buf = buffer;
+            int pos = size;
+            for (int i = off; i < off + len; i++) {
+                char c = str.charAt(i);
+                if (c < 0x80 && pendingHigh == 0) {
+                    buf[pos++] = (byte) c;
+                } else {
+                    pos = encode(c, buf, pos);
+                }
+            }
+            size = pos;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            ensure(len * 3 + 1);
+            byte[] buf = buffer;
+            int pos = size;
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                if (c < 0x80 && pendingHigh == 0) {
+                    buf[pos++] = (byte) c;
+                } else {
+                    pos = encode(c, buf, pos);
+                }
+            }
+            size = pos;
+        }
+
+        private int encode(char c, byte[] buf, int pos) {
+            if (pendingHigh != 0) {
+                char high = pendingHigh;
+                pendingHigh = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    buf[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                    buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+                    return pos;
+                }
+                // Unpaired surrogates can't be encoded, so they are replaced like a CharsetEncoder would
+                buf[pos++] = '?';
+            }
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHigh = c;
+            } else if (Character.isLowSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+            return pos;
+        }
+
+        /** Replaces a high surrogate which was never followed by its low surrogate. */
+        void endDocument() {
+            if (pendingHigh != 0) {
+                pendingHigh = 0;
+                ensure(1);
+                buffer[size++] = '?';
+            }
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
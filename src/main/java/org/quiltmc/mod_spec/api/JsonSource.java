@@ -0,0 +1,372 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.quiltmc.parsers.json.JsonReader;
+
+/** A handle to wherever a {@link CustomJsonValue} came from, shared between every value read from the same file. Values
+ * store this alongside a compact position (the index of the value in the file), and only turn it into a location
+ * string when {@link CustomJsonValue#location()} is called - which is normally only done when reporting problems. */
+abstract class JsonSource {
+
+    static final JsonSource CREATED_THROUGH_CODE = new FixedJsonSource(CustomJsonValue.DEFAULT_LOCATION);
+
+    /** @return A source which always describes itself as the given location, ignoring the position. */
+    static JsonSource fixed(String location) {
+        if (CustomJsonValue.DEFAULT_LOCATION.equals(location)) {
+            return CREATED_THROUGH_CODE;
+        }
+        return new FixedJsonSource(location);
+    }
+
+    /** @param name The file name, prepended to each location. May be null.
+     * @param text The full text of the file. This is scanned once to find where each value starts, and isn't kept. */
+    static JsonSource ofText(String name, String text) {
+        return LineColumnJsonSource.scan(name, new StringReader(text));
+    }
+
+    /** @param name The file name, prepended to each location. May be null.
+     * @param utf8 The UTF-8 bytes of the file, from its position to its limit. These are scanned once (without changing
+     *            the buffer's position) to find where each value starts, and the buffer isn't kept. */
+    static JsonSource ofBuffer(String name, ByteBuffer utf8) {
+        return LineColumnJsonSource.scan(name, new Utf8BufferReader(utf8.duplicate()));
+    }
+
+    /** @return A source which describes each position as the string at that index in the given table. */
+    static JsonSource ofTable(String[] locations) {
+        return new TableJsonSource(locations);
+    }
+
+    /** @param rootLocation The location of the first value, which is the only one taken from the reader.
+     * @return An empty source for the values read from a reader which can't be re-read. */
+    static PathJsonSource ofPaths(String rootLocation) {
+        return new PathJsonSource(rootLocation);
+    }
+
+    /** @return A source which describes itself as the location of the given value, followed by the suffix. */
+    static JsonSource suffixed(CustomJsonValue parent, String suffix) {
+        return new SuffixedJsonSource(parent, suffix);
+    }
+
+    /** @param position The index of the value in the file, in the order that the values begin.
+     * @return A human readable description of the given position. */
+    abstract String describe(long position);
+
+    static final class FixedJsonSource extends JsonSource {
+        final String location;
+
+        FixedJsonSource(String location) {
+            this.location = location;
+        }
+
+        @Override
+        String describe(long position) {
+            return location;
+        }
+    }
+
+    static final class TableJsonSource extends JsonSource {
+        final String[] locations;
+
+        TableJsonSource(String[] locations) {
+            this.locations = locations;
+        }
+
+        @Override
+        String describe(long position) {
+            return locations[(int) position];
+        }
+    }
+
+    /** Shared by every value read from a {@link JsonReader} which can't be re-read. Building a location string from the
+     * reader is as expensive as reading the value, so that's only done for the first value (at position 0). Every other
+     * value just records its parent and its key or index, and is described as the path from the first value when its
+     * location is actually needed. */
+    static final class PathJsonSource extends JsonSource {
+        private final String rootLocation;
+        private int size = 1;
+        private int[] parents = { -1, 0, 0, 0 };
+        /** The key of each value in its parent object, or null if the parent is an array. */
+        private String[] keys = new String[4];
+        private int[] indices = new int[4];
+
+        PathJsonSource(String rootLocation) {
+            this.rootLocation = rootLocation;
+        }
+
+        /** @return The position of a new value, stored at the given key of the value at the parent position. */
+        int add(long parent, String key) {
+            return add(parent, key, 0);
+        }
+
+        /** @return The position of a new value, stored at the given index of the array at the parent position. */
+        int add(long parent, int index) {
+            return add(parent, null, index);
+        }
+
+        private int add(long parent, String key, int index) {
+            if (size == parents.length) {
+                parents = Arrays.copyOf(parents, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            parents[size] = (int) parent;
+            keys[size] = key;
+            indices[size] = index;
+            return size++;
+        }
+
+        /** @return An empty object at the given position, used as the source of a value which was read without
+         *         creating a {@link CustomJsonValue} for it. */
+        CustomObject emptyObject(int position) {
+            return CustomObject.adopt(this, position, CustomObject.NO_KEYS, CustomObject.NO_VALUES, 0);
+        }
+
+        @Override
+        String describe(long position) {
+            int depth = 0;
+            for (int p = (int) position; p > 0; p = parents[p]) {
+                depth++;
+            }
+            int[] path = new int[depth];
+            for (int p = (int) position; p > 0; p = parents[p]) {
+                path[--depth] = p;
+            }
+            StringBuilder sb = new StringBuilder(rootLocation);
+            for (int p : path) {
+                if (keys[p] != null) {
+                    sb.append('.').append(keys[p]);
+                } else {
+                    sb.append('[').append(indices[p]).append(']');
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    static final class SuffixedJsonSource extends JsonSource {
+        final CustomJsonValue parent;
+        final String suffix;
+
+        SuffixedJsonSource(CustomJsonValue parent, String suffix) {
+            this.parent = parent;
+            this.suffix = suffix;
+        }
+
+        @Override
+        String describe(long position) {
+            return parent.location() + suffix;
+        }
+    }
+
+    /** Describes each value by the line and column where it starts. These are found by scanning the text once, which
+     * is much cheaper than reading it, and stored as a single long per value so the text itself isn't kept. */
+    static final class LineColumnJsonSource extends JsonSource {
+        final String name;
+        /** The line of each value in the upper 32 bits, and its column in the lower 32 bits. */
+        final long[] starts;
+
+        LineColumnJsonSource(String name, long[] starts) {
+            this.name = name;
+            this.starts = starts;
+        }
+
+        static LineColumnJsonSource scan(String name, Reader reader) {
+            StartScanner scanner = new StartScanner(reader);
+            try {
+                scanner.scan();
+            } catch (IOException e) {
+                // The same text fails to read as json too, so values past this point are never created
+            }
+            return new LineColumnJsonSource(name, Arrays.copyOf(scanner.starts, scanner.count));
+        }
+
+        @Override
+        String describe(long position) {
+            if (position >= starts.length) {
+                return prefix(" value #" + position);
+            }
+            long start = starts[(int) position];
+            return prefix(" at line " + (start >>> 32) + " column " + (int) start);
+        }
+
+        private String prefix(String location) {
+            return name != null ? name + location : location;
+        }
+    }
+
+    /** Finds where each value starts, numbering them in the same order as {@link CustomJsonReader}. This only
+     * understands as much json as it needs to: the text is assumed to be valid, since it's read as json afterwards, so
+     * anything which isn't a string, a comment, whitespace, or punctuation is the start of a number or literal. */
+    private static final class StartScanner {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int index;
+        private int limit;
+        private int line = 1;
+        private int column;
+
+        /** For each unfinished array or object, true if it's an object. */
+        private boolean[] objects = new boolean[16];
+        private int depth;
+
+        long[] starts = new long[64];
+        int count;
+
+        StartScanner(Reader reader) {
+            this.reader = reader;
+        }
+
+        void scan() throws IOException {
+            boolean expectKey = false;
+            int c;
+            while ((c = next()) >= 0) {
+                switch (c) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                case ':': {
+                    break;
+                }
+                case ',': {
+                    expectKey = depth > 0 && objects[depth - 1];
+                    break;
+                }
+                case '{':
+                case '[': {
+                    start();
+                    if (depth == objects.length) {
+                        objects = Arrays.copyOf(objects, depth * 2);
+                    }
+                    objects[depth++] = c == '{';
+                    expectKey = c == '{';
+                    break;
+                }
+                case '}':
+                case ']': {
+                    if (depth > 0) {
+                        depth--;
+                    }
+                    expectKey = false;
+                    break;
+                }
+                case '"': {
+                    if (!expectKey) {
+                        start();
+                    }
+                    expectKey = false;
+                    skipString();
+                    break;
+                }
+                case '/': {
+                    skipComment();
+                    break;
+                }
+                default: {
+                    start();
+                    while (!isDelimiter(peek())) {
+                        next();
+                    }
+                }
+                }
+            }
+        }
+
+        private void start() {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = ((long) line << 32) | column;
+        }
+
+        private void skipString() throws IOException {
+            int c;
+            while ((c = next()) >= 0 && c != '"') {
+                if (c == '\\') {
+                    next();
+                }
+            }
+        }
+
+        private void skipComment() throws IOException {
+            int c = next();
+            if (c == '/') {
+                while ((c = next()) >= 0 && c != '\n') {
+                    // Skip the rest of the line
+                }
+            } else if (c == '*') {
+                int previous = 0;
+                while ((c = next()) >= 0 && !(previous == '*' && c == '/')) {
+                    previous = c;
+                }
+            }
+        }
+
+        private static boolean isDelimiter(int c) {
+            switch (c) {
+            case -1:
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+            case ',':
+            case ':':
+            case ']':
+            case '}':
+            case '/':
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        private int peek() throws IOException {
+            if (index == limit && !fill()) {
+                return -1;
+            }
+            return buffer[index];
+        }
+
+        private int next() throws IOException {
+            if (index == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[index++];
+            if (c == '\n') {
+                line++;
+                column = 0;
+            } else {
+                column++;
+            }
+            return c;
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            index = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+    }
+}
@@ -15,4 +15,12 @@ public interface JsonWritable {
     default void write(JsonWriter writer) throws IOException {
         toJson().write(writer);
     }
+
+    /** Computes a fingerprint of the content of this, which ignores locations and the order of object keys. See
+     * {@link JsonFingerprint} for the details.
+     * 
+     * @param hasher A new hasher, such as {@link JsonFingerprint#sha256()}. */
+    default byte[] fingerprint(JsonFingerprint.Hasher hasher) {
+        return JsonFingerprint.of(this, hasher);
+    }
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.EntrypointV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.IconsV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.IconsV1.MultiIconV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.IconsV1.SingleIconV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.LicenseV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.MixinEntryV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModDependencyV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ProvidesV1;
+
+/** Computes the differences between two mod jsons, or two {@link CustomJsonValue}s.
+ * <p>
+ * Each {@link Change} is addressed by a path through the json, like <code>quilt_loader.version</code>. Entries in
+ * lists which have an id (like {@link QuiltModJsonV1#provides()}, {@link QuiltModJsonV1#depends()}, and
+ * {@link QuiltModJsonV1#license()}) are matched up by that id rather than by their index, and are addressed like
+ * <code>quilt_loader.depends[id=example]</code>, so reordering them isn't a change. Locations are always ignored.
+ * <p>
+ * Values which have cached hashes (the Final types, and every {@link CustomJsonValue}) are only compared in full when
+ * their hashes are equal, so most changed subtrees are found without comparing them. */
+public final class ModJsonDiff {
+
+    private ModJsonDiff() {}
+
+    public enum Kind {
+        /** The value at {@link Change#path()} didn't exist before. */
+        ADDED,
+        /** The value at {@link Change#path()} doesn't exist anymore. */
+        REMOVED,
+        /** The value at {@link Change#path()} exists in both, but is different. */
+        CHANGED;
+    }
+
+    /** A single difference. */
+    public static final class Change {
+        private final Kind kind;
+        private final String path;
+        private final Object before;
+        private final Object after;
+
+        Change(Kind kind, String path, Object before, Object after) {
+            this.kind = kind;
+            this.path = path;
+            this.before = before;
+            this.after = after;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        /** The path to the value which changed, like <code>quilt_loader.entrypoints.main</code> or
+         * <code>quilt_loader.metadata.contact.homepage</code>. */
+        public String path() {
+            return path;
+        }
+
+        /** The old value, or null if this was {@link Kind#ADDED}. This has the type returned by the getter for the
+         * value (for example a {@link String} for versions, or a {@link ModDependencyV1} for dependencies), or
+         * {@link CustomJsonValue} for values inside {@link QuiltModJsonV1#custom()}. */
+        public Object before() {
+            return before;
+        }
+
+        /** The new value, or null if this was {@link Kind#REMOVED}. This has the same type as {@link #before()}. */
+        public Object after() {
+            return after;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Change)) {
+                return false;
+            }
+            Change other = (Change) obj;
+            return kind == other.kind && path.equals(other.path) && Objects.equals(before, other.before)
+                && Objects.equals(after, other.after);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, path, before, after);
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+            case ADDED:
+                return "ADDED " + path + ": " + describe(after);
+            case REMOVED:
+                return "REMOVED " + path + ": " + describe(before);
+            default:
+                return "CHANGED " + path + ": " + describe(before) + " -> " + describe(after);
+            }
+        }
+
+        private static String describe(Object value) {
+            if (value instanceof List) {
+                StringBuilder sb = new StringBuilder("[");
+                for (Object element : (List<?>) value) {
+                    if (sb.length() > 1) {
+                        sb.append(", ");
+                    }
+                    sb.append(describe(element));
+                }
+                return sb.append(']').toString();
+            }
+            return value instanceof JsonWritable ? ((JsonWritable) value).toJson().toString() : String.valueOf(value);
+        }
+    }
+
+    /** Computes the changes needed to turn one mod json into another.
+     * 
+     * @return The changes, in the order the values appear in the file. This is empty if the two are equal. */
+    public static List<Change> diff(QuiltModJsonV1 before, QuiltModJsonV1 after) {
+        if (before == after || (before instanceof FinalQuiltModJsonV1 && before.equals(after))) {
+            return Collections.emptyList();
+        }
+
+        List<Change> changes = new ArrayList<>();
+        String loader = "quilt_loader.";
+        value(changes, loader + "group", before.group(), after.group());
+        value(changes, loader + "id", before.id(), after.id());
+        value(changes, loader + "version", before.version(), after.version());
+        keyedList(changes, loader + "provides", before.provides(), after.provides(), ProvidesV1::id);
+        entrypoints(changes, loader + "entrypoints", before.entrypoints(), after.entrypoints());
+        unkeyedList(changes, loader + "jars", before.jars(), after.jars(), jar -> jar);
+        map(changes, loader + "language_adapters", before.language_adapters(), after.language_adapters());
+        keyedList(changes, loader + "depends", before.depends(), after.depends(), ModJsonDiff::dependencyKey);
+        keyedList(changes, loader + "breaks", before.breaks(), after.breaks(), ModJsonDiff::dependencyKey);
+        value(changes, loader + "load_type", before.load_type(), after.load_type());
+        value(changes, loader + "intermediate_mappings", before.intermediate_mappings(), after.intermediate_mappings());
+
+        String metadata = loader + "metadata.";
+        value(changes, metadata + "name", before.name(), after.name());
+        value(changes, metadata + "description", before.description(), after.description());
+        map(changes, metadata + "contributors", before.contributors(), after.contributors());
+        map(changes, metadata + "contact", before.contact(), after.contact());
+        keyedList(changes, metadata + "license", before.license(), after.license(), LicenseV1::id);
+        icon(changes, metadata + "icon", before.icon(), after.icon());
+
+        unkeyedList(changes, "mixin", before.mixin(), after.mixin(), MixinEntryV1::config);
+        unkeyedList(changes, "access_widener", before.access_widener(), after.access_widener(), aw -> aw);
+
+        Map<String, CustomJsonValue> beforeCustom = orEmpty(before.custom());
+        Map<String, CustomJsonValue> afterCustom = orEmpty(after.custom());
+        for (Map.Entry<String, CustomJsonValue> entry : beforeCustom.entrySet()) {
+            CustomJsonValue afterValue = afterCustom.get(entry.getKey());
+            if (afterValue == null) {
+                changes.add(new Change(Kind.REMOVED, entry.getKey(), entry.getValue(), null));
+            } else {
+                json(changes, entry.getKey(), entry.getValue(), afterValue);
+            }
+        }
+        for (Map.Entry<String, CustomJsonValue> entry : afterCustom.entrySet()) {
+            if (!beforeCustom.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.ADDED, entry.getKey(), null, entry.getValue()));
+            }
+        }
+        return changes;
+    }
+
+    /** Computes the changes needed to turn one json value into another. Objects are compared by key, and arrays by
+     * index.
+     * 
+     * @param path The path of the two values, which every {@link Change#path()} starts with. May be empty.
+     * @return The changes. This is empty if the two are equal. */
+    public static List<Change> diff(String path, CustomJsonValue before, CustomJsonValue after) {
+        List<Change> changes = new ArrayList<>();
+        json(changes, path, before, after);
+        return changes;
+    }
+
+    private static void json(List<Change> changes, String path, CustomJsonValue before, CustomJsonValue after) {
+        // The hash is cached, so this is cheap for changed values, and only unchanged values are compared fully
+        if (before == after || (before.hashCode() == after.hashCode() && before.equals(after))) {
+            return;
+        }
+
+        if (before instanceof CustomJsonObject && after instanceof CustomJsonObject) {
+            CustomJsonObject beforeObject = (CustomJsonObject) before;
+            CustomJsonObject afterObject = (CustomJsonObject) after;
+            for (Map.Entry<String, CustomJsonValue> entry : beforeObject.entrySet()) {
+                String childPath = child(path, entry.getKey());
+                CustomJsonValue afterValue = afterObject.get(entry.getKey());
+                if (afterValue == null) {
+                    changes.add(new Change(Kind.REMOVED, childPath, entry.getValue(), null));
+                } else {
+                    json(changes, childPath, entry.getValue(), afterValue);
+                }
+            }
+            for (Map.Entry<String, CustomJsonValue> entry : afterObject.entrySet()) {
+                if (!beforeObject.containsKey(entry.getKey())) {
+                    changes.add(new Change(Kind.ADDED, child(path, entry.getKey()), null, entry.getValue()));
+                }
+            }
+        } else if (before instanceof CustomJsonArray && after instanceof CustomJsonArray) {
+            CustomJsonArray beforeArray = (CustomJsonArray) before;
+            CustomJsonArray afterArray = (CustomJsonArray) after;
+            int common = Math.min(beforeArray.size(), afterArray.size());
+            for (int i = 0; i < common; i++) {
+                json(changes, path + "[" + i + "]", beforeArray.get(i), afterArray.get(i));
+            }
+            for (int i = common; i < beforeArray.size(); i++) {
+                changes.add(new Change(Kind.REMOVED, path + "[" + i + "]", beforeArray.get(i), null));
+            }
+            for (int i = common; i < afterArray.size(); i++) {
+                changes.add(new Change(Kind.ADDED, path + "[" + i + "]", null, afterArray.get(i)));
+            }
+        } else {
+            changes.add(new Change(Kind.CHANGED, path, before, after));
+        }
+    }
+
+    private static String child(String path, String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+
+    private static void value(List<Change> changes, String path, Object before, Object after) {
+        if (before == null) {
+            if (after != null) {
+                changes.add(new Change(Kind.ADDED, path, null, after));
+            }
+        } else if (after == null) {
+            changes.add(new Change(Kind.REMOVED, path, before, null));
+        } else if (!same(before, after)) {
+            changes.add(new Change(Kind.CHANGED, path, before, after));
+        }
+    }
+
+    /** Compares two values, including the {@link JsonWritable}s which don't implement {@link Object#equals(Object)},
+     * by comparing their json instead. */
+    private static boolean same(Object before, Object after) {
+        if (before == after || before.equals(after)) {
+            return true;
+        }
+        if (before instanceof JsonWritable && after instanceof JsonWritable) {
+            return ((JsonWritable) before).toJson().equals(((JsonWritable) after).toJson());
+        }
+        return false;
+    }
+
+    private static void icon(List<Change> changes, String path, IconsV1 before, IconsV1 after) {
+        if (before instanceof MultiIconV1 && after instanceof MultiIconV1) {
+            Map<String, String> beforeIcons = new LinkedHashMap<>();
+            ((MultiIconV1) before).icons().forEach((size, icon) -> beforeIcons.put(size.toString(), icon));
+            Map<String, String> afterIcons = new LinkedHashMap<>();
+            ((MultiIconV1) after).icons().forEach((size, icon) -> afterIcons.put(size.toString(), icon));
+            map(changes, path, beforeIcons, afterIcons);
+        } else if (before instanceof SingleIconV1 && after instanceof SingleIconV1) {
+            value(changes, path, ((SingleIconV1) before).icon(), ((SingleIconV1) after).icon());
+        } else {
+            value(changes, path, before, after);
+        }
+    }
+
+    private static <V> void map(List<Change> changes, String path, Map<String, V> before, Map<String, V> after) {
+        before = orEmpty(before);
+        after = orEmpty(after);
+        for (Map.Entry<String, V> entry : before.entrySet()) {
+            value(changes, path + "." + entry.getKey(), entry.getValue(), after.get(entry.getKey()));
+        }
+        for (Map.Entry<String, V> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.ADDED, path + "." + entry.getKey(), null, entry.getValue()));
+            }
+        }
+    }
+
+    private static void entrypoints(
+        List<Change> changes, String path, Map<String, ? extends List<? extends EntrypointV1>> before,
+        Map<String, ? extends List<? extends EntrypointV1>> after
+    ) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        Map<String, List<Object>> beforeMap = new LinkedHashMap<>();
+        orEmpty(before).forEach((key, list) -> beforeMap.put(key, Collections.unmodifiableList(list)));
+        Map<String, List<Object>> afterMap = new LinkedHashMap<>();
+        orEmpty(after).forEach((key, list) -> afterMap.put(key, Collections.unmodifiableList(list)));
+
+        for (Map.Entry<String, List<Object>> entry : beforeMap.entrySet()) {
+            List<Object> afterList = afterMap.get(entry.getKey());
+            if (afterList == null) {
+                changes.add(new Change(Kind.REMOVED, path + "." + entry.getKey(), entry.getValue(), null));
+            } else if (!sameLists(entry.getValue(), afterList)) {
+                changes.add(new Change(Kind.CHANGED, path + "." + entry.getKey(), entry.getValue(), afterList));
+            }
+        }
+        for (Map.Entry<String, List<Object>> entry : afterMap.entrySet()) {
+            if (!beforeMap.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.ADDED, path + "." + entry.getKey(), null, entry.getValue()));
+            }
+        }
+    }
+
+    private static boolean sameLists(List<?> before, List<?> after) {
+        if (before.size() != after.size()) {
+            return false;
+        }
+        for (int i = 0; i < before.size(); i++) {
+            if (!same(before.get(i), after.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Diffs two lists where each entry has an id, so entries are matched by id instead of by index. */
+    private static <T> void keyedList(
+        List<Change> changes, String path, List<? extends T> before, List<? extends T> after,
+        Function<T, String> key
+    ) {
+        Map<String, T> beforeMap = byKey(before, key);
+        Map<String, T> afterMap = byKey(after, key);
+        for (Map.Entry<String, T> entry : beforeMap.entrySet()) {
+            value(changes, path + "[id=" + entry.getKey() + "]", entry.getValue(), afterMap.get(entry.getKey()));
+        }
+        for (Map.Entry<String, T> entry : afterMap.entrySet()) {
+            if (!beforeMap.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.ADDED, path + "[id=" + entry.getKey() + "]", null, entry.getValue()));
+            }
+        }
+    }
+
+    /** Diffs two lists where entries are only identified by their value, so a changed entry is reported as one
+     * removal and one addition. */
+    private static <T> void unkeyedList(
+        List<Change> changes, String path, List<? extends T> before, List<? extends T> after,
+        Function<T, String> key
+    ) {
+        Map<String, T> beforeMap = byKey(before, key);
+        Map<String, T> afterMap = byKey(after, key);
+        for (Map.Entry<String, T> entry : beforeMap.entrySet()) {
+            if (!afterMap.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.REMOVED, path + "[" + entry.getKey() + "]", entry.getValue(), null));
+            }
+        }
+        for (Map.Entry<String, T> entry : afterMap.entrySet()) {
+            if (!beforeMap.containsKey(entry.getKey())) {
+                changes.add(new Change(Kind.ADDED, path + "[" + entry.getKey() + "]", null, entry.getValue()));
+            }
+        }
+    }
+
+    /** @return The entries of the list, by key. Entries with a duplicate key get a "#2", "#3"... suffix. */
+    private static <T> Map<String, T> byKey(List<? extends T> list, Function<T, String> key) {
+        Map<String, T> map = new LinkedHashMap<>();
+        if (list == null) {
+            return map;
+        }
+        for (T entry : list) {
+            String base = String.valueOf(key.apply(entry));
+            String k = base;
+            for (int n = 2; map.containsKey(k); n++) {
+                k = base + "#" + n;
+            }
+            map.put(k, entry);
+        }
+        return map;
+    }
+
+    /** Dependencies are identified by the ids they depend on, so "any of" dependencies use every id. */
+    private static String dependencyKey(ModDependencyV1 dependency) {
+        List<? extends ModConstraintV1> constraints = dependency.constraints();
+        if (constraints.size() == 1) {
+            return constraints.get(0).id();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (ModConstraintV1 constraint : constraints) {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            sb.append(constraint.id());
+        }
+        return sb.toString();
+    }
+
+    private static <K, V> Map<K, V> orEmpty(Map<K, V> map) {
+        return map == null ? Collections.emptyMap() : map;
+    }
+}
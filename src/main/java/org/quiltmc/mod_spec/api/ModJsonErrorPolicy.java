@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+/** Controls how many problems are found before reading a mod json gives up and throws an
+ * {@link InvalidModJsonException}. Stopping early skips the rest of the validation (and the rest of the file, when
+ * reading from a {@link org.quiltmc.parsers.json.JsonReader}), which is much faster when only a yes or no answer is
+ * needed. */
+public final class ModJsonErrorPolicy {
+
+    /** Finds every problem. This is the default. */
+    public static final ModJsonErrorPolicy COLLECT_ALL = new ModJsonErrorPolicy(Integer.MAX_VALUE);
+
+    /** Stops at the first problem, so the thrown exception only contains one problem. */
+    public static final ModJsonErrorPolicy FIRST_ERROR = new ModJsonErrorPolicy(1);
+
+    private final int maxProblems;
+
+    private ModJsonErrorPolicy(int maxProblems) {
+        this.maxProblems = maxProblems;
+    }
+
+    /** @return A policy which stops once the given number of problems have been found. */
+    public static ModJsonErrorPolicy stopAfter(int maxProblems) {
+        if (maxProblems <= 0) {
+            throw new IllegalArgumentException("maxProblems must be positive, but was " + maxProblems);
+        }
+        if (maxProblems == 1) {
+            return FIRST_ERROR;
+        }
+        if (maxProblems == Integer.MAX_VALUE) {
+            return COLLECT_ALL;
+        }
+        return new ModJsonErrorPolicy(maxProblems);
+    }
+
+    /** @return The number of problems which stops reading. */
+    public int maxProblems() {
+        return maxProblems;
+    }
+
+    @Override
+    public String toString() {
+        if (maxProblems == Integer.MAX_VALUE) {
+            return "COLLECT_ALL";
+        }
+        return maxProblems == 1 ? "FIRST_ERROR" : "stopAfter(" + maxProblems + ")";
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.ParseException;
+
+/** Writes an edited mod json (normally a {@link MutableQuiltModJsonV1}) by only replacing the values which changed in
+ * the original file, so the formatting and key order of everything else is kept byte for byte.
+ * <p>
+ * This is a diff-based rewriter rather than an incremental one: edits aren't tracked, so every call parses the whole
+ * original file, scans it for value spans, and compares the whole edited value against it. The time taken is
+ * proportional to the size of the file, not the number of changed values. What splicing saves is the output, since
+ * unchanged values are copied rather than written again, so the new file only differs where the values did.
+ * <p>
+ * Only values which are replaced by another non-container value (strings, numbers, booleans and null) are spliced in.
+ * If an object gains or loses a key, or an array changes length, or an object or array replaces (or is replaced by) a
+ * different kind of value, then the whole file is written again instead. Rewritten files use the same indent as the
+ * original (or are compact if it was), and keep whatever came before and after the root value, such as a trailing line
+ * break. */
+public final class ModJsonSplicer {
+
+    private ModJsonSplicer() {}
+
+    /** @param original The UTF-8 bytes of the original file, between the buffer's position and limit. The buffer's
+     *            position is not changed.
+     * @param edited The new content of the file.
+     * @return The UTF-8 bytes of the new file. */
+    public static byte[] splice(ByteBuffer original, JsonWritable edited) throws IOException, ParseException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(original.remaining() + 64);
+        splice(original, edited, out);
+        return out.toByteArray();
+    }
+
+    /** Writes the new file to the given stream, in the same way as {@link #splice(ByteBuffer, JsonWritable)}.
+     * 
+     * @return True if the changes were spliced into the original file, or false if the whole file had to be written
+     *         again. */
+    public static boolean splice(ByteBuffer original, JsonWritable edited, OutputStream out)
+        throws IOException, ParseException {
+
+        ByteBuffer bytes = original.duplicate();
+        CustomJsonValue before = CustomJsonValue.read(null, bytes);
+        CustomJsonValue after = edited.toJson();
+
+        List<Replacement> replacements = new ArrayList<>();
+        Span root = new Scanner(bytes).scanDocument();
+        String indent = root == null ? null : detectIndent(bytes, root);
+        JsonSerializationContext context = indent == null ? new JsonSerializationContext()
+            : new JsonSerializationContext(indent);
+        if (root == null) {
+            context.write(after).writeTo(out);
+            return false;
+        }
+        if (!collect(root, before, after, replacements, context)) {
+            copy(bytes, bytes.position(), root.start, out);
+            context.write(after).writeTo(out);
+            copy(bytes, root.end, bytes.limit(), out);
+            return false;
+        }
+
+        int position = bytes.position();
+        for (Replacement replacement : replacements) {
+            copy(bytes, position, replacement.start, out);
+            out.write(replacement.bytes);
+            position = replacement.end;
+        }
+        copy(bytes, position, bytes.limit(), out);
+        return true;
+    }
+
+    private static void copy(ByteBuffer bytes, int from, int to, OutputStream out) throws IOException {
+        if (bytes.hasArray()) {
+            out.write(bytes.array(), bytes.arrayOffset() + from, to - from);
+        } else {
+            byte[] chunk = new byte[to - from];
+            ByteBuffer slice = bytes.duplicate();
+            slice.position(from);
+            slice.get(chunk);
+            out.write(chunk);
+        }
+    }
+
+    /** Finds the indent of the first nested value in the file, which is assumed to be the indent of every level.
+     * 
+     * @return The indent, or null if the first nested value isn't on its own line (or there are no nested values). */
+    private static String detectIndent(ByteBuffer bytes, Span root) {
+        if (root.children.length == 0) {
+            return null;
+        }
+        // Object children start at their value, so this also goes back past the key (which can't contain a line break)
+        int lineStart = root.children[0].start;
+        while (lineStart > root.start && bytes.get(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        if (lineStart == root.start) {
+            return null;
+        }
+        StringBuilder indent = new StringBuilder();
+        for (int i = lineStart; i < root.children[0].start; i++) {
+            byte b = bytes.get(i);
+            if (b != ' ' && b != '\t') {
+                break;
+            }
+            indent.append((char) b);
+        }
+        return indent.length() == 0 ? null : indent.toString();
+    }
+
+    /** Finds the replacements needed to turn "before" into "after", in file order.
+     * 
+     * @param context Used to write replacement values, and then reset.
+     * @return False if the change can't be spliced in, and so the whole file must be written again. */
+    private static boolean collect(Span span, CustomJsonValue before, CustomJsonValue after, List<Replacement> out,
+        JsonSerializationContext context) {
+
+        if (before.equals(after)) {
+            return true;
+        }
+
+        if (before instanceof CustomJsonObject) {
+            if (!(after instanceof CustomJsonObject)) {
+                return false;
+            }
+            CustomJsonObject beforeObject = (CustomJsonObject) before;
+            CustomJsonObject afterObject = (CustomJsonObject) after;
+            // Duplicate keys in the file mean the spans don't line up with the entries
+            if (span.children.length != beforeObject.size() || beforeObject.size() != afterObject.size()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, CustomJsonValue>> entries = beforeObject.entrySet().iterator();
+            for (Span child : span.children) {
+                Map.Entry<String, CustomJsonValue> entry = entries.next();
+                CustomJsonValue afterValue = afterObject.get(entry.getKey());
+                if (afterValue == null || !collect(child, entry.getValue(), afterValue, out, context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (before instanceof CustomJsonArray) {
+            if (!(after instanceof CustomJsonArray)) {
+                return false;
+            }
+            CustomJsonArray beforeArray = (CustomJsonArray) before;
+            CustomJsonArray afterArray = (CustomJsonArray) after;
+            if (span.children.length != beforeArray.size() || beforeArray.size() != afterArray.size()) {
+                return false;
+            }
+            for (int i = 0; i < span.children.length; i++) {
+                if (!collect(span.children[i], beforeArray.get(i), afterArray.get(i), out, context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (after instanceof CustomJsonObject || after instanceof CustomJsonArray) {
+            return false;
+        }
+        out.add(new Replacement(span.start, span.end, context.write(after).toByteArray()));
+        context.reset();
+        return true;
+    }
+
+    private static final class Replacement {
+        final int start;
+        final int end;
+        final byte[] bytes;
+
+        Replacement(int start, int end, byte[] bytes) {
+            this.start = start;
+            this.end = end;
+            this.bytes = bytes;
+        }
+    }
+
+    /** The bytes a value occupies in the original file. Object children are in file order, without their keys. */
+    private static final class Span {
+        static final Span[] NO_CHILDREN = new Span[0];
+
+        final int start;
+        int end;
+        Span[] children = NO_CHILDREN;
+
+        Span(int start) {
+            this.start = start;
+        }
+    }
+
+    /** Finds the spans of every value in the file. This doesn't validate the file, or decode anything, since the file
+     * has already been read successfully by the time this runs. */
+    private static final class Scanner {
+        final ByteBuffer bytes;
+        int index;
+
+        Scanner(ByteBuffer bytes) {
+            this.bytes = bytes;
+            this.index = bytes.position();
+        }
+
+        /** @return The span of the root value, or null if the file contains something this can't scan. */
+        Span scanDocument() {
+            if (bytes.limit() - index >= 3 && (bytes.get(index) & 0xFF) == 0xEF && (bytes.get(index + 1) & 0xFF) == 0xBB
+                && (bytes.get(index + 2) & 0xFF) == 0xBF) {
+                index += 3;
+            }
+            try {
+                return value(0);
+            } catch (IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+
+        private Span value(int depth) {
+            skipWhitespace();
+            Span span = new Span(index);
+            byte b = bytes.get(index);
+            if (b == '{' || b == '[') {
+                if (depth >= JsonReadLimits.DEFAULT.maxDepth()) {
+                    return null;
+                }
+                boolean object = b == '{';
+                byte close = object ? (byte) '}' : (byte) ']';
+                index++;
+                List<Span> children = new ArrayList<>();
+                skipWhitespace();
+                if (bytes.get(index) == close) {
+                    index++;
+                } else {
+                    while (true) {
+                        if (object) {
+                            skipWhitespace();
+                            if (bytes.get(index) != '"') {
+                                return null;
+                            }
+                            skipString();
+                            skipWhitespace();
+                            if (bytes.get(index++) != ':') {
+                                return null;
+                            }
+                        }
+                        Span child = value(depth + 1);
+                        if (child == null) {
+                            return null;
+                        }
+                        children.add(child);
+                        skipWhitespace();
+                        byte next = bytes.get(index++);
+                        if (next == close) {
+                            break;
+                        } else if (next != ',') {
+                            return null;
+                        }
+                    }
+                }
+                span.children = children.toArray(Span.NO_CHILDREN);
+            } else if (b == '"') {
+                skipString();
+            } else {
+                // Numbers and literals
+                while (index < bytes.limit()) {
+                    byte c = bytes.get(index);
+                    if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                        break;
+                    }
+                    index++;
+                }
+                if (index == span.start) {
+                    return null;
+                }
+            }
+            span.end = index;
+            return span;
+        }
+
+        private void skipString() {
+            index++;
+            while (true) {
+                byte b = bytes.get(index++);
+                if (b == '"') {
+                    return;
+                }
+                if (b == '\\') {
+                    index++;
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (true) {
+                byte b = bytes.get(index);
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return;
+                }
+                index++;
+            }
+        }
+    }
+}
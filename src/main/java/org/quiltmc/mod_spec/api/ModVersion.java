@@ -0,0 +1,495 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+/** A parsed {@link QuiltModJsonV1#version()}, which can be compared with other versions without parsing them again.
+ * <p>
+ * Any string is a valid version, and every version is part of a single total order. Each version is split into
+ * components, which are compared in turn until one differs, where a version which runs out of components is treated as
+ * having an "end" component:
+ * <ul>
+ * <li>Versions which don't follow <a href="https://semver.org/">Semantic Versioning 2.0.0</a> are split into
+ * <a href="https://github.com/unascribed/FlexVer">FlexVer</a> components.</li>
+ * <li>Semantic versions are split into the same components for "major.minor.patch", followed by all of their
+ * pre-release identifiers as a single component, which is compared using SemVer precedence.</li>
+ * <li>Components of different classes are ordered: semantic pre-releases, then FlexVer pre-release components, then
+ * the end, and then everything else. Components of the same class are compared like FlexVer does.</li>
+ * </ul>
+ * So two semantic versions are ordered by SemVer precedence, and two other versions are ordered by FlexVer. The only
+ * differences from FlexVer are that FlexVer pre-release components are always less than other components (FlexVer
+ * compares them by codepoint, which isn't transitive for components like "!" or "-"), and that a semantic pre-release
+ * is always less than a FlexVer pre-release, so 1.0.0-rc.10 &lt; 1.0.0-rc.9a &lt; 1.0.0-rc.9z_ &lt; 1.0.0.
+ * <p>
+ * Build metadata (everything after a "+") is ignored when comparing, so {@link #compareTo(ModVersion)} is inconsistent
+ * with {@link #equals(Object)}, which compares the {@link #raw()} strings. */
+public final class ModVersion implements Comparable<ModVersion> {
+
+    private static final long[] NO_NUMBERS = new long[0];
+    private static final String[] NO_TAGS = new String[0];
+    private static final byte[] NO_KINDS = new byte[0];
+
+    /** Numbers with more digits than this (excluding leading zeros) are never stored as a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final byte FLEX_LEXICAL = 0;
+    private static final byte FLEX_NUMERIC = 1;
+    private static final byte FLEX_PRE_RELEASE = 2;
+
+    /** The classes of each component, in the order they compare in. */
+    private static final byte CLASS_SEMANTIC_PRE_RELEASE = 0;
+    private static final byte CLASS_FLEX_PRE_RELEASE = 1;
+    private static final byte CLASS_END = 2;
+    private static final byte CLASS_OTHER = 3;
+
+    /** The number of FlexVer components in "major.minor.patch", which are followed by the pre-release component. */
+    private static final int SEMANTIC_CORE_COMPONENTS = 5;
+
+    private final String raw;
+
+    /** The major, minor and patch numbers, or null if this isn't a semantic version. */
+    private final long[] semantic;
+
+    /** The value of each numeric pre-release identifier, or -1 for alphanumeric identifiers. */
+    private final long[] preNumbers;
+
+    /** Every pre-release identifier, interned. */
+    private final String[] preTags;
+
+    /** The FlexVer components, which are always present since any two versions might need to be compared with
+     * FlexVer. */
+    private final byte[] flexKinds;
+
+    /** The value of each numeric FlexVer component, or -1 if it's too large for a long (or isn't numeric). */
+    private final long[] flexNumbers;
+
+    /** The text of every FlexVer component, interned. */
+    private final String[] flexTexts;
+
+    private ModVersion(
+        String raw, long[] semantic, long[] preNumbers, String[] preTags, byte[] flexKinds, long[] flexNumbers,
+        String[] flexTexts
+    ) {
+        this.raw = raw;
+        this.semantic = semantic;
+        this.preNumbers = preNumbers;
+        this.preTags = preTags;
+        this.flexKinds = flexKinds;
+        this.flexNumbers = flexNumbers;
+        this.flexTexts = flexTexts;
+    }
+
+    /** Parses a version. This never fails, since strings which aren't semantic versions are compared with FlexVer
+     * instead. */
+    public static ModVersion parse(String version) {
+        if (version == null) {
+            throw new NullPointerException("version");
+        }
+
+        int flexCount = countFlexComponents(version);
+        byte[] flexKinds = flexCount == 0 ? NO_KINDS : new byte[flexCount];
+        long[] flexNumbers = flexCount == 0 ? NO_NUMBERS : new long[flexCount];
+        String[] flexTexts = flexCount == 0 ? NO_TAGS : new String[flexCount];
+        decomposeFlex(version, flexKinds, flexNumbers, flexTexts);
+
+        long[] semantic = new long[3];
+        int end = parseCore(version, semantic);
+        if (end < 0) {
+            return new ModVersion(version, null, NO_NUMBERS, NO_TAGS, flexKinds, flexNumbers, flexTexts);
+        }
+
+        long[] preNumbers = NO_NUMBERS;
+        String[] preTags = NO_TAGS;
+        if (end < version.length() && version.charAt(end) == '-') {
+            int preEnd = version.indexOf('+', end);
+            if (preEnd < 0) {
+                preEnd = version.length();
+            }
+            int count = countIdentifiers(version, end + 1, preEnd, true);
+            if (count < 0) {
+                return new ModVersion(version, null, NO_NUMBERS, NO_TAGS, flexKinds, flexNumbers, flexTexts);
+            }
+            preNumbers = new long[count];
+            preTags = new String[count];
+            int start = end + 1;
+            for (int i = 0; i < count; i++) {
+                int dot = version.indexOf('.', start);
+                if (dot < 0 || dot > preEnd) {
+                    dot = preEnd;
+                }
+                preTags[i] = version.substring(start, dot).intern();
+                preNumbers[i] = parseNumber(version, start, dot);
+                start = dot + 1;
+            }
+            end = preEnd;
+        }
+
+        if (end < version.length()) {
+            if (version.charAt(end) != '+' || countIdentifiers(version, end + 1, version.length(), false) < 0) {
+                return new ModVersion(version, null, NO_NUMBERS, NO_TAGS, flexKinds, flexNumbers, flexTexts);
+            }
+        }
+
+        return new ModVersion(version, semantic, preNumbers, preTags, flexKinds, flexNumbers, flexTexts);
+    }
+
+    /** Parses "major.minor.patch" into the given array.
+     *
+     * @return The index after the patch number, or -1 if the string doesn't start with a valid version core. */
+    private static int parseCore(String version, long[] into) {
+        int start = 0;
+        for (int i = 0; i < 3; i++) {
+            int end = start;
+            while (end < version.length() && isAsciiDigit(version.charAt(end))) {
+                end++;
+            }
+            if (end == start || end - start > MAX_LONG_DIGITS || (version.charAt(start) == '0' && end - start > 1)) {
+                return -1;
+            }
+            into[i] = parseNumber(version, start, end);
+            if (i < 2) {
+                if (end >= version.length() || version.charAt(end) != '.') {
+                    return -1;
+                }
+                end++;
+            }
+            start = end;
+        }
+        return start;
+    }
+
+    /** Counts the dot separated identifiers in a pre-release or build metadata section.
+     *
+     * @param preRelease If true then numeric identifiers may not have leading zeros, or be too large for a long.
+     * @return The number of identifiers, or -1 if any of them are empty or invalid. */
+    private static int countIdentifiers(String version, int start, int end, boolean preRelease) {
+        int count = 0;
+        while (true) {
+            int idEnd = start;
+            boolean numeric = true;
+            while (idEnd < end && version.charAt(idEnd) != '.') {
+                char c = version.charAt(idEnd);
+                if (isAsciiDigit(c)) {
+                    // Still numeric
+                } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-') {
+                    numeric = false;
+                } else {
+                    return -1;
+                }
+                idEnd++;
+            }
+            int length = idEnd - start;
+            if (length == 0) {
+                return -1;
+            }
+            if (preRelease && numeric) {
+                if ((version.charAt(start) == '0' && length > 1) || length > MAX_LONG_DIGITS) {
+                    return -1;
+                }
+            }
+            count++;
+            if (idEnd == end) {
+                return count;
+            }
+            start = idEnd + 1;
+        }
+    }
+
+    /** @return The value of the given digits, or -1 if they aren't all digits or there are too many of them. */
+    private static long parseNumber(String str, int start, int end) {
+        while (start < end - 1 && str.charAt(start) == '0') {
+            start++;
+        }
+        if (end - start > MAX_LONG_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (!isAsciiDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isAsciiDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** @return The index of the "+" which starts the FlexVer appendix, or the length of the string. */
+    private static int flexEnd(String version) {
+        int plus = version.indexOf('+');
+        return plus < 0 ? version.length() : plus;
+    }
+
+    /** @return True if a new FlexVer component starts at the given index. The first index is never a split. */
+    private static boolean isFlexSplit(String version, int componentStart, int index) {
+        char c = version.charAt(index);
+        if (isAsciiDigit(c) != isAsciiDigit(version.charAt(index - 1))) {
+            return true;
+        }
+        return c == '-' && version.charAt(componentStart) != '-';
+    }
+
+    private static int countFlexComponents(String version) {
+        if (version.isEmpty()) {
+            return 0;
+        }
+        int end = flexEnd(version);
+        int count = 1;
+        int componentStart = 0;
+        for (int i = 1; i < end; i++) {
+            if (isFlexSplit(version, componentStart, i)) {
+                count++;
+                componentStart = i;
+            }
+        }
+        return count;
+    }
+
+    private static void decomposeFlex(String version, byte[] kinds, long[] numbers, String[] texts) {
+        if (kinds.length == 0) {
+            return;
+        }
+        int end = flexEnd(version);
+        if (end == 0) {
+            // Only an appendix, which FlexVer treats as a single empty component
+            texts[0] = "";
+            numbers[0] = -1;
+            return;
+        }
+        int componentStart = 0;
+        int index = 0;
+        for (int i = 1; i <= end; i++) {
+            if (i == end || isFlexSplit(version, componentStart, i)) {
+                String text = version.substring(componentStart, i).intern();
+                texts[index] = text;
+                if (!text.isEmpty() && isAsciiDigit(text.charAt(0))) {
+                    kinds[index] = FLEX_NUMERIC;
+                    numbers[index] = parseNumber(text, 0, text.length());
+                } else {
+                    kinds[index] = text.length() > 1 && text.charAt(0) == '-' ? FLEX_PRE_RELEASE : FLEX_LEXICAL;
+                    numbers[index] = -1;
+                }
+                index++;
+                componentStart = i;
+            }
+        }
+    }
+
+    /** @return The original string. */
+    public String raw() {
+        return raw;
+    }
+
+    /** @return True if this follows Semantic Versioning 2.0.0. */
+    public boolean isSemantic() {
+        return semantic != null;
+    }
+
+    /** @return The major version, or -1 if this isn't {@link #isSemantic() semantic}. */
+    public long major() {
+        return semantic == null ? -1 : semantic[0];
+    }
+
+    /** @return The minor version, or -1 if this isn't {@link #isSemantic() semantic}. */
+    public long minor() {
+        return semantic == null ? -1 : semantic[1];
+    }
+
+    /** @return The patch version, or -1 if this isn't {@link #isSemantic() semantic}. */
+    public long patch() {
+        return semantic == null ? -1 : semantic[2];
+    }
+
+    /** @return True if this is a semantic version with at least one pre-release identifier. */
+    public boolean isPreRelease() {
+        return preTags.length > 0;
+    }
+
+    /** @return The number of pre-release identifiers. Always 0 if this isn't {@link #isSemantic() semantic}. */
+    public int preReleaseCount() {
+        return preTags.length;
+    }
+
+    /** @return The pre-release identifier at the given index. These are interned, so can be compared with ==. */
+    public String preRelease(int index) {
+        return preTags[index];
+    }
+
+    /** Compares this with another version, using the total order described in the {@link ModVersion class javadoc}.
+     * This doesn't allocate anything. */
+    @Override
+    public int compareTo(ModVersion other) {
+        if (other == this) {
+            return 0;
+        }
+        if (semantic != null && other.semantic != null) {
+            // The same as comparing the components, but faster
+            return compareSemantic(other);
+        }
+        for (int i = 0;; i++) {
+            byte kind = componentClass(i);
+            byte otherKind = other.componentClass(i);
+            if (kind != otherKind) {
+                return kind < otherKind ? -1 : 1;
+            }
+            int c;
+            switch (kind) {
+            case CLASS_SEMANTIC_PRE_RELEASE:
+                c = comparePreRelease(other);
+                break;
+            case CLASS_FLEX_PRE_RELEASE:
+                c = compareCodepoints(flexTexts[i], other.flexTexts[i]);
+                break;
+            case CLASS_END:
+                return 0;
+            default:
+                c = compareFlexComponent(i, other);
+            }
+            if (c != 0) {
+                return c;
+            }
+        }
+    }
+
+    private byte componentClass(int index) {
+        if (semantic != null && index >= SEMANTIC_CORE_COMPONENTS) {
+            return index == SEMANTIC_CORE_COMPONENTS && preTags.length > 0 ? CLASS_SEMANTIC_PRE_RELEASE : CLASS_END;
+        }
+        if (index >= flexKinds.length) {
+            return CLASS_END;
+        }
+        return flexKinds[index] == FLEX_PRE_RELEASE ? CLASS_FLEX_PRE_RELEASE : CLASS_OTHER;
+    }
+
+    private int compareSemantic(ModVersion other) {
+        for (int i = 0; i < 3; i++) {
+            int c = Long.compare(semantic[i], other.semantic[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return comparePreRelease(other);
+    }
+
+    /** Compares the pre-release identifiers of two semantic versions, using SemVer precedence. */
+    private int comparePreRelease(ModVersion other) {
+        String[] a = preTags;
+        String[] b = other.preTags;
+        if (a.length == 0 || b.length == 0) {
+            // A version without any pre-release identifiers is greater than one with them
+            return Integer.compare(b.length, a.length);
+        }
+
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] == b[i]) {
+                continue;
+            }
+            long an = preNumbers[i];
+            long bn = other.preNumbers[i];
+            if (an >= 0 && bn >= 0) {
+                return Long.compare(an, bn);
+            } else if (an >= 0) {
+                return -1;
+            } else if (bn >= 0) {
+                return 1;
+            }
+            // Alphanumeric identifiers are ASCII only, so comparing chars is the same as comparing codepoints
+            return Integer.signum(a[i].compareTo(b[i]));
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    private int compareFlexComponent(int i, ModVersion other) {
+        String a = flexTexts[i];
+        String b = other.flexTexts[i];
+        if (a == b) {
+            return 0;
+        }
+        if (flexKinds[i] == FLEX_NUMERIC && other.flexKinds[i] == FLEX_NUMERIC) {
+            long an = flexNumbers[i];
+            long bn = other.flexNumbers[i];
+            if (an >= 0 && bn >= 0) {
+                return Long.compare(an, bn);
+            }
+            return compareLargeNumbers(a, b);
+        }
+        return compareCodepoints(a, b);
+    }
+
+    /** Compares two strings of digits of any length, ignoring leading zeros. */
+    private static int compareLargeNumbers(String a, String b) {
+        int aStart = 0;
+        while (aStart < a.length() - 1 && a.charAt(aStart) == '0') {
+            aStart++;
+        }
+        int bStart = 0;
+        while (bStart < b.length() - 1 && b.charAt(bStart) == '0') {
+            bStart++;
+        }
+        int c = Integer.compare(a.length() - aStart, b.length() - bStart);
+        if (c != 0) {
+            return c;
+        }
+        for (int i = 0; i < a.length() - aStart; i++) {
+            c = Character.compare(a.charAt(aStart + i), b.charAt(bStart + i));
+            if (c != 0) {
+                return Integer.signum(c);
+            }
+        }
+        return 0;
+    }
+
+    /** Compares two strings by their unicode codepoints, which (unlike {@link String#compareTo(String)}) orders
+     * supplementary characters after every character in the basic multilingual plane. */
+    private static int compareCodepoints(String a, String b) {
+        int ai = 0;
+        int bi = 0;
+        while (ai < a.length() && bi < b.length()) {
+            int ac = a.codePointAt(ai);
+            int bc = b.codePointAt(bi);
+            if (ac != bc) {
+                return Integer.compare(ac, bc);
+            }
+            ai += Character.charCount(ac);
+            bi += Character.charCount(bc);
+        }
+        return Integer.compare(a.length() - ai, b.length() - bi);
+    }
+
+    /** @return True if the other object is a {@link ModVersion} with the same {@link #raw()} string. */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof ModVersion && raw.equals(((ModVersion) obj).raw);
+    }
+
+    @Override
+    public int hashCode() {
+        return raw.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
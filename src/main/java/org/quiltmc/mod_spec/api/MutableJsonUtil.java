@@ -1,7 +1,5 @@
 package org.quiltmc.mod_spec.api;
 
-import java.util.Collections;
-
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonBoolean;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
@@ -25,8 +23,9 @@ class MutableJsonUtil {
         if (object != null) {
             return object;
         } else {
-            String location = obj.location() + "." + name;
-            return CustomJsonValue.createObject(location, Collections.emptyMap());
+            // Only describe the location if it's actually needed
+            JsonSource source = JsonSource.suffixed(obj, "." + name);
+            return CustomObject.adopt(source, 0, CustomObject.NO_KEYS, CustomObject.NO_VALUES, 0);
         }
     }
 
@@ -44,8 +43,7 @@ class MutableJsonUtil {
         if (array != null) {
             return array;
         } else {
-            String location = obj.location() + "." + name;
-            return CustomJsonValue.createArray(location, Collections.emptyList());
+            return CustomArray.adopt(JsonSource.suffixed(obj, "." + name), 0, CustomObject.NO_VALUES, 0);
         }
     }
 
@@ -16,6 +16,7 @@
 
 package org.quiltmc.mod_spec.api;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
 import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableModConstraintV1.MutableVersionConstraintV1.MutableArrayVersionConstraintV1;
 import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableModConstraintV1.MutableVersionConstraintV1.MutableNewVersionConstraintV1;
+import org.quiltmc.parsers.json.JsonWriter;
 
 /** A partial {@link QuiltModJsonV1} which may still be modified before being finalised to
  * {@link FinalQuiltModJsonV1}. */
@@ -269,9 +271,22 @@ public final class MutableQuiltModJsonV1 extends Located implements QuiltModJson
                 return array.build();
             }
         }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            if (constraints().size() == 1) {
+                constraints().get(0).write(writer);
+            } else {
+                writer.beginArray();
+                for (ModConstraintV1 constraint : constraints()) {
+                    constraint.write(writer);
+                }
+                writer.endArray();
+            }
+        }
     }
 
-    public static final class MutableModConstraintV1 extends Located implements ModConstraintV1 {
+    public static final class MutableModConstraintV1 extends LocatedSerializable implements ModConstraintV1 {
 
         private String id;
         private MutableVersionConstraintV1 versions;
@@ -289,6 +304,7 @@ public final class MutableQuiltModJsonV1 extends Located implements QuiltModJson
             super(source);
 
             if (source instanceof CustomJsonObject) {
+                serialisationType = CustomJsonType.OBJECT;
                 CustomJsonObject srcObj = (CustomJsonObject) source;
                 id = MutableJsonUtil.getStringOrNull(srcObj, "id");
                 CustomJsonValue versionsVal = srcObj.get("versions");
@@ -357,20 +373,36 @@ public final class MutableQuiltModJsonV1 extends Located implements QuiltModJson
             return this;
         }
 
+        /** {@inheritDoc}
+         * <p>
+         * The only permitted types are {@link CustomJsonType#STRING} and {@link CustomJsonType#OBJECT}. A constraint
+         * is only written as a string when it has nothing but an id. */
+        @Override
+        public void setSerialisationType(CustomJsonType type) {
+            if (type != CustomJsonType.STRING && type != CustomJsonType.OBJECT) {
+                throw new IllegalArgumentException("A mod constraint can only be serialised as a string or an object");
+            }
+            super.setSerialisationType(type);
+        }
+
         @Override
         public CustomJsonValue toJson() {
             return toJson(this, optional);
         }
 
-        static CustomJsonValue toJson(ModConstraintV1 constraint, Boolean optional) {
-            LocatedSerializable located = (LocatedSerializable) constraint;
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            write(this, optional, writer);
+        }
+
+        static CustomJsonValue toJson(MutableModConstraintV1 constraint, Boolean optional) {
             VersionConstraintV1 versions = constraint.versions();
             String reason = constraint.reason();
             ModDependencyV1 unless = constraint.unless();
-            CustomJsonValue source = located.source;
+            CustomJsonValue source = constraint.source;
             if (versions == null && reason == null && optional == null && unless == null) {
                 // This ensures we persist objects as objects
-                if (located.serialisationType != CustomJsonType.OBJECT) {
+                if (constraint.serialisationType != CustomJsonType.OBJECT) {
                     return CustomJsonValue.createString(constraint.id());
                 }
             }
@@ -391,6 +423,40 @@ public final class MutableQuiltModJsonV1 extends Located implements QuiltModJson
             return obj.build();
         }
 
+        /** Writes the same json as {@link #toJson(MutableModConstraintV1, Boolean)}, without building it first. */
+        static void write(MutableModConstraintV1 constraint, Boolean optional, JsonWriter writer) throws IOException {
+            VersionConstraintV1 versions = constraint.versions();
+            String reason = constraint.reason();
+            ModDependencyV1 unless = constraint.unless();
+            if (versions == null && reason == null && optional == null && unless == null) {
+                // This ensures we persist objects as objects
+                if (constraint.serialisationType != CustomJsonType.OBJECT) {
+                    writer.value(constraint.id());
+                    return;
+                }
+            }
+            writer.beginObject();
+            writer.name("id");
+            writer.value(constraint.id());
+            if (versions != null) {
+                writer.name("versions");
+                versions.write(writer);
+            }
+            if (reason != null) {
+                writer.name("reason");
+                writer.value(reason);
+            }
+            if (optional != null) {
+                writer.name("optional");
+                writer.value(optional.booleanValue());
+            }
+            if (unless != null) {
+                writer.name("unless");
+                unless.write(writer);
+            }
+            writer.endObject();
+        }
+
         @Sealed({ MutableNewVersionConstraintV1.class, MutableArrayVersionConstraintV1.class })
         public static abstract class MutableVersionConstraintV1 extends Located implements VersionConstraintV1 {
 
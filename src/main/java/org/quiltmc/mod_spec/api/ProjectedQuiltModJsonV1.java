@@ -0,0 +1,394 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointContainerV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalProvidesV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.IconsV1;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.ParseException;
+
+/** A read-only view of a few fields of a {@link QuiltModJsonV1}, read without looking at any of the other fields.
+ * <p>
+ * Values which weren't asked for are skipped by the reader without being turned into {@link CustomJsonValue}s or
+ * validated, so reading only a few fields is much cheaper than reading the whole file when it has large "custom" or
+ * "depends" sections. Calling a getter for a field which wasn't asked for throws an {@link IllegalStateException}.
+ * <p>
+ * The "schema_version" is always read and validated. */
+public final class ProjectedQuiltModJsonV1 extends Located {
+
+    private static final String REASON_ROOT = "[TODO:ROOT]";
+    private static final String REASON_SCHEMA_VERSION = "[TODO:SCHEMA_VERSION]";
+    private static final String REASON_QUILT_LOADER = "[TODO:QUILT_LOADER]";
+    private static final String REASON_METADATA = "[TODO:METADATA]";
+    private static final String REASON_GROUP = "[TODO:GROUP]";
+    private static final String REASON_ID = "[TODO:ID]";
+    private static final String REASON_VERSION = "[TODO:VERSION]";
+    private static final String REASON_NAME = "[TODO:NAME]";
+    private static final String REASON_DESCRIPTION = "[TODO:DESCRIPTION]";
+
+    /** The fields of a {@link QuiltModJsonV1} which can be projected. */
+    public enum Field {
+        /** {@link QuiltModJsonV1#group()} */
+        GROUP,
+        /** {@link QuiltModJsonV1#id()} */
+        ID,
+        /** {@link QuiltModJsonV1#version()} */
+        VERSION,
+        /** {@link QuiltModJsonV1#provides()} */
+        PROVIDES,
+        /** {@link QuiltModJsonV1#entrypoints()} */
+        ENTRYPOINTS,
+        /** {@link QuiltModJsonV1#name()} */
+        NAME,
+        /** {@link QuiltModJsonV1#description()} */
+        DESCRIPTION,
+        /** {@link QuiltModJsonV1#icon()} */
+        ICON,
+        /** {@link QuiltModJsonV1#custom()} */
+        CUSTOM;
+    }
+
+    private final Set<Field> projection;
+    private final String group;
+    private final String id;
+    private final String version;
+    private final List<FinalProvidesV1> provides;
+    private final FinalEntrypointContainerV1 entrypoints;
+    private final String name;
+    private final String description;
+    private final IconsV1 icon;
+    private final Map<String, CustomJsonValue> custom;
+
+    private ProjectedQuiltModJsonV1(
+        CustomJsonValue source, Set<Field> projection, String group, String id, String version,
+        List<FinalProvidesV1> provides, FinalEntrypointContainerV1 entrypoints, String name, String description,
+        IconsV1 icon, Map<String, CustomJsonValue> custom
+    ) {
+        super(source);
+        this.projection = projection;
+        this.group = group;
+        this.id = id;
+        this.version = version;
+        this.provides = provides;
+        this.entrypoints = entrypoints;
+        this.name = name;
+        this.description = description;
+        this.icon = icon;
+        this.custom = custom;
+    }
+
+    /** Reads the given fields from the UTF-8 encoded bytes between the buffer's position and limit, in the same way as
+     * {@link QuiltModJson#read(ByteBuffer)}.
+     * 
+     * @throws InvalidModJsonException if any of the projected fields (or the schema version) are invalid. */
+    public static ProjectedQuiltModJsonV1 read(ByteBuffer utf8, Set<Field> projection)
+        throws IOException, ParseException, InvalidModJsonException {
+
+        try (JsonReader reader = JsonReader.json(new Utf8BufferReader(utf8.duplicate()))) {
+            return read(reader, projection);
+        }
+    }
+
+    /** Reads the given fields from the reader, skipping everything else.
+     * 
+     * @throws InvalidModJsonException if any of the projected fields (or the schema version) are invalid. */
+    public static ProjectedQuiltModJsonV1 read(JsonReader reader, Set<Field> projection)
+        throws IOException, ParseException, InvalidModJsonException {
+
+        ErrorBuilder errors = new ErrorBuilder();
+        ProjectedQuiltModJsonV1 result = read(reader, projection, errors);
+        errors.throwIfErrored();
+        return result;
+    }
+
+    /** This is also used by {@link FinalQuiltModJsonV1#read(JsonReader)}, so both validate in the same way.
+     * 
+     * @return The read object, or null if the root value wasn't an object. */
+    static ProjectedQuiltModJsonV1 read(JsonReader reader, Set<Field> projection, ErrorBuilder errors)
+        throws IOException, ParseException {
+
+        Set<Field> fields = projection.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(projection);
+
+        if (!errors.expectNext(reader, "quilt.mod.json", REASON_ROOT, CustomJsonType.OBJECT)) {
+            return null;
+        }
+
+        // Positions in the paths are only turned into location strings when a problem is reported
+        JsonSource.PathJsonSource paths = JsonSource.ofPaths(reader.locationString());
+        boolean hasSchemaVersion = false;
+        boolean hasLoader = false;
+        int loader = -1;
+        boolean hasGroup = false;
+        boolean hasId = false;
+        boolean hasVersion = false;
+        String group = null;
+        String id = null;
+        String version = null;
+        List<FinalProvidesV1> provides = Collections.emptyList();
+        FinalEntrypointContainerV1 entrypoints = FinalEntrypointContainerV1.EMPTY;
+        String name = null;
+        String description = null;
+        IconsV1 icon = null;
+        Map<String, CustomJsonValue> custom = fields.contains(Field.CUSTOM) ? new LinkedHashMap<>() : null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            switch (key) {
+            case "schema_version": {
+                hasSchemaVersion = true;
+                CustomJsonValue value = CustomJsonValue.read(reader);
+                CustomJsonNumber number = errors.expectNumber(value, key, REASON_SCHEMA_VERSION);
+                if (number != null && number.value().doubleValue() != 1) {
+                    errors.appendInvalidValue(key, number, REASON_SCHEMA_VERSION);
+                }
+                break;
+            }
+            case "quilt_loader": {
+                hasLoader = true;
+                if (!errors.expectNext(reader, key, REASON_QUILT_LOADER, CustomJsonType.OBJECT)) {
+                    break;
+                }
+                loader = paths.add(0, key);
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String loaderKey = reader.nextName();
+                    switch (loaderKey) {
+                    case "group": {
+                        hasGroup = true;
+                        if (fields.contains(Field.GROUP)) {
+                            group = errors.nextString(reader, loaderKey, REASON_GROUP);
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    }
+                    case "id": {
+                        hasId = true;
+                        if (fields.contains(Field.ID)) {
+                            id = errors.nextString(reader, loaderKey, REASON_ID);
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    }
+                    case "version": {
+                        hasVersion = true;
+                        if (fields.contains(Field.VERSION)) {
+                            version = errors.nextString(reader, loaderKey, REASON_VERSION);
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    }
+                    case "provides": {
+                        if (fields.contains(Field.PROVIDES)) {
+                            int position = paths.add(loader, loaderKey);
+                            provides = FinalProvidesV1.readArray(reader, errors, paths, position);
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    }
+                    case "entrypoints": {
+                        if (fields.contains(Field.ENTRYPOINTS)) {
+                            int position = paths.add(loader, loaderKey);
+                            entrypoints = new FinalEntrypointContainerV1(reader, errors, paths, position);
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    }
+                    case "metadata": {
+                        if (!fields.contains(Field.NAME) && !fields.contains(Field.DESCRIPTION)
+                            && !fields.contains(Field.ICON)) {
+                            reader.skipValue();
+                            break;
+                        }
+                        if (!errors.expectNext(reader, loaderKey, REASON_METADATA, CustomJsonType.OBJECT)) {
+                            break;
+                        }
+                        int metadata = paths.add(loader, loaderKey);
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String metadataKey = reader.nextName();
+                            if ("name".equals(metadataKey) && fields.contains(Field.NAME)) {
+                                name = errors.nextString(reader, metadataKey, REASON_NAME);
+                            } else if ("description".equals(metadataKey) && fields.contains(Field.DESCRIPTION)) {
+                                description = errors.nextString(reader, metadataKey, REASON_DESCRIPTION);
+                            } else if ("icon".equals(metadataKey) && fields.contains(Field.ICON)) {
+                                icon = FinalQuiltModJsonV1.readIcon(
+                                    reader, errors, paths, paths.add(metadata, metadataKey)
+                                );
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                        break;
+                    }
+                    default: {
+                        reader.skipValue();
+                    }
+                    }
+                }
+                reader.endObject();
+                break;
+            }
+            case "mixin":
+            case "access_widener":
+            case "minecraft": {
+                reader.skipValue();
+                break;
+            }
+            default: {
+                if (custom != null) {
+                    custom.put(key, CustomJsonValue.read(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            }
+        }
+        reader.endObject();
+
+        if (!hasSchemaVersion) {
+            errors.appendMissingValue(
+                paths.describe(0), "schema_version", REASON_SCHEMA_VERSION, CustomJsonType.NUMBER
+            );
+        }
+
+        if (!hasLoader) {
+            errors.appendMissingValue(paths.describe(0), "quilt_loader", REASON_QUILT_LOADER, CustomJsonType.OBJECT);
+        } else if (loader >= 0) {
+            // Values of the wrong type have already been reported, and are null here
+            int invalid;
+            if (fields.contains(Field.GROUP)) {
+                if (!hasGroup) {
+                    errors.appendMissingValue(paths.describe(loader), "group", REASON_GROUP, CustomJsonType.STRING);
+                } else if (group != null && (invalid = IdentifierValidator.indexOfInvalidGroup(group)) >= 0) {
+                    errors.appendInvalidValue(
+                        "group", new CustomString(paths, paths.add(loader, "group"), group), REASON_GROUP, invalid
+                    );
+                }
+            }
+            if (fields.contains(Field.ID)) {
+                if (!hasId) {
+                    errors.appendMissingValue(paths.describe(loader), "id", REASON_ID, CustomJsonType.STRING);
+                } else if (id != null && (invalid = IdentifierValidator.indexOfInvalidId(id)) >= 0) {
+                    errors.appendInvalidValue(
+                        "id", new CustomString(paths, paths.add(loader, "id"), id), REASON_ID, invalid
+                    );
+                }
+            }
+            if (!hasVersion && fields.contains(Field.VERSION)) {
+                errors.appendMissingValue(paths.describe(loader), "version", REASON_VERSION, CustomJsonType.STRING);
+            }
+        }
+
+        CustomJsonValue source = paths.emptyObject(0);
+        return new ProjectedQuiltModJsonV1(
+            source, Collections.unmodifiableSet(fields), group, id, version, provides, entrypoints, name, description,
+            icon, custom != null ? Collections.unmodifiableMap(custom) : null
+        );
+    }
+
+    /** @return The fields which were read. */
+    public Set<Field> projection() {
+        return projection;
+    }
+
+    /** @return True if the given field was read. */
+    public boolean isProjected(Field field) {
+        return projection.contains(field);
+    }
+
+    private void require(Field field) {
+        if (!projection.contains(field)) {
+            throw new IllegalStateException(field + " was not projected! (Only " + projection + " were read)");
+        }
+    }
+
+    /** @see QuiltModJsonV1#group() */
+    public String group() {
+        require(Field.GROUP);
+        return group;
+    }
+
+    /** @see QuiltModJsonV1#id() */
+    public String id() {
+        require(Field.ID);
+        return id;
+    }
+
+    /** @see QuiltModJsonV1#version() */
+    public String version() {
+        require(Field.VERSION);
+        return version;
+    }
+
+    /** @see QuiltModJsonV1#provides() */
+    public List<FinalProvidesV1> provides() {
+        require(Field.PROVIDES);
+        return provides;
+    }
+
+    /** @see QuiltModJsonV1#entrypoints() */
+    public FinalEntrypointContainerV1 entrypoints() {
+        require(Field.ENTRYPOINTS);
+        return entrypoints;
+    }
+
+    /** @return The name, or null if the file doesn't have one.
+     * @see QuiltModJsonV1#name() */
+    public String name() {
+        require(Field.NAME);
+        return name;
+    }
+
+    /** @return The description, or null if the file doesn't have one.
+     * @see QuiltModJsonV1#description() */
+    public String description() {
+        require(Field.DESCRIPTION);
+        return description;
+    }
+
+    /** @return The icon, or null if the file doesn't have one.
+     * @see QuiltModJsonV1#icon() */
+    public IconsV1 icon() {
+        require(Field.ICON);
+        return icon;
+    }
+
+    /** @see QuiltModJsonV1#custom() */
+    public Map<String, CustomJsonValue> custom() {
+        require(Field.CUSTOM);
+        return custom;
+    }
+}
@@ -16,6 +16,12 @@
 
 package org.quiltmc.mod_spec.api;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.ParseException;
+
 /** A "quilt.mod.json" file, inside of a {@link QuiltMod}.
  * <p>
  * Currently there is only one major version of a {@link QuiltModJson}: {@link QuiltModJsonV1}. In the future there may
@@ -25,6 +31,29 @@ public interface QuiltModJson extends JsonWritable {
 
     /** The quilt mod file schema version used for parsing this file. Currently the only valid version is 1. */
     int schema_version();
+
+    /** Reads a quilt.mod.json file from the UTF-8 encoded bytes between the buffer's position and limit. The bytes are
+     * decoded directly from the buffer (which may be a {@link java.nio.MappedByteBuffer}) in a single pass, and the
+     * buffer's position is not changed.
+     * <p>
+     * Currently this always returns a {@link FinalQuiltModJsonV1}, since that's the only version.
+     * 
+     * @throws InvalidModJsonException if the json is well-formed, but doesn't follow the specification. */
+    static QuiltModJson read(ByteBuffer utf8) throws IOException, ParseException, InvalidModJsonException {
+        return read(utf8, ModJsonErrorPolicy.COLLECT_ALL);
+    }
+
+    /** Reads a quilt.mod.json file in the same way as {@link #read(ByteBuffer)}, but stops validating as soon as the
+     * given policy says to.
+     * 
+     * @throws InvalidModJsonException if the json is well-formed, but doesn't follow the specification. */
+    static QuiltModJson read(ByteBuffer utf8, ModJsonErrorPolicy policy)
+        throws IOException, ParseException, InvalidModJsonException {
+
+        try (JsonReader reader = JsonReader.json(new Utf8BufferReader(utf8.duplicate()))) {
+            return FinalQuiltModJsonV1.read(reader, policy);
+        }
+    }
 }
 
 /** Used to indicate that additional mod json versions will be added, and any switch statements on them will need to
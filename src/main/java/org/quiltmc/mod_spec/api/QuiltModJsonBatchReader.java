@@ -0,0 +1,299 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.quiltmc.parsers.json.ParseException;
+
+/** Reads many quilt.mod.json files in parallel.
+ * <p>
+ * Each read method returns an {@link Iterator} which yields a {@link Result} for every source, in the order that they
+ * finish rather than the order they were given in. At most {@link #maxInFlight()} sources are being read (or are
+ * finished but not yet taken from the iterator) at any time, so memory use doesn't depend on the number of sources.
+ * New sources are only submitted to the executor as results are taken, so an iterator which is abandoned part way
+ * through stops reading once its in-flight sources are done.
+ * <p>
+ * An {@link Error} thrown while reading a source isn't turned into a {@link Result}: it's thrown to the executor, and
+ * also from {@link Iterator#next()} when that source's result would have been returned.
+ * <p>
+ * The returned iterators must only be used from one thread, and shouldn't be used from inside the executor, since
+ * {@link Iterator#next()} blocks until a result is ready. */
+public final class QuiltModJsonBatchReader {
+
+    /** The path of the quilt.mod.json file, relative to {@link QuiltMod#rootPath()}. */
+    static final String QUILT_MOD_JSON = "quilt.mod.json";
+
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /** Creates a batch reader which uses the {@link ForkJoinPool#commonPool() common pool}, and keeps twice its
+     * parallelism in flight. */
+    public QuiltModJsonBatchReader() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() * 2);
+    }
+
+    /** @param executor The executor to read each source on.
+     * @param maxInFlight The maximum number of sources which are being read, or have finished but not yet been taken
+     *            from the iterator. */
+    public QuiltModJsonBatchReader(Executor executor, int maxInFlight) {
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive, but was " + maxInFlight);
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /** Reads each path as a UTF-8 encoded quilt.mod.json file. */
+    public <S extends Path> Iterator<Result<S>> readPaths(Collection<S> paths) {
+        return read(paths, path -> QuiltModJson.read(ByteBuffer.wrap(Files.readAllBytes(path))));
+    }
+
+    /** Reads the UTF-8 encoded bytes between each buffer's position and limit. The buffers' positions aren't changed,
+     * and their contents must not be modified until their results have been taken. */
+    public <S extends ByteBuffer> Iterator<Result<S>> readBuffers(Collection<S> buffers) {
+        return read(buffers, QuiltModJson::read);
+    }
+
+    /** Reads the quilt.mod.json file at the {@link QuiltMod#rootPath() root} of each mod. This re-reads and validates
+     * the file, rather than using {@link QuiltMod#quiltModJson()}. */
+    public <S extends QuiltMod> Iterator<Result<S>> readMods(Collection<S> mods) {
+        return read(mods, mod -> {
+            Path path = mod.rootPath().resolve(QUILT_MOD_JSON);
+            return QuiltModJson.read(ByteBuffer.wrap(Files.readAllBytes(path)));
+        });
+    }
+
+    private <S> Iterator<Result<S>> read(Collection<S> sources, Parser<S> parser) {
+        return new BatchIterator<>(sources.iterator(), parser);
+    }
+
+    /** @param ordered True if results should be returned in the same order as the sources, rather than in the order
+     *            they finish. Ordered iterators still keep at most {@link #maxInFlight()} sources in flight, so one
+     *            slow source stops new sources from being submitted until it's done. */
+    <S> Iterator<Result<S>> read(Iterator<S> sources, Parser<S> parser, boolean ordered) {
+        return ordered ? new OrderedBatchIterator<>(sources, parser) : new BatchIterator<>(sources, parser);
+    }
+
+    @FunctionalInterface
+    interface Parser<S> {
+        QuiltModJson parse(S source) throws IOException, ParseException, InvalidModJsonException;
+    }
+
+    /** The outcome of reading a single source. */
+    public static final class Result<S> {
+        private final S source;
+        private final QuiltModJson value;
+        private final Exception exception;
+
+        Result(S source, QuiltModJson value, Exception exception) {
+            this.source = source;
+            this.value = value;
+            this.exception = exception;
+        }
+
+        public S source() {
+            return source;
+        }
+
+        /** @return True if the source was read, and followed the specification. */
+        public boolean isSuccess() {
+            return exception == null;
+        }
+
+        /** @return The quilt.mod.json that was read, or null if reading failed. */
+        public QuiltModJson value() {
+            return value;
+        }
+
+        /** @return The reason the source couldn't be read, or null if it was read successfully. This is normally an
+         *         {@link InvalidModJsonException}, {@link IOException} or {@link ParseException}, but may be any
+         *         {@link RuntimeException} thrown while reading, or a {@link RejectedExecutionException} if the
+         *         executor didn't accept the source. */
+        public Exception exception() {
+            return exception;
+        }
+
+        /** @return The quilt.mod.json that was read.
+         * @throws InvalidModJsonException if the json didn't follow the specification.
+         * @throws IOException if the source couldn't be read.
+         * @throws ParseException if the source wasn't valid json. */
+        public QuiltModJson get() throws IOException, InvalidModJsonException {
+            if (exception == null) {
+                return value;
+            } else if (exception instanceof InvalidModJsonException) {
+                throw (InvalidModJsonException) exception;
+            } else if (exception instanceof IOException) {
+                throw (IOException) exception;
+            } else if (exception instanceof RuntimeException) {
+                throw (RuntimeException) exception;
+            } else {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    static <S> Result<S> parse(Parser<S> parser, S source) {
+        try {
+            return new Result<>(source, parser.parse(source), null);
+        } catch (ParseException e) {
+            return new Result<>(source, null, e);
+        } catch (IOException | InvalidModJsonException | RuntimeException e) {
+            return new Result<>(source, null, e);
+        }
+    }
+
+    /** Submits a source to the executor. The returned future is completed with the source's result, or exceptionally
+     * with any {@link Error} thrown while reading it, so the iterator never waits forever for it. */
+    private <S> CompletableFuture<Result<S>> submit(Parser<S> parser, S source) {
+        CompletableFuture<Result<S>> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                Result<S> result;
+                try {
+                    result = parse(parser, source);
+                } catch (Error e) {
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+                future.complete(result);
+            });
+        } catch (RejectedExecutionException e) {
+            future.complete(new Result<>(source, null, e));
+        }
+        return future;
+    }
+
+    /** @return The result of a future from {@link #submit(Parser, Object)}, waiting for it if necessary. */
+    private static <S> Result<S> await(CompletableFuture<Result<S>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a quilt.mod.json to be read", e);
+        } catch (ExecutionException e) {
+            // Only errors complete the future exceptionally
+            throw (Error) e.getCause();
+        }
+    }
+
+    private final class BatchIterator<S> implements Iterator<Result<S>> {
+        private final Iterator<S> sources;
+        private final Parser<S> parser;
+        private final BlockingQueue<CompletableFuture<Result<S>>> finished;
+        private int inFlight;
+
+        BatchIterator(Iterator<S> sources, Parser<S> parser) {
+            this.sources = sources;
+            this.parser = parser;
+            this.finished = new ArrayBlockingQueue<>(maxInFlight);
+            fill();
+        }
+
+        private void fill() {
+            while (inFlight < maxInFlight && sources.hasNext()) {
+                CompletableFuture<Result<S>> future = submit(parser, sources.next());
+                future.whenComplete((result, error) -> finished.add(future));
+                inFlight++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return inFlight > 0;
+        }
+
+        @Override
+        public Result<S> next() {
+            if (inFlight == 0) {
+                throw new NoSuchElementException();
+            }
+
+            CompletableFuture<Result<S>> future;
+            try {
+                future = finished.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a quilt.mod.json to be read", e);
+            }
+
+            inFlight--;
+            fill();
+            return await(future);
+        }
+    }
+
+    private final class OrderedBatchIterator<S> implements Iterator<Result<S>> {
+        private final Iterator<S> sources;
+        private final Parser<S> parser;
+        private final ArrayDeque<CompletableFuture<Result<S>>> pending = new ArrayDeque<>();
+
+        OrderedBatchIterator(Iterator<S> sources, Parser<S> parser) {
+            this.sources = sources;
+            this.parser = parser;
+            fill();
+        }
+
+        private void fill() {
+            while (pending.size() < maxInFlight && sources.hasNext()) {
+                pending.add(submit(parser, sources.next()));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Result<S> next() {
+            CompletableFuture<Result<S>> future = pending.poll();
+            if (future == null) {
+                throw new NoSuchElementException();
+            }
+
+            Result<S> result = await(future);
+            fill();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,670 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.InvalidValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.MissingValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.ParseException;
+
+/** A persistent cache of the quilt.mod.json files inside mod jars, so that jars which haven't changed since the last
+ * run don't need to be opened at all.
+ * <p>
+ * Each jar is identified by its path, size, and last modified time, and optionally a hash of its whole contents. The
+ * cache stores either the validated {@link FinalQuiltModJsonV1} or the problems that made it invalid. Files which
+ * aren't valid json aren't cached, since the {@link ParseException} can't be reproduced.
+ * <p>
+ * Everything is stored in a single append-only file, which starts with the version of this cache format, the
+ * {@link BinaryModJson#FORMAT_VERSION}, and the quilt.mod.json schema version. If any of those are different when the
+ * file is opened then every entry is discarded. Each record is checksummed, so a record which was only partially
+ * written (for example if the process was killed) is detected and dropped. Replaced and removed entries are left in
+ * the file until it's {@link #compact() compacted}, which writes the live entries to a new file and then atomically
+ * moves it over the old one, so a crash part way through leaves the original file intact.
+ * <p>
+ * Only one instance may have a cache file open at a time. Instances are safe to use from multiple threads. */
+public final class QuiltModJsonCache implements Closeable {
+
+    /** The current version of the cache file format. */
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = ('Q' << 24) | ('M' << 16) | ('J' << 8) | 'C';
+    private static final int HEADER_SIZE = 16;
+    /** The size of the length and checksum before each record. */
+    private static final int RECORD_HEADER_SIZE = 8;
+    /** The smallest possible record payload: the type, a fingerprint with an empty key and hash, and the length of
+     * empty data. */
+    private static final int MIN_RECORD_LENGTH = 1 + 2 + 8 + 8 + 2 + 4;
+
+    private static final byte RECORD_VALID = 0;
+    private static final byte RECORD_INVALID = 1;
+    private static final byte RECORD_REMOVED = 2;
+
+    private static final byte PROBLEM_MISSING = 0;
+    private static final byte PROBLEM_WRONG_TYPE = 1;
+    private static final byte PROBLEM_INVALID = 2;
+
+    /** Files with less than this much garbage are never compacted automatically. */
+    private static final long MIN_AUTO_COMPACT_GARBAGE = 64 * 1024;
+
+    private static final CustomJsonType[] TYPES = CustomJsonType.values();
+
+    private final Path file;
+    private final boolean hashContents;
+    private final Map<String, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private FileLock lock;
+    private long liveBytes;
+
+    private QuiltModJsonCache(Path file, boolean hashContents) {
+        this.file = file;
+        this.hashContents = hashContents;
+    }
+
+    /** Opens (or creates) the cache stored in the given file.
+     * 
+     * @param hashContents True to also compare a SHA-256 hash of each jar. This reads every jar in full on every
+     *            lookup, but detects changes which keep the same size and modification time.
+     * @throws IOException if the file couldn't be opened, or is already open. */
+    public static QuiltModJsonCache open(Path file, boolean hashContents) throws IOException {
+        QuiltModJsonCache cache = new QuiltModJsonCache(file, hashContents);
+        try {
+            cache.reopen();
+            long garbage = cache.channel.size() - HEADER_SIZE - cache.liveBytes;
+            if (garbage > MIN_AUTO_COMPACT_GARBAGE && garbage > cache.liveBytes) {
+                cache.compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            cache.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Reads the quilt.mod.json file from the root of the given jar, using the cached copy if the jar hasn't changed.
+     * Otherwise the jar is read, and the result (or the problems that made it invalid) are added to the cache.
+     * 
+     * @throws InvalidModJsonException if the quilt.mod.json doesn't follow the specification (this is cached too).
+     * @throws IOException if the jar couldn't be read, or doesn't contain a quilt.mod.json file.
+     * @throws ParseException if the quilt.mod.json file isn't valid json. */
+    public FinalQuiltModJsonV1 read(Path jar) throws IOException, InvalidModJsonException {
+        Fingerprint fingerprint = fingerprint(jar);
+        FinalQuiltModJsonV1 cached = lookup(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] bytes;
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            ZipEntry entry = zip.getEntry(QuiltModJsonBatchReader.QUILT_MOD_JSON);
+            if (entry == null) {
+                throw new FileNotFoundException(QuiltModJsonBatchReader.QUILT_MOD_JSON + " in " + jar);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                bytes = readAll(in);
+            }
+        }
+
+        FinalQuiltModJsonV1 json;
+        try (JsonReader reader = JsonReader.json(new Utf8BufferReader(ByteBuffer.wrap(bytes)))) {
+            json = FinalQuiltModJsonV1.read(reader);
+        } catch (InvalidModJsonException e) {
+            put(fingerprint, RECORD_INVALID, encodeProblems(e.problems()));
+            throw e;
+        }
+        put(fingerprint, RECORD_VALID, BinaryModJson.write(json, true));
+        return json;
+    }
+
+    /** @return The cached quilt.mod.json for the given jar, or null if it isn't cached or the jar has changed.
+     * @throws InvalidModJsonException if the jar's quilt.mod.json was invalid when it was cached. */
+    public FinalQuiltModJsonV1 lookup(Path jar) throws IOException, InvalidModJsonException {
+        return lookup(fingerprint(jar));
+    }
+
+    /** Stores the given quilt.mod.json for the jar, replacing anything already cached for it. */
+    public void put(Path jar, FinalQuiltModJsonV1 json) throws IOException {
+        put(fingerprint(jar), RECORD_VALID, BinaryModJson.write(json, true));
+    }
+
+    /** Stores the problems with the jar's quilt.mod.json, replacing anything already cached for it. */
+    public void put(Path jar, InvalidModJsonException exception) throws IOException {
+        put(fingerprint(jar), RECORD_INVALID, encodeProblems(exception.problems()));
+    }
+
+    /** Removes anything cached for the given jar. */
+    public synchronized void remove(Path jar) throws IOException {
+        String key = key(jar);
+        if (index.containsKey(key)) {
+            append(new Fingerprint(key, 0, 0, new byte[0]), RECORD_REMOVED, new byte[0]);
+        }
+    }
+
+    /** Rewrites the cache file so it only contains live entries. This is crash-safe: the new file is written next to
+     * the old one, and then moved over it atomically (where the file system supports it). */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        Path temp = compactionFile();
+        Map<String, Entry> newIndex = new HashMap<>();
+        long newLiveBytes = 0;
+
+        try (FileChannel out = FileChannel.open(
+            temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        )) {
+            writeFully(out, header());
+            long position = HEADER_SIZE;
+            for (Map.Entry<String, Entry> mapEntry : index.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                int recordSize = RECORD_HEADER_SIZE + entry.length;
+                ByteBuffer record = ByteBuffer.allocate(recordSize);
+                readFully(channel, record, entry.offset - RECORD_HEADER_SIZE);
+                record.flip();
+                writeFully(out, record);
+                newIndex.put(mapEntry.getKey(), entry.movedTo(position + RECORD_HEADER_SIZE));
+                position += recordSize;
+                newLiveBytes += recordSize;
+            }
+            out.force(true);
+        }
+
+        closeChannel();
+        try {
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A non-atomic move may have failed part way through, so the new index can't be trusted: whatever is
+            // actually in the file now has to be read again
+            try {
+                reopen();
+            } catch (IOException | RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        openChannel();
+
+        index.clear();
+        index.putAll(newIndex);
+        liveBytes = newLiveBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+        }
+        closeChannel();
+    }
+
+    // #############
+    // # Internals
+    // #############
+
+    private Path compactionFile() {
+        return file.resolveSibling(file.getFileName() + ".compact");
+    }
+
+    /** Opens the file and rebuilds the index from it. */
+    private void reopen() throws IOException {
+        openChannel();
+        // Left behind if compaction was interrupted, and only safe to delete once the lock is held
+        Files.deleteIfExists(compactionFile());
+        index.clear();
+        liveBytes = 0;
+        load();
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Already open in this process
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            channel = null;
+            throw new IOException("The cache file " + file + " is already open");
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        try {
+            if (lock != null && lock.isValid()) {
+                lock.release();
+            }
+        } finally {
+            lock = null;
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("The cache " + file + " is closed");
+        }
+    }
+
+    /** Reads the index from the file, discarding the file if it was written by a different version, and truncating
+     * any partially written record at the end. A record is treated as partially written if anything about it is
+     * wrong, including a tail of zeros (which has a valid checksum) left by a file system that extended the file
+     * before the data reached the disk. */
+    private void load() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        int headerRead = readFully(channel, header, 0);
+        header.flip();
+        if (headerRead < HEADER_SIZE || !header.equals(header())) {
+            channel.truncate(0);
+            writeFully(channel, header(), 0);
+            return;
+        }
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = HEADER_SIZE;
+        while (position < size) {
+            recordHeader.clear();
+            if (readFully(channel, recordHeader, position) < RECORD_HEADER_SIZE) {
+                break;
+            }
+            int length = recordHeader.getInt(0);
+            int checksum = recordHeader.getInt(4);
+            if (length < MIN_RECORD_LENGTH || length > size - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + RECORD_HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+            byte type;
+            Fingerprint fingerprint;
+            try {
+                type = in.readByte();
+                fingerprint = Fingerprint.read(in);
+                int dataLength = in.readInt();
+                if (type < RECORD_VALID || type > RECORD_REMOVED || dataLength != in.available()) {
+                    break;
+                }
+            } catch (IOException e) {
+                break;
+            }
+            index(fingerprint, type, position + RECORD_HEADER_SIZE, length);
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            // The last record was only partially written
+            channel.truncate(position);
+        }
+    }
+
+    private void index(Fingerprint fingerprint, byte type, long offset, int length) {
+        Entry old;
+        if (type == RECORD_REMOVED) {
+            old = index.remove(fingerprint.key);
+        } else {
+            old = index.put(fingerprint.key, new Entry(fingerprint, offset, length));
+            liveBytes += RECORD_HEADER_SIZE + length;
+        }
+        if (old != null) {
+            liveBytes -= RECORD_HEADER_SIZE + old.length;
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putInt(BinaryModJson.FORMAT_VERSION);
+        // The only schema version
+        header.putInt(1);
+        header.flip();
+        return header;
+    }
+
+    private synchronized FinalQuiltModJsonV1 lookup(Fingerprint fingerprint) throws IOException,
+        InvalidModJsonException {
+
+        ensureOpen();
+        Entry entry = index.get(fingerprint.key);
+        if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(entry.length);
+        readFully(channel, payload, entry.offset);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+        byte type = in.readByte();
+        Fingerprint.read(in);
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+
+        if (type == RECORD_VALID) {
+            return BinaryModJson.readQuiltModJson(ByteBuffer.wrap(data));
+        } else {
+            throw new InvalidModJsonException(decodeProblems(data));
+        }
+    }
+
+    private synchronized void put(Fingerprint fingerprint, byte type, byte[] data) throws IOException {
+        append(fingerprint, type, data);
+    }
+
+    private void append(Fingerprint fingerprint, byte type, byte[] data) throws IOException {
+        ensureOpen();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 64 + data.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        // Placeholders for the length and checksum
+        out.writeLong(0);
+        out.writeByte(type);
+        fingerprint.write(out);
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.capacity() - RECORD_HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+
+        long position = channel.size();
+        writeFully(channel, record, position);
+        index(fingerprint, type, position + RECORD_HEADER_SIZE, length);
+    }
+
+    private String key(Path jar) {
+        return jar.toAbsolutePath().normalize().toString();
+    }
+
+    private Fingerprint fingerprint(Path jar) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        byte[] hash = new byte[0];
+        if (hashContents) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+            }
+            try (InputStream in = Files.newInputStream(jar)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            hash = digest.digest();
+        }
+        return new Fingerprint(key(jar), attributes.size(), attributes.lastModifiedTime().toMillis(), hash);
+    }
+
+    private static byte[] encodeProblems(List<ModJsonProblem> problems) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(problems.size());
+        for (ModJsonProblem problem : problems) {
+            if (problem instanceof MissingValueProblem) {
+                MissingValueProblem missing = (MissingValueProblem) problem;
+                out.writeByte(PROBLEM_MISSING);
+                out.writeUTF(missing.location());
+                out.writeUTF(missing.valueName());
+                writeTypes(out, missing.expectedTypes());
+                out.writeUTF(missing.reason());
+            } else if (problem instanceof WrongTypeProblem) {
+                WrongTypeProblem wrongType = (WrongTypeProblem) problem;
+                out.writeByte(PROBLEM_WRONG_TYPE);
+                out.writeUTF(wrongType.valueName());
+                writeTypes(out, wrongType.expectedTypes());
+                writeValue(out, wrongType.actualValue());
+                out.writeUTF(wrongType.reason());
+            } else if (problem instanceof InvalidValueProblem) {
+                InvalidValueProblem invalid = (InvalidValueProblem) problem;
+                out.writeByte(PROBLEM_INVALID);
+                out.writeUTF(invalid.valueName());
+                writeValue(out, invalid.actualValue());
+                out.writeUTF(invalid.reason());
+                out.writeInt(invalid.invalidIndex());
+            } else {
+                throw new IllegalArgumentException("Unknown problem type " + problem.getClass());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<ModJsonProblem> decodeProblems(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int count = in.readInt();
+        List<ModJsonProblem> problems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            switch (kind) {
+            case PROBLEM_MISSING: {
+                String location = in.readUTF();
+                String valueName = in.readUTF();
+                Set<CustomJsonType> types = readTypes(in);
+                problems.add(new MissingValueProblem(location, valueName, types, in.readUTF()));
+                break;
+            }
+            case PROBLEM_WRONG_TYPE: {
+                String valueName = in.readUTF();
+                Set<CustomJsonType> types = readTypes(in);
+                CustomJsonValue value = readValue(in);
+                problems.add(new WrongTypeProblem(valueName, types, value, in.readUTF()));
+                break;
+            }
+            case PROBLEM_INVALID: {
+                String valueName = in.readUTF();
+                CustomJsonValue value = readValue(in);
+                String reason = in.readUTF();
+                problems.add(new InvalidValueProblem(valueName, value, reason, in.readInt()));
+                break;
+            }
+            default:
+                throw new IOException("Corrupt cache entry (unknown problem kind " + kind + ")");
+            }
+        }
+        return Collections.unmodifiableList(problems);
+    }
+
+    private static void writeTypes(DataOutputStream out, Set<CustomJsonType> types) throws IOException {
+        int mask = 0;
+        for (CustomJsonType type : types) {
+            mask |= 1 << type.ordinal();
+        }
+        out.writeInt(mask);
+    }
+
+    private static Set<CustomJsonType> readTypes(DataInputStream in) throws IOException {
+        int mask = in.readInt();
+        Set<CustomJsonType> types = EnumSet.noneOf(CustomJsonType.class);
+        for (CustomJsonType type : TYPES) {
+            if ((mask & (1 << type.ordinal())) != 0) {
+                types.add(type);
+            }
+        }
+        return Collections.unmodifiableSet(types);
+    }
+
+    private static void writeValue(DataOutputStream out, CustomJsonValue value) throws IOException {
+        byte[] bytes = BinaryModJson.write(value, true);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static CustomJsonValue readValue(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return BinaryModJson.readValue(ByteBuffer.wrap(bytes));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /** @return The number of bytes read, which is only less than the buffer's remaining space at the end of the
+     *         file. */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /** Identifies a specific version of a jar file. */
+    private static final class Fingerprint {
+        final String key;
+        final long size;
+        final long lastModified;
+        final byte[] hash;
+
+        Fingerprint(String key, long size, long lastModified, byte[] hash) {
+            this.key = key;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        static Fingerprint read(DataInputStream in) throws IOException {
+            String key = in.readUTF();
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            int hashLength = in.readUnsignedShort();
+            byte[] hash = new byte[hashLength];
+            in.readFully(hash);
+            return new Fingerprint(key, size, lastModified, hash);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(key);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeShort(hash.length);
+            out.write(hash);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return key.equals(other.key) && size == other.size && lastModified == other.lastModified
+                && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+    /** Where the latest record for a jar is in the file. */
+    private static final class Entry {
+        final Fingerprint fingerprint;
+        /** The position of the record's payload, after its length and checksum. */
+        final long offset;
+        final int length;
+
+        Entry(Fingerprint fingerprint, long offset, int length) {
+            this.fingerprint = fingerprint;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        Entry movedTo(long offset) {
+            return new Entry(fingerprint, offset, length);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObjectBuilder;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.QuiltModJsonBatchReader.Result;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonWriter;
+import org.quiltmc.parsers.json.ParseException;
+
+/** A catalog of many quilt.mod.json files in a single newline-delimited json file. Each line is a record object like
+ * <code>{"source":"mods/example.jar","json":{"schema_version":1,...}}</code>, where "source" identifies where the
+ * quilt.mod.json came from.
+ * <p>
+ * Catalogs are written with a {@link Writer}, and read with
+ * {@link #read(InputStream, QuiltModJsonBatchReader, boolean)}, which parses lines in parallel. */
+public final class QuiltModJsonCatalog {
+
+    private static final String REASON_RECORD = "[TODO:CATALOG_RECORD]";
+    private static final String REASON_SOURCE = "[TODO:CATALOG_SOURCE]";
+
+    static final String KEY_SOURCE = "source";
+    static final String KEY_JSON = "json";
+
+    private QuiltModJsonCatalog() {}
+
+    /** Writes catalog records to an {@link OutputStream}. Records are serialised into a reused buffer, which is passed
+     * to the stream in large chunks, so the stream doesn't need to be buffered. */
+    public static final class Writer implements Closeable {
+
+        private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+        private final OutputStream out;
+        private final JsonSerializationContext context = new JsonSerializationContext();
+
+        public Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        /** Appends a record to the catalog.
+         * 
+         * @param source An identifier for where the json came from, like the path of the mod. */
+        public void write(String source, QuiltModJson json) throws IOException {
+            context.write(new RecordJson(source, json)).newLine();
+            if (context.size() >= FLUSH_THRESHOLD) {
+                flushBuffer();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            context.writeTo(out);
+            context.reset();
+        }
+
+        /** Passes every written record to the stream, and flushes it. */
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        /** Flushes, and then closes the stream. */
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBuffer();
+            } finally {
+                out.close();
+            }
+        }
+
+        /** A record, which streams the mod json into the context rather than copying it into a record object. */
+        private static final class RecordJson implements JsonWritable {
+            private final String source;
+            private final QuiltModJson json;
+
+            RecordJson(String source, QuiltModJson json) {
+                this.source = source;
+                this.json = json;
+            }
+
+            @Override
+            public CustomJsonValue toJson() {
+                CustomJsonObjectBuilder record = new CustomJsonObjectBuilder();
+                record.put(KEY_SOURCE, source);
+                record.put(KEY_JSON, json);
+                return record.build();
+            }
+
+            @Override
+            public void write(JsonWriter writer) throws IOException {
+                writer.beginObject();
+                writer.name(KEY_SOURCE);
+                writer.value(source);
+                writer.name(KEY_JSON);
+                json.write(writer);
+                writer.endObject();
+            }
+        }
+    }
+
+    /** A single line of a catalog. */
+    public static final class Record {
+        private final long line;
+
+        /** The UTF-8 bytes of the line, until it has been parsed. */
+        private ByteBuffer bytes;
+
+        private volatile String source;
+
+        Record(long line, ByteBuffer bytes) {
+            this.line = line;
+            this.bytes = bytes;
+        }
+
+        /** @return The line number of this record in the catalog, starting at 1. */
+        public long line() {
+            return line;
+        }
+
+        /** @return The source identifier of this record, or null if the line was too malformed to read it. */
+        public String source() {
+            return source;
+        }
+
+        @Override
+        public String toString() {
+            return source != null ? source + " (line " + line + ")" : "line " + line;
+        }
+    }
+
+    /** Reads every record in the given catalog. Lines are read from the stream as results are taken from the iterator,
+     * and parsed in parallel by the batch reader.
+     * <p>
+     * A record which can't be parsed only fails its own {@link Result}: an invalid quilt.mod.json gives an
+     * {@link InvalidModJsonException} (as does a record without a "source" or "json"), and a line which isn't valid
+     * json gives a {@link ParseException}. The stream isn't closed by this.
+     * 
+     * @param ordered True if results should be returned in the same order as the lines of the catalog, or false if
+     *            they should be returned as soon as they are parsed.
+     * @return An iterator over the records. Its methods throw {@link UncheckedIOException} if reading the stream
+     *         fails. */
+    public static Iterator<Result<Record>> read(InputStream in, QuiltModJsonBatchReader reader, boolean ordered) {
+        return reader.read(new LineIterator(in), QuiltModJsonCatalog::parse, ordered);
+    }
+
+    private static QuiltModJson parse(Record record) throws IOException, ParseException, InvalidModJsonException {
+        ByteBuffer bytes = record.bytes;
+        record.bytes = null;
+
+        ErrorBuilder errors = new ErrorBuilder();
+        FinalQuiltModJsonV1 result = null;
+        boolean hasSource = false;
+        boolean hasJson = false;
+        try (JsonReader reader = JsonReader.json(new Utf8BufferReader(bytes))) {
+            if (!errors.expectNext(reader, "record", REASON_RECORD, CustomJsonType.OBJECT)) {
+                errors.throwIfErrored();
+            }
+            String location = reader.locationString();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                switch (key) {
+                case KEY_SOURCE: {
+                    hasSource = true;
+                    record.source = errors.nextString(reader, key, REASON_SOURCE);
+                    break;
+                }
+                case KEY_JSON: {
+                    hasJson = true;
+                    result = FinalQuiltModJsonV1.read(reader, errors);
+                    break;
+                }
+                default: {
+                    reader.skipValue();
+                }
+                }
+            }
+            reader.endObject();
+
+            if (!hasSource) {
+                errors.appendMissingValue(location, KEY_SOURCE, REASON_SOURCE, CustomJsonType.STRING);
+            }
+            if (!hasJson) {
+                errors.appendMissingValue(location, KEY_JSON, REASON_RECORD, CustomJsonType.OBJECT);
+            }
+        }
+        errors.throwIfErrored();
+        return result;
+    }
+
+    /** Splits a stream into non-empty lines, copying each into its own buffer so it can be parsed on another thread. */
+    private static final class LineIterator implements Iterator<Record> {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private boolean eof;
+        private long lineNumber;
+        private Record next;
+
+        LineIterator(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readRecord();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Record record = next;
+            next = null;
+            return record;
+        }
+
+        private Record readRecord() throws IOException {
+            byte[] line = null;
+            int lineLength = 0;
+            while (true) {
+                if (position == limit) {
+                    if (eof || !fill()) {
+                        if (isBlank(line, lineLength)) {
+                            return null;
+                        }
+                        lineNumber++;
+                        return new Record(lineNumber, ByteBuffer.wrap(line, 0, lineLength));
+                    }
+                }
+
+                int end = position;
+                while (end < limit && buffer[end] != '\n') {
+                    end++;
+                }
+
+                int count = end - position;
+                if (count > 0) {
+                    if (line == null) {
+                        line = new byte[Math.max(count, 256)];
+                    } else if (lineLength + count > line.length) {
+                        line = Arrays.copyOf(line, Math.max(lineLength + count, line.length * 2));
+                    }
+                    System.arraycopy(buffer, position, line, lineLength, count);
+                    lineLength += count;
+                }
+                position = end;
+
+                if (end < limit) {
+                    // Found the line feed
+                    position++;
+                    lineNumber++;
+                    if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                        lineLength--;
+                    }
+                    if (isBlank(line, lineLength)) {
+                        line = null;
+                        lineLength = 0;
+                        continue;
+                    }
+                    return new Record(lineNumber, ByteBuffer.wrap(line, 0, lineLength));
+                }
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer);
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private static boolean isBlank(byte[] line, int length) {
+            for (int i = 0; i < length; i++) {
+                byte b = line[i];
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
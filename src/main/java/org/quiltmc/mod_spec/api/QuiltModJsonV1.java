@@ -17,8 +17,6 @@
 package org.quiltmc.mod_spec.api;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -31,7 +29,9 @@ import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
 import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObjectBuilder;
 import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointContainerV1;
 import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalMultiIconV1;
 import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalProvidesV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalSingleIconV1;
 import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableEntrypointContainerV1;
 import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableEntrypointV1;
 import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableModConstraintV1;
@@ -79,6 +79,30 @@ public interface QuiltModJsonV1 extends QuiltModJson {
      * {@link #INTERMEDIATE_MAPPINGS_REGEX} {@link Pattern#compile(String) compiled} */
     public static final Pattern INTERMEDIATE_MAPPINGS_PATTERN = Pattern.compile(INTERMEDIATE_MAPPINGS_REGEX);
 
+    /** Checks if the given string is a valid {@link #group()}, without using a regular expression.
+     * 
+     * @return -1 if the group matches {@link #GROUP_REGEX}, otherwise the index of the first invalid character (or 0 if
+     *         the group is empty). */
+    public static int indexOfInvalidGroup(String group) {
+        return IdentifierValidator.indexOfInvalidGroup(group);
+    }
+
+    /** Checks if the given string is a valid {@link #id()}, without using a regular expression.
+     * 
+     * @return -1 if the id matches {@link #ID_REGEX}, otherwise the index of the first invalid character. Ids which are
+     *         too short are invalid at their length, and ids which are too long are invalid at index 64. */
+    public static int indexOfInvalidId(String id) {
+        return IdentifierValidator.indexOfInvalidId(id);
+    }
+
+    /** Checks if the given string is a valid {@link #intermediate_mappings()}, without using a regular expression.
+     * 
+     * @return -1 if the string matches {@link #INTERMEDIATE_MAPPINGS_REGEX}, otherwise the index of the first invalid
+     *         character. Strings without a colon, or with nothing after it, are invalid at their length. */
+    public static int indexOfInvalidIntermediateMappings(String mappings) {
+        return IdentifierValidator.indexOfInvalidIntermediateMappings(mappings);
+    }
+
     @Override
     default int schema_version() {
         return 1;
@@ -114,10 +138,10 @@ public interface QuiltModJsonV1 extends QuiltModJson {
             if (version == null) {
                 return CustomJsonValue.createString(id());
             } else {
-                Map<String, CustomJsonValue> map = new LinkedHashMap<>();
-                map.put("id", CustomJsonValue.createString(id()));
-                map.put("version", CustomJsonValue.createString(version));
-                return CustomJsonValue.createObject(map);
+                CustomJsonObjectBuilder obj = new CustomJsonObjectBuilder();
+                obj.put("id", id());
+                obj.put("version", version);
+                return obj.build();
             }
         }
 
@@ -157,23 +181,21 @@ public interface QuiltModJsonV1 extends QuiltModJson {
 
         @Override
         default CustomJsonObject toJson() {
-            Map<String, CustomJsonValue> map = new LinkedHashMap<>();
+            CustomJsonObjectBuilder obj = new CustomJsonObjectBuilder();
             for (Map.Entry<String, List<E>> entry : entrySet()) {
-                final CustomJsonValue value;
                 List<E> list = entry.getValue();
 
                 if (list.size() == 1) {
-                    value = list.get(0).toJson();
+                    obj.put(entry.getKey(), list.get(0));
                 } else {
-                    List<CustomJsonValue> out = new ArrayList<>();
+                    CustomJsonArrayBuilder array = new CustomJsonArrayBuilder();
                     for (E entrypoint : list) {
-                        out.add(entrypoint.toJson());
+                        array.add(entrypoint);
                     }
-                    value = CustomJsonValue.createArray(out);
+                    obj.put(entry.getKey(), array);
                 }
-                map.put(entry.getKey(), value);
             }
-            return CustomJsonValue.createObject(map);
+            return obj.build();
         }
 
         @Override
@@ -338,6 +360,38 @@ public interface QuiltModJsonV1 extends QuiltModJson {
             return obj.build();
         }
 
+        @Override
+        default void write(JsonWriter writer) throws IOException {
+            VersionConstraintV1 versions = versions();
+            String reason = reason();
+            boolean optional = optional();
+            ModDependencyV1 unless = unless();
+            if (versions == null && reason == null && optional == false && unless == null) {
+                writer.value(id());
+                return;
+            }
+            writer.beginObject();
+            writer.name("id");
+            writer.value(id());
+            if (versions != null) {
+                writer.name("versions");
+                versions.write(writer);
+            }
+            if (reason != null) {
+                writer.name("reason");
+                writer.value(reason);
+            }
+            if (optional) {
+                writer.name("optional");
+                writer.value(optional);
+            }
+            if (unless != null) {
+                writer.name("unless");
+                unless.write(writer);
+            }
+            writer.endObject();
+        }
+
         @Sealed({ NewVersionConstraintV1.class, ArrayVersionConstraintV1.class, MutableVersionConstraintV1.class })
         public interface VersionConstraintV1 extends JsonWritable {
 
@@ -375,6 +429,11 @@ public interface QuiltModJsonV1 extends QuiltModJson {
                 default CustomJsonValue toJson() {
                     return CustomJsonValue.createString(version());
                 }
+
+                @Override
+                default void write(JsonWriter writer) throws IOException {
+                    writer.value(version());
+                }
             }
 
             /** Discouraged array version constraint, as this always is defined as using "ANY" match logic, rather than
@@ -394,6 +453,15 @@ public interface QuiltModJsonV1 extends QuiltModJson {
                     }
                     return array.build();
                 }
+
+                @Override
+                default void write(JsonWriter writer) throws IOException {
+                    writer.beginArray();
+                    for (String version : versions()) {
+                        writer.value(version);
+                    }
+                    writer.endArray();
+                }
             }
 
             /** Similar to {@link ArrayVersionConstraintV1}, except it allows mods to choose which constraint logic
@@ -427,6 +495,18 @@ public interface QuiltModJsonV1 extends QuiltModJson {
                     obj.put(logic().jsonName, array);
                     return obj.build();
                 }
+
+                @Override
+                default void write(JsonWriter writer) throws IOException {
+                    writer.beginObject();
+                    writer.name(logic().jsonName);
+                    writer.beginArray();
+                    for (NewVersionConstraintV1 constraint : constraints()) {
+                        constraint.write(writer);
+                    }
+                    writer.endArray();
+                    writer.endObject();
+                }
             }
         }
     }
@@ -450,6 +530,11 @@ public interface QuiltModJsonV1 extends QuiltModJson {
         public CustomJsonValue toJson() {
             return CustomJsonValue.createString(name());
         }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            writer.value(name());
+        }
     }
 
     /** The intermediate mappings used for this mod. The intermediate mappings string must be a valid maven coordinate
@@ -534,12 +619,12 @@ public interface QuiltModJsonV1 extends QuiltModJson {
     @Sealed({ IconsV1.SingleIconV1.class, IconsV1.MultiIconV1.class })
     public interface IconsV1 {
 
-        @Sealed
+        @Sealed({ FinalSingleIconV1.class })
         public interface SingleIconV1 extends IconsV1 {
             String icon();
         }
 
-        @Sealed
+        @Sealed({ FinalMultiIconV1.class })
         public interface MultiIconV1 extends IconsV1 {
             /** Map of icon size (in pixels) to the path where the icon may be found. */
             SortedMap<Integer, String> icons();
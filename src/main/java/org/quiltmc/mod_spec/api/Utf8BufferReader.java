@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/** A {@link Reader} which decodes UTF-8 straight from a {@link ByteBuffer} (which may be a
+ * {@link java.nio.MappedByteBuffer}) into the array passed to {@link #read(char[], int, int)}, without copying the bytes
+ * first. Decoders are borrowed from a per-thread cache, and returned on {@link #close()}. */
+final class Utf8BufferReader extends Reader {
+
+    private static final ThreadLocal<CharsetDecoder> DECODERS = new ThreadLocal<>();
+
+    private final ByteBuffer buffer;
+    private CharsetDecoder decoder;
+    private boolean finished;
+
+    /** The second half of a surrogate pair, if the caller only asked for one char. */
+    private char leftover;
+    private boolean hasLeftover;
+
+    /** @param buffer The buffer to read from. This reader moves its position, so callers should normally pass in a
+     *            {@link ByteBuffer#duplicate()}. */
+    Utf8BufferReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        CharsetDecoder cached = DECODERS.get();
+        if (cached != null) {
+            // Taken out of the cache so nested readers on the same thread don't share it
+            DECODERS.set(null);
+            decoder = cached.reset();
+        } else {
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+
+        // Skip the byte order mark, if present
+        int pos = buffer.position();
+        if (buffer.remaining() >= 3 && buffer.get(pos) == (byte) 0xEF && buffer.get(pos + 1) == (byte) 0xBB
+            && buffer.get(pos + 2) == (byte) 0xBF) {
+            buffer.position(pos + 3);
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (decoder == null) {
+            throw new IOException("Stream closed");
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        int start = off;
+
+        if (hasLeftover) {
+            hasLeftover = false;
+            cbuf[off++] = leftover;
+            if (--len == 0) {
+                return 1;
+            }
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        decode(out);
+
+        if (out.position() == off && len == 1 && !finished) {
+            // The next code point is a surrogate pair, which doesn't fit
+            CharBuffer pair = CharBuffer.allocate(2);
+            decode(pair);
+            pair.flip();
+            if (pair.hasRemaining()) {
+                out.put(pair.get());
+            }
+            if (pair.hasRemaining()) {
+                leftover = pair.get();
+                hasLeftover = true;
+            }
+        }
+
+        int read = out.position() - start;
+        return read == 0 ? -1 : read;
+    }
+
+    private void decode(CharBuffer out) throws IOException {
+        if (buffer.hasRemaining()) {
+            CoderResult result = decoder.decode(buffer, out, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+        }
+
+        if (!buffer.hasRemaining() && !finished) {
+            if (decoder.flush(out).isUnderflow()) {
+                finished = true;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (decoder != null) {
+            if (DECODERS.get() == null) {
+                DECODERS.set(decoder);
+            }
+            decoder = null;
+        }
+    }
+}
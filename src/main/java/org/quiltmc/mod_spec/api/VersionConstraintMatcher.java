@@ -0,0 +1,336 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1.ArrayVersionConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1.LogicVersionConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1.NewVersionConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1.SingleVersionConstraintV1;
+
+/** A compiled {@link VersionConstraintV1}, which can check {@link ModVersion}s without looking at the constraint
+ * strings again. Matchers are immutable, and {@link #matches(ModVersion)} doesn't allocate anything.
+ * <p>
+ * Each pattern from {@link SingleVersionConstraintV1#version()} is compiled to a range between a lower and upper bound,
+ * and is cached, so compiling the same pattern again returns the same matcher. Versions are compared with the bounds
+ * using the ordering of {@link ModVersion}.
+ * <p>
+ * Patterns which only fix a prefix of the version (such as <code>^1.2.3</code>, <code>~1.2</code>, <code>1.0.x</code>
+ * and plain versions) have semantic versions as bounds. The lower bound is inclusive, and is padded with zeros to
+ * "major.minor.patch". The upper bound is exclusive, and is the lowest pre-release of the next version which doesn't
+ * share the prefix, so:
+ * <ul>
+ * <li><code>^1.2.3</code> and <code>1.2.3</code> match from 1.2.3 to 2.0.0-0</li>
+ * <li><code>~1.2</code> matches from 1.2.0 to 1.3.0-0</li>
+ * <li><code>1.0.x</code> matches from 1.0.0 to 1.1.0-0</li>
+ * </ul>
+ * This means pre-releases of the next version (like 2.0.0-beta for <code>^1.2.3</code>) never match. The comparison
+ * operators (<code>&gt;=</code>, <code>&gt;</code>, <code>&lt;=</code>, <code>&lt;</code> and <code>=</code>) use
+ * their version exactly as it's written. */
+public abstract class VersionConstraintMatcher {
+
+    /** Compiled patterns are only cached until there are this many of them. */
+    private static final int MAX_CACHED = 16384;
+
+    private static final ConcurrentHashMap<String, Range> CACHE = new ConcurrentHashMap<>();
+
+    /** Matches every version. */
+    public static final VersionConstraintMatcher ANY = new Range("*", null, false, null, false);
+
+    /** Matches no versions. */
+    public static final VersionConstraintMatcher NONE = new Combined(true, new VersionConstraintMatcher[0]);
+
+    VersionConstraintMatcher() {}
+
+    /** @return True if the given version is allowed by this constraint. */
+    public abstract boolean matches(ModVersion version);
+
+    /** Parses the given version and checks it. Use {@link #matches(ModVersion)} if the same version is checked more
+     * than once. */
+    public boolean matches(String version) {
+        return matches(ModVersion.parse(version));
+    }
+
+    /** Compiles any version constraint tree. {@link ArrayVersionConstraintV1}s match any of their versions.
+     *
+     * @throws IllegalArgumentException if any of the patterns are invalid. */
+    public static VersionConstraintMatcher compile(VersionConstraintV1 constraint) {
+        if (constraint instanceof SingleVersionConstraintV1) {
+            return compile(((SingleVersionConstraintV1) constraint).version());
+        } else if (constraint instanceof ArrayVersionConstraintV1) {
+            List<String> versions = ((ArrayVersionConstraintV1) constraint).versions();
+            VersionConstraintMatcher[] children = new VersionConstraintMatcher[versions.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compile(versions.get(i));
+            }
+            return combine(true, children);
+        } else if (constraint instanceof LogicVersionConstraintV1) {
+            LogicVersionConstraintV1 logic = (LogicVersionConstraintV1) constraint;
+            List<? extends NewVersionConstraintV1> constraints = logic.constraints();
+            VersionConstraintMatcher[] children = new VersionConstraintMatcher[constraints.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compile(constraints.get(i));
+            }
+            return combine(logic.logic() != LogicVersionConstraintV1.VersionConstraintLogicTypeV1.ALL, children);
+        } else {
+            throw new IllegalArgumentException("Unknown version constraint type " + constraint.getClass());
+        }
+    }
+
+    /** Compiles a single pattern, in any of the forms listed in {@link SingleVersionConstraintV1#version()}.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid. */
+    public static VersionConstraintMatcher compile(String pattern) {
+        Range range = CACHE.get(pattern);
+        if (range == null) {
+            range = parse(pattern);
+            if (CACHE.size() < MAX_CACHED) {
+                Range existing = CACHE.putIfAbsent(pattern, range);
+                if (existing != null) {
+                    range = existing;
+                }
+            }
+        }
+        return range;
+    }
+
+    private static VersionConstraintMatcher combine(boolean any, VersionConstraintMatcher[] children) {
+        if (children.length == 1) {
+            return children[0];
+        }
+        return new Combined(any, children);
+    }
+
+    private static Range parse(String pattern) {
+        if (pattern.equals("*")) {
+            return (Range) ANY;
+        }
+
+        if (pattern.startsWith(">=")) {
+            return new Range(pattern, version(pattern, 2), true, null, false);
+        } else if (pattern.startsWith("<=")) {
+            return new Range(pattern, null, false, version(pattern, 2), true);
+        } else if (pattern.startsWith(">")) {
+            return new Range(pattern, version(pattern, 1), false, null, false);
+        } else if (pattern.startsWith("<")) {
+            return new Range(pattern, null, false, version(pattern, 1), false);
+        } else if (pattern.startsWith("=")) {
+            ModVersion exact = version(pattern, 1);
+            return new Range(pattern, exact, true, exact, true);
+        } else if (pattern.startsWith("~")) {
+            return prefixRange(pattern, 1, pattern.length(), 2);
+        } else if (pattern.startsWith("^")) {
+            return prefixRange(pattern, 1, pattern.length(), 1);
+        }
+
+        int wildcard = wildcardIndex(pattern);
+        if (wildcard >= 0) {
+            int components = countNumbers(pattern, 0, wildcard - 1);
+            if (components < 0) {
+                throw invalid(pattern, "only numbers may come before the wildcard");
+            }
+            return prefixRange(pattern, 0, wildcard - 1, components);
+        }
+
+        // A plain version is the same as ^
+        return prefixRange(pattern, 0, pattern.length(), 1);
+    }
+
+    /** Creates the range for a pattern which only fixes the first few numbers of the version.
+     *
+     * @param start The index of the version in the pattern.
+     * @param end The index after the version.
+     * @param count The number of numbers which are fixed. */
+    private static Range prefixRange(String pattern, int start, int end, int count) {
+        if (start == end) {
+            throw invalid(pattern, "expected a version after '" + pattern.substring(0, start) + "'");
+        }
+        String version = pattern.substring(start, end);
+        return new Range(pattern, lowerBound(version), true, upperBound(pattern, version, count), false);
+    }
+
+    /** @return The version, padded with zeros to "major.minor.patch" if it's only one or two numbers. */
+    private static ModVersion lowerBound(String version) {
+        switch (countNumbers(version, 0, version.length())) {
+        case 1:
+            return ModVersion.parse(version + ".0.0");
+        case 2:
+            return ModVersion.parse(version + ".0");
+        default:
+            return ModVersion.parse(version);
+        }
+    }
+
+    private static ModVersion version(String pattern, int start) {
+        if (start == pattern.length()) {
+            throw invalid(pattern, "expected a version after '" + pattern.substring(0, start) + "'");
+        }
+        return ModVersion.parse(pattern.substring(start));
+    }
+
+    /** @return The index of the wildcard in a pattern ending with ".x", ".X" or ".*", or -1 if it doesn't end with
+     *         one. */
+    private static int wildcardIndex(String pattern) {
+        int last = pattern.length() - 1;
+        if (last < 1 || pattern.charAt(last - 1) != '.') {
+            return -1;
+        }
+        char c = pattern.charAt(last);
+        return c == 'x' || c == 'X' || c == '*' ? last : -1;
+    }
+
+    /** @return The number of dot separated numbers in the given range, or -1 if anything else is there. */
+    private static int countNumbers(String str, int start, int end) {
+        int count = 0;
+        int numberStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || str.charAt(i) == '.') {
+                if (i == numberStart) {
+                    return -1;
+                }
+                count++;
+                numberStart = i + 1;
+            } else if (str.charAt(i) < '0' || str.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return count;
+    }
+
+    /** Takes the first few numbers of the version, and increments the last of them. If the version has fewer numbers
+     * than requested then the last one it has is incremented instead.
+     *
+     * @param count The number of numbers to keep.
+     * @return The lowest version which doesn't share the same numbers, padded with zeros to "major.minor.patch", such
+     *         as 1.3.0-0 for 1.2.5 with a count of 2. */
+    private static ModVersion upperBound(String pattern, String version, int count) {
+        BigInteger[] numbers = new BigInteger[Math.max(count, 3)];
+        int kept = 0;
+        int i = 0;
+        while (kept < count) {
+            int numberStart = i;
+            while (i < version.length() && version.charAt(i) >= '0' && version.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == numberStart) {
+                break;
+            }
+            numbers[kept++] = new BigInteger(version.substring(numberStart, i));
+            if (i >= version.length() || version.charAt(i) != '.') {
+                break;
+            }
+            i++;
+        }
+
+        if (kept == 0) {
+            throw invalid(pattern, "the version must start with a number");
+        }
+        numbers[kept - 1] = numbers[kept - 1].add(BigInteger.ONE);
+        StringBuilder sb = new StringBuilder();
+        for (int n = 0; n < Math.max(kept, 3); n++) {
+            if (n > 0) {
+                sb.append('.');
+            }
+            sb.append(n < kept ? numbers[n] : BigInteger.ZERO);
+        }
+        // "0" is the lowest pre-release identifier, so every pre-release of the next version is excluded
+        return ModVersion.parse(sb.append("-0").toString());
+    }
+
+    private static IllegalArgumentException invalid(String pattern, String message) {
+        return new IllegalArgumentException("Invalid version constraint '" + pattern + "': " + message);
+    }
+
+    /** A single compiled pattern. */
+    static final class Range extends VersionConstraintMatcher {
+        final String pattern;
+        /** Null if there is no lower bound. */
+        final ModVersion lower;
+        final boolean lowerInclusive;
+        /** Null if there is no upper bound. */
+        final ModVersion upper;
+        final boolean upperInclusive;
+
+        Range(String pattern, ModVersion lower, boolean lowerInclusive, ModVersion upper, boolean upperInclusive) {
+            this.pattern = pattern;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        @Override
+        public boolean matches(ModVersion version) {
+            if (lower != null) {
+                int c = version.compareTo(lower);
+                if (c < 0 || (c == 0 && !lowerInclusive)) {
+                    return false;
+                }
+            }
+            if (upper != null) {
+                int c = version.compareTo(upper);
+                if (c > 0 || (c == 0 && !upperInclusive)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return pattern;
+        }
+    }
+
+    /** Matches if any, or all, of the children match. */
+    static final class Combined extends VersionConstraintMatcher {
+        final boolean any;
+        final VersionConstraintMatcher[] children;
+
+        Combined(boolean any, VersionConstraintMatcher[] children) {
+            this.any = any;
+            this.children = children;
+        }
+
+        @Override
+        public boolean matches(ModVersion version) {
+            for (VersionConstraintMatcher child : children) {
+                if (child.matches(version) == any) {
+                    return any;
+                }
+            }
+            return !any;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(any ? "any[" : "all[");
+            for (int i = 0; i < children.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(children[i]);
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1;
+
+/** A version constraint tree normalized to a sorted list of disjoint intervals, so checking a version is a binary
+ * search no matter how deeply the original constraint was nested. Sets can be intersected and combined, so an
+ * unsatisfiable combination of constraints can be found by checking {@link #isEmpty()}, without needing any candidate
+ * versions.
+ * <p>
+ * Intervals are bounded by {@link ModVersion}s, and {@link ModVersion#compareTo(ModVersion)} is a single total order
+ * over every version (semantic or not), so {@link #contains(ModVersion)} always agrees with
+ * {@link VersionConstraintMatcher#matches(ModVersion)} for the constraint the set came from. */
+public final class VersionIntervalSet {
+
+    private static final Interval[] NO_INTERVALS = new Interval[0];
+
+    /** Contains no versions. */
+    public static final VersionIntervalSet EMPTY = new VersionIntervalSet(NO_INTERVALS);
+
+    /** Contains every version. */
+    public static final VersionIntervalSet ALL = new VersionIntervalSet(
+        new Interval[] { new Interval(null, false, null, false) }
+    );
+
+    private static final Comparator<Interval> BY_LOWER = (a, b) -> compareLower(a, b);
+
+    /** Sorted by their lower bounds, with gaps between every interval. */
+    private final Interval[] intervals;
+
+    private VersionIntervalSet(Interval[] intervals) {
+        this.intervals = intervals;
+    }
+
+    /** Normalizes a version constraint tree.
+     *
+     * @throws IllegalArgumentException if any of the patterns are invalid. */
+    public static VersionIntervalSet of(VersionConstraintV1 constraint) {
+        return of(VersionConstraintMatcher.compile(constraint));
+    }
+
+    /** Normalizes a single pattern, in any of the forms listed in
+     * {@link QuiltModJsonV1.ModConstraintV1.VersionConstraintV1.SingleVersionConstraintV1#version()}.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid. */
+    public static VersionIntervalSet of(String pattern) {
+        return of(VersionConstraintMatcher.compile(pattern));
+    }
+
+    /** Normalizes a compiled constraint. */
+    public static VersionIntervalSet of(VersionConstraintMatcher matcher) {
+        if (matcher instanceof VersionConstraintMatcher.Range) {
+            VersionConstraintMatcher.Range range = (VersionConstraintMatcher.Range) matcher;
+            Interval interval = new Interval(range.lower, range.lowerInclusive, range.upper, range.upperInclusive);
+            return interval.isEmpty() ? EMPTY : new VersionIntervalSet(new Interval[] { interval });
+        }
+
+        VersionConstraintMatcher.Combined combined = (VersionConstraintMatcher.Combined) matcher;
+        if (combined.any) {
+            List<Interval> all = new ArrayList<>();
+            for (VersionConstraintMatcher child : combined.children) {
+                all.addAll(Arrays.asList(of(child).intervals));
+            }
+            return merge(all);
+        } else {
+            VersionIntervalSet result = ALL;
+            for (VersionConstraintMatcher child : combined.children) {
+                result = result.intersection(of(child));
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    /** @return True if the version is in any of the intervals. This is a binary search, and doesn't allocate
+     *         anything. */
+    public boolean contains(ModVersion version) {
+        // Find the last interval which starts at or before the version
+        int low = 0;
+        int high = intervals.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (intervals[mid].startsAtOrBefore(version)) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && intervals[found].endsAtOrAfter(version);
+    }
+
+    /** @return True if this contains no versions, so the constraint it came from can never be satisfied. */
+    public boolean isEmpty() {
+        return intervals.length == 0;
+    }
+
+    /** @return True if this contains every version. */
+    public boolean isAll() {
+        return intervals.length == 1 && intervals[0].lower == null && intervals[0].upper == null;
+    }
+
+    /** @return The number of disjoint intervals. */
+    public int intervalCount() {
+        return intervals.length;
+    }
+
+    /** @return A set containing every version in either this or the other set. */
+    public VersionIntervalSet union(VersionIntervalSet other) {
+        if (isEmpty() || other.isAll()) {
+            return other;
+        }
+        if (other.isEmpty() || isAll()) {
+            return this;
+        }
+        List<Interval> all = new ArrayList<>(intervals.length + other.intervals.length);
+        all.addAll(Arrays.asList(intervals));
+        all.addAll(Arrays.asList(other.intervals));
+        return merge(all);
+    }
+
+    /** @return A set containing only the versions in both this and the other set. */
+    public VersionIntervalSet intersection(VersionIntervalSet other) {
+        if (isEmpty() || other.isAll()) {
+            return this;
+        }
+        if (other.isEmpty() || isAll()) {
+            return other;
+        }
+
+        // Both lists are sorted and disjoint, so the overlaps can be found in a single pass
+        List<Interval> result = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < intervals.length && j < other.intervals.length) {
+            Interval a = intervals[i];
+            Interval b = other.intervals[j];
+            Interval lower = compareLower(a, b) >= 0 ? a : b;
+            int upperOrder = compareUpper(a, b);
+            Interval upper = upperOrder <= 0 ? a : b;
+            Interval overlap = new Interval(lower.lower, lower.lowerInclusive, upper.upper, upper.upperInclusive);
+            if (!overlap.isEmpty()) {
+                result.add(overlap);
+            }
+            if (upperOrder <= 0) {
+                i++;
+            }
+            if (upperOrder >= 0) {
+                j++;
+            }
+        }
+        return result.isEmpty() ? EMPTY : new VersionIntervalSet(result.toArray(NO_INTERVALS));
+    }
+
+    /** Sorts the given intervals, and joins any which overlap or touch. */
+    private static VersionIntervalSet merge(List<Interval> all) {
+        if (all.isEmpty()) {
+            return EMPTY;
+        }
+        all.sort(BY_LOWER);
+        List<Interval> result = new ArrayList<>();
+        Interval current = all.get(0);
+        for (int i = 1; i < all.size(); i++) {
+            Interval next = all.get(i);
+            if (current.joins(next)) {
+                if (compareUpper(next, current) > 0) {
+                    current = new Interval(current.lower, current.lowerInclusive, next.upper, next.upperInclusive);
+                }
+            } else {
+                result.add(current);
+                current = next;
+            }
+        }
+        result.add(current);
+        return new VersionIntervalSet(result.toArray(NO_INTERVALS));
+    }
+
+    /** Orders intervals by where they start. A missing bound starts first, and an inclusive bound starts before an
+     * exclusive bound on the same version. */
+    private static int compareLower(Interval a, Interval b) {
+        if (a.lower == null || b.lower == null) {
+            return Boolean.compare(b.lower == null, a.lower == null);
+        }
+        int c = a.lower.compareTo(b.lower);
+        if (c != 0) {
+            return c;
+        }
+        return Boolean.compare(b.lowerInclusive, a.lowerInclusive);
+    }
+
+    /** Orders intervals by where they end. A missing bound ends last, and an exclusive bound ends before an inclusive
+     * bound on the same version. */
+    private static int compareUpper(Interval a, Interval b) {
+        if (a.upper == null || b.upper == null) {
+            return Boolean.compare(a.upper == null, b.upper == null);
+        }
+        int c = a.upper.compareTo(b.upper);
+        if (c != 0) {
+            return c;
+        }
+        return Boolean.compare(a.upperInclusive, b.upperInclusive);
+    }
+
+    @Override
+    public String toString() {
+        if (intervals.length == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < intervals.length; i++) {
+            if (i > 0) {
+                sb.append(" | ");
+            }
+            Interval interval = intervals[i];
+            sb.append(interval.lowerInclusive ? '[' : '(');
+            sb.append(interval.lower == null ? "*" : interval.lower.raw());
+            sb.append(", ");
+            sb.append(interval.upper == null ? "*" : interval.upper.raw());
+            sb.append(interval.upperInclusive ? ']' : ')');
+        }
+        return sb.toString();
+    }
+
+    private static final class Interval {
+        /** Null if there is no lower bound. */
+        final ModVersion lower;
+        final boolean lowerInclusive;
+        /** Null if there is no upper bound. */
+        final ModVersion upper;
+        final boolean upperInclusive;
+
+        Interval(ModVersion lower, boolean lowerInclusive, ModVersion upper, boolean upperInclusive) {
+            this.lower = lower;
+            this.lowerInclusive = lower != null && lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upper != null && upperInclusive;
+        }
+
+        boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            int c = lower.compareTo(upper);
+            return c > 0 || (c == 0 && !(lowerInclusive && upperInclusive));
+        }
+
+        boolean startsAtOrBefore(ModVersion version) {
+            if (lower == null) {
+                return true;
+            }
+            int c = lower.compareTo(version);
+            return c < 0 || (c == 0 && lowerInclusive);
+        }
+
+        boolean endsAtOrAfter(ModVersion version) {
+            if (upper == null) {
+                return true;
+            }
+            int c = upper.compareTo(version);
+            return c > 0 || (c == 0 && upperInclusive);
+        }
+
+        /** @param next An interval which doesn't start before this one.
+         * @return True if the next interval overlaps or touches this one, so they can be joined into one interval. */
+        boolean joins(Interval next) {
+            if (upper == null || next.lower == null) {
+                return true;
+            }
+            int c = next.lower.compareTo(upper);
+            return c < 0 || (c == 0 && (next.lowerInclusive || upperInclusive));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObjectBuilder;
+
+class BinaryModJsonTest {
+
+    private static final String JSON = "{\n  \"a\": [1, 2.5, \"three\", true, null],\n"
+        + "  \"b\": {\"c\": {}, \"d\": []}\n}";
+
+    /** @return A binary value with no locations and a single string "abc" in its table, followed by the given bytes. */
+    private static ByteBuffer binary(int... value) {
+        byte[] header = { 'Q', 'M', 'J', 'B', BinaryModJson.FORMAT_VERSION, 0, 0, 1, 3, 'a', 'b', 'c' };
+        byte[] bytes = new byte[header.length + value.length];
+        System.arraycopy(header, 0, bytes, 0, header.length);
+        for (int i = 0; i < value.length; i++) {
+            bytes[header.length + i] = (byte) value[i];
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static void collect(CustomJsonValue value, List<CustomJsonValue> into) {
+        into.add(value);
+        if (value instanceof CustomJsonObject) {
+            for (Map.Entry<String, CustomJsonValue> entry : ((CustomJsonObject) value).entrySet()) {
+                collect(entry.getValue(), into);
+            }
+        } else if (value instanceof CustomJsonArray) {
+            for (CustomJsonValue element : (CustomJsonArray) value) {
+                collect(element, into);
+            }
+        }
+    }
+
+    @Test
+    void locationsRoundTrip() throws Exception {
+        CustomJsonValue original = CustomJsonValue.read("test.json", JSON);
+        CustomJsonValue read = BinaryModJson.readValue(ByteBuffer.wrap(BinaryModJson.write(original, true)));
+        assertEquals(original, read);
+
+        List<CustomJsonValue> before = new ArrayList<>();
+        List<CustomJsonValue> after = new ArrayList<>();
+        collect(original, before);
+        collect(read, after);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).location(), after.get(i).location());
+        }
+    }
+
+    @Test
+    void malformedNumbersAndIndicesAreCorrupt() throws Exception {
+        assertEquals(CustomJsonValue.createString("abc"), BinaryModJson.readValue(binary(3, 0)));
+
+        // "abc" isn't a number
+        IOException bigInteger = assertThrows(IOException.class, () -> BinaryModJson.readValue(binary(8, 0)));
+        assertEquals(NumberFormatException.class, bigInteger.getCause().getClass());
+        IOException bigDecimal = assertThrows(IOException.class, () -> BinaryModJson.readValue(binary(9, 0)));
+        assertEquals(NumberFormatException.class, bigDecimal.getCause().getClass());
+
+        // String indices past the end of the table, and a negative one
+        assertThrows(IOException.class, () -> BinaryModJson.readValue(binary(3, 1)));
+        assertThrows(IOException.class, () -> BinaryModJson.readValue(binary(11, 1, 5, 0)));
+        assertThrows(IOException.class, () -> BinaryModJson.readValue(binary(3, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F)));
+    }
+
+    @Test
+    void corruptBytesOnlyThrowIOException() throws Exception {
+        CustomJsonObjectBuilder builder = new CustomJsonObjectBuilder();
+        builder.put("big", new BigInteger("123456789012345678901234567890"));
+        builder.put("decimal", new BigDecimal("1.25"));
+        builder.put("list", CustomJsonValue.read("test.json", "[\"x\", {\"y\": null}, 2.5]"));
+        byte[] valid = BinaryModJson.write(builder.build(), true);
+        int[] replacements = { 0, 1, 3, 8, 9, 10, 11, 0x7F, 0x80, 0xFF };
+        for (int i = 0; i < valid.length; i++) {
+            for (int replacement : replacements) {
+                byte[] corrupt = valid.clone();
+                corrupt[i] = (byte) replacement;
+                try {
+                    BinaryModJson.readValue(ByteBuffer.wrap(corrupt));
+                } catch (IOException e) {
+                    // Expected for most replacements
+                } catch (RuntimeException e) {
+                    throw new AssertionError("byte " + i + " set to " + replacement, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointContainerV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalProvidesV1;
+
+/** Checks that the memoised {@link JsonWritable#toJson()} and compact bytes of the Final types are stable, and agree
+ * with each other. */
+class CachedJsonTest {
+
+    private static final String JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\", \"provides\": [\"other\", {\"id\": \"versioned\","
+        + " \"version\": \"2.0.0\"}], \"entrypoints\": {\"main\": [\"org.example.Main\", {\"adapter\": \"kotlin\","
+        + " \"value\": \"org.example.KotlinMain\"}]}}, \"extra\": {\"list\": [1, true, null]}}";
+
+    private static FinalQuiltModJsonV1 read() throws Exception {
+        return FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("quilt.mod.json", JSON));
+    }
+
+    private static byte[] bytes(IOConsumer write) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write.accept(out);
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface IOConsumer {
+        void accept(ByteArrayOutputStream out) throws IOException;
+    }
+
+    @Test
+    void toJsonIsOnlyBuiltOnce() throws Exception {
+        FinalQuiltModJsonV1 mod = read();
+        assertSame(mod.toJson(), mod.toJson());
+        assertArrayEquals(
+            FinalQuiltModJsonV1.toCompactUtf8(CustomJsonValue.read("quilt.mod.json", JSON)),
+            FinalQuiltModJsonV1.toCompactUtf8(mod.toJson())
+        );
+
+        for (FinalProvidesV1 provides : mod.provides()) {
+            assertSame(provides.toJson(), provides.toJson());
+        }
+        FinalEntrypointContainerV1 entrypoints = mod.entrypoints();
+        assertSame(entrypoints.toJson(), entrypoints.toJson());
+        for (FinalEntrypointV1 entrypoint : entrypoints.get("main")) {
+            assertSame(entrypoint.toJson(), entrypoint.toJson());
+        }
+    }
+
+    @Test
+    void cachedBytesMatchToJson() throws Exception {
+        FinalQuiltModJsonV1 mod = read();
+        byte[] expected = FinalQuiltModJsonV1.toCompactUtf8(mod.toJson());
+        byte[] first = bytes(mod::write);
+        assertArrayEquals(expected, first);
+        assertArrayEquals(first, bytes(mod::write));
+        assertEquals(mod, QuiltModJson.read(ByteBuffer.wrap(first)));
+
+        for (FinalProvidesV1 provides : mod.provides()) {
+            assertArrayEquals(FinalQuiltModJsonV1.toCompactUtf8(provides.toJson()), bytes(provides::write));
+        }
+        FinalEntrypointContainerV1 entrypoints = mod.entrypoints();
+        assertArrayEquals(FinalQuiltModJsonV1.toCompactUtf8(entrypoints.toJson()), bytes(entrypoints::write));
+        for (FinalEntrypointV1 entrypoint : entrypoints.get("main")) {
+            assertArrayEquals(FinalQuiltModJsonV1.toCompactUtf8(entrypoint.toJson()), bytes(entrypoint::write));
+        }
+    }
+
+    @Test
+    void concurrentCallsAgree() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                FinalQuiltModJsonV1 mod = read();
+                List<Callable<byte[]>> tasks = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    tasks.add(() -> bytes(mod::write));
+                    tasks.add(() -> FinalQuiltModJsonV1.toCompactUtf8(mod.toJson()));
+                }
+                byte[] expected = null;
+                for (Future<byte[]> future : executor.invokeAll(tasks)) {
+                    if (expected == null) {
+                        expected = future.get();
+                    } else {
+                        assertArrayEquals(expected, future.get());
+                    }
+                }
+                // However many threads raced to build it, one value is kept from now on
+                assertSame(mod.toJson(), mod.toJson());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
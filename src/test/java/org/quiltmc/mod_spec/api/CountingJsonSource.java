@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.quiltmc.parsers.json.JsonReader;
+
+/** A source which counts how many times a location has been described, to check that locations are only described
+ * when they're needed. */
+final class CountingJsonSource extends JsonSource {
+    final String text;
+    final JsonSource table;
+    int described;
+
+    CountingJsonSource(String text) {
+        this.text = text;
+        this.table = JsonSource.ofText("counted.json", text);
+    }
+
+    /** @return The value read from the text, using this as its source. */
+    CustomJsonValue read() throws IOException {
+        try (JsonReader reader = JsonReader.json(new StringReader(text))) {
+            return new CustomJsonReader(reader, this, JsonReadLimits.DEFAULT).read();
+        }
+    }
+
+    @Override
+    String describe(long position) {
+        described++;
+        return table.describe(position);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArrayBuilder;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObjectBuilder;
+
+/** Checks that adopting factories don't copy, and that builders never modify arrays adopted by a built value. */
+class CustomJsonBuilderTest {
+
+    private static CustomJsonValue number(int value) {
+        return CustomJsonValue.createNumber(value);
+    }
+
+    @Test
+    void adoptKeepsTheGivenArrays() {
+        String[] keys = { "a", "b", null };
+        CustomJsonValue[] values = { number(1), number(2), null };
+        CustomObject object = CustomObject.adopt(JsonSource.CREATED_THROUGH_CODE, 0, keys, values, 2);
+        assertSame(keys, object.keys);
+        assertSame(values, object.values);
+        assertEquals(2, object.size());
+
+        CustomArray array = CustomArray.adopt(JsonSource.CREATED_THROUGH_CODE, 0, values, 2);
+        assertSame(values, array.values);
+        assertEquals(Arrays.asList(number(1), number(2)), array);
+    }
+
+    @Test
+    void createCopiesTheGivenCollections() {
+        Map<String, CustomJsonValue> map = new LinkedHashMap<>();
+        map.put("a", number(1));
+        CustomJsonObject object = CustomJsonValue.createObject(map);
+        map.put("b", number(2));
+        assertEquals(1, object.size());
+
+        List<CustomJsonValue> list = new ArrayList<>();
+        list.add(number(1));
+        CustomJsonArray array = CustomJsonValue.createArray(list);
+        list.add(number(2));
+        assertEquals(1, array.size());
+    }
+
+    @Test
+    void objectBuilderCopiesOnlyAfterBuilding() {
+        CustomJsonObjectBuilder builder = new CustomJsonObjectBuilder();
+        builder.put("a", 1);
+        builder.put("b", 2);
+        builder.put("a", 3);
+        CustomObject first = (CustomObject) builder.build();
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(first.keySet()));
+        assertEquals(number(3), first.get("a"));
+
+        // Building again without changes shares the same arrays
+        CustomObject again = (CustomObject) builder.build();
+        assertSame(first.keys, again.keys);
+        assertEquals(first, again);
+
+        // Replacing "b" moves the new value down over the old one when built, which mustn't affect the first object
+        builder.put("b", 4);
+        CustomObject second = (CustomObject) builder.build();
+        assertEquals(number(2), first.get("b"));
+        assertEquals(number(4), second.get("b"));
+
+        for (int i = 0; i < 10; i++) {
+            builder.put("key" + i, i);
+        }
+        CustomObject third = (CustomObject) builder.build();
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(first.keySet()));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(second.keySet()));
+        assertEquals(12, third.size());
+        assertEquals(number(3), third.get("a"));
+        assertEquals(number(9), third.get("key9"));
+    }
+
+    @Test
+    void arrayBuilderCopiesOnlyAfterBuilding() {
+        CustomJsonArrayBuilder builder = new CustomJsonArrayBuilder();
+        builder.add(1);
+        builder.add("two");
+        CustomArray first = (CustomArray) builder.build();
+        assertEquals(Arrays.asList(number(1), CustomJsonValue.createString("two")), first);
+
+        CustomArray again = (CustomArray) builder.build();
+        assertSame(first.values, again.values);
+
+        for (int i = 0; i < 10; i++) {
+            builder.add(i);
+        }
+        CustomArray second = (CustomArray) builder.build();
+        assertEquals(2, first.size());
+        assertEquals(Arrays.asList(number(1), CustomJsonValue.createString("two")), first);
+        assertEquals(12, second.size());
+        assertEquals(number(9), second.get(11));
+    }
+}
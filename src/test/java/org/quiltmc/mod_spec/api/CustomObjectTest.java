@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CustomObjectTest {
+
+    private static final int[] SIZES = { 0, 1, 2, CustomObject.HASH_THRESHOLD, CustomObject.HASH_THRESHOLD + 1, 100 };
+
+    private static Map<String, CustomJsonValue> entries(int size) {
+        Map<String, CustomJsonValue> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            // Reverse order, so insertion order isn't the same as sorted or hashed order
+            map.put("key" + (size - i), CustomJsonValue.createNumber(i));
+        }
+        return map;
+    }
+
+    @Test
+    void behavesLikeAnInsertionOrderedMap() {
+        for (int size : SIZES) {
+            Map<String, CustomJsonValue> expected = entries(size);
+            CustomObject object = CustomObject.copyOf(JsonSource.CREATED_THROUGH_CODE, 0, expected);
+
+            assertEquals(size, object.size());
+            assertEquals(size == 0, object.isEmpty());
+            assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(object.entrySet()));
+            assertEquals(expected, object);
+            assertEquals(object, expected);
+            assertEquals(expected.hashCode(), object.hashCode());
+
+            for (Map.Entry<String, CustomJsonValue> entry : expected.entrySet()) {
+                // Equal but not identical keys must still be found
+                String key = new String(entry.getKey());
+                assertTrue(object.containsKey(key), key);
+                assertSame(entry.getValue(), object.get(key));
+            }
+            assertFalse(object.containsKey("missing"));
+            assertNull(object.get("missing"));
+            assertNull(object.get(1));
+        }
+    }
+
+    @Test
+    void onlyLargeObjectsAreHashed() {
+        for (int size : SIZES) {
+            CustomObject object = CustomObject.copyOf(JsonSource.CREATED_THROUGH_CODE, 0, entries(size));
+            if (size <= CustomObject.HASH_THRESHOLD) {
+                assertNull(object.table, "size " + size);
+            } else {
+                assertNotNull(object.table, "size " + size);
+                // At most half full, so probing always finds an empty slot
+                assertTrue(object.table.length >= size * 2, "size " + size);
+            }
+        }
+    }
+
+    @Test
+    void smallObjectsInternTheirKeys() {
+        String key = new String("id");
+        CustomJsonValue[] values = { CustomJsonValue.createNull() };
+        CustomObject object = CustomObject.adopt(JsonSource.CREATED_THROUGH_CODE, 0, new String[] { key }, values, 1);
+        assertSame("id", object.keys[0]);
+    }
+
+    @Test
+    void duplicateKeysKeepTheFirstPositionAndTheLastValue() {
+        for (int size : SIZES) {
+            int total = size + 2;
+            String[] keys = new String[total];
+            CustomJsonValue[] values = new CustomJsonValue[total];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "key" + i;
+                values[i] = CustomJsonValue.createNumber(i);
+            }
+            keys[size] = "first";
+            values[size] = CustomJsonValue.createString("replaced");
+            keys[size + 1] = size == 0 ? "first" : "key0";
+            values[size + 1] = CustomJsonValue.createString("last");
+
+            Map<String, CustomJsonValue> expected = new LinkedHashMap<>();
+            for (int i = 0; i < total; i++) {
+                expected.put(keys[i], values[i]);
+            }
+
+            CustomObject object = CustomObject.adopt(JsonSource.CREATED_THROUGH_CODE, 0, keys, values, total);
+            assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(object.entrySet()), "size " + size);
+            assertEquals(expected.hashCode(), object.hashCode());
+        }
+    }
+
+    @Test
+    void collidingKeysAreBothFound() {
+        // "Aa" and "BB" have the same String.hashCode()
+        Map<String, CustomJsonValue> map = entries(CustomObject.HASH_THRESHOLD + 1);
+        map.put("Aa", CustomJsonValue.createString("Aa"));
+        map.put("BB", CustomJsonValue.createString("BB"));
+        CustomObject object = CustomObject.copyOf(JsonSource.CREATED_THROUGH_CODE, 0, map);
+        assertNotNull(object.table);
+        assertEquals(CustomJsonValue.createString("Aa"), object.get("Aa"));
+        assertEquals(CustomJsonValue.createString("BB"), object.get("BB"));
+        assertNull(object.get("C#"));
+    }
+
+    @Test
+    void equalityIgnoresLayout() {
+        List<Map<String, CustomJsonValue>> maps = new ArrayList<>();
+        for (int size : SIZES) {
+            maps.add(entries(size));
+        }
+        for (Map<String, CustomJsonValue> map : maps) {
+            Map<String, CustomJsonValue> reversed = new LinkedHashMap<>();
+            List<String> keys = new ArrayList<>(map.keySet());
+            for (int i = keys.size() - 1; i >= 0; i--) {
+                reversed.put(keys.get(i), map.get(keys.get(i)));
+            }
+            CustomObject a = CustomObject.copyOf(JsonSource.CREATED_THROUGH_CODE, 0, map);
+            CustomObject b = CustomObject.copyOf(JsonSource.fixed("elsewhere"), 0, reversed);
+            assertEquals(a, b);
+            assertEquals(a.hashCode(), b.hashCode());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.InvalidValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.parsers.json.JsonReader;
+
+class ErrorBuilderTest {
+
+    /** Three values of the wrong type, in the order they're found. */
+    private static final String INVALID = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": 1, \"id\": 2,"
+        + " \"version\": 3}}";
+
+    /** Appends problems until the builder stops.
+     * 
+     * @return The number of problems which were appended without stopping. */
+    private static int appendUntilStopped(ErrorBuilder errors, int limit) {
+        for (int i = 0; i < limit; i++) {
+            try {
+                errors.appendInvalidValue("value" + i, CustomJsonValue.createString("invalid"), "[TODO:TEST]");
+            } catch (ErrorBuilder.StopException e) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static List<String> names(List<ModJsonProblem> problems) {
+        List<String> names = new ArrayList<>();
+        for (ModJsonProblem problem : problems) {
+            if (problem instanceof InvalidValueProblem) {
+                names.add(((InvalidValueProblem) problem).valueName());
+            } else {
+                names.add(((WrongTypeProblem) problem).valueName());
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void collectAllNeverStops() {
+        ErrorBuilder errors = new ErrorBuilder(ModJsonErrorPolicy.COLLECT_ALL);
+        assertEquals(100, appendUntilStopped(errors, 100));
+        assertEquals(100, errors.build().problems().size());
+    }
+
+    @Test
+    void firstErrorStopsAtTheFirstProblem() {
+        ErrorBuilder errors = new ErrorBuilder(ModJsonErrorPolicy.FIRST_ERROR);
+        assertEquals(0, appendUntilStopped(errors, 100));
+        assertEquals(List.of("value0"), names(errors.build().problems()));
+    }
+
+    @Test
+    void stopAfterKeepsEveryProblemBeforeTheStop() {
+        ErrorBuilder errors = new ErrorBuilder(ModJsonErrorPolicy.stopAfter(3));
+        assertEquals(2, appendUntilStopped(errors, 100));
+        assertEquals(List.of("value0", "value1", "value2"), names(errors.build().problems()));
+    }
+
+    @Test
+    void noProblemsBuildsNothing() {
+        ErrorBuilder errors = new ErrorBuilder(ModJsonErrorPolicy.FIRST_ERROR);
+        assertNull(errors.build());
+    }
+
+    @Test
+    void stopAfterReusesTheConstants() {
+        assertSame(ModJsonErrorPolicy.FIRST_ERROR, ModJsonErrorPolicy.stopAfter(1));
+        assertSame(ModJsonErrorPolicy.COLLECT_ALL, ModJsonErrorPolicy.stopAfter(Integer.MAX_VALUE));
+        assertEquals(5, ModJsonErrorPolicy.stopAfter(5).maxProblems());
+        assertThrows(IllegalArgumentException.class, () -> ModJsonErrorPolicy.stopAfter(0));
+    }
+
+    @Test
+    void readingStopsWhereThePolicySays() throws Exception {
+        CustomJsonObject json = (CustomJsonObject) CustomJsonValue.read("quilt.mod.json", INVALID);
+        List<ModJsonProblem> all = assertThrows(
+            InvalidModJsonException.class, () -> FinalQuiltModJsonV1.from(json)
+        ).problems();
+        assertEquals(List.of("group", "id", "version"), names(all));
+
+        for (int max = 1; max <= 4; max++) {
+            ModJsonErrorPolicy policy = ModJsonErrorPolicy.stopAfter(max);
+            List<ModJsonProblem> expected = all.subList(0, Math.min(max, all.size()));
+
+            List<ModJsonProblem> from = assertThrows(
+                InvalidModJsonException.class, () -> FinalQuiltModJsonV1.from(json, policy)
+            ).problems();
+            assertEquals(names(expected), names(from), "from with " + policy);
+
+            try (JsonReader reader = JsonReader.json(new StringReader(INVALID))) {
+                List<ModJsonProblem> read = assertThrows(
+                    InvalidModJsonException.class, () -> FinalQuiltModJsonV1.read(reader, policy)
+                ).problems();
+                assertEquals(names(expected), names(read), "read with " + policy);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.InvalidValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.MissingValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.parsers.json.JsonReader;
+
+/** Checks that {@link FinalQuiltModJsonV1#read(JsonReader)} and {@link FinalQuiltModJsonV1#from(CustomJsonObject)}
+ * report the same problems. */
+class FinalQuiltModJsonV1ReadTest {
+
+    private static String modJson(String loader) {
+        return "{\"schema_version\": 1, \"quilt_loader\": {" + loader + "}}";
+    }
+
+    private static List<ModJsonProblem> readProblems(String json) throws Exception {
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            InvalidModJsonException e = assertThrows(
+                InvalidModJsonException.class, () -> FinalQuiltModJsonV1.read(reader)
+            );
+            return e.problems();
+        }
+    }
+
+    private static List<ModJsonProblem> fromProblems(String json) throws Exception {
+        CustomJsonObject obj = (CustomJsonObject) CustomJsonValue.read("quilt.mod.json", json);
+        InvalidModJsonException e = assertThrows(InvalidModJsonException.class, () -> FinalQuiltModJsonV1.from(obj));
+        return e.problems();
+    }
+
+    private static void assertBothReport(String json, Class<?>... expected) throws Exception {
+        for (List<ModJsonProblem> problems : List.of(readProblems(json), fromProblems(json))) {
+            assertEquals(expected.length, problems.size(), "problems: " + problems);
+            for (int i = 0; i < expected.length; i++) {
+                assertTrue(expected[i].isInstance(problems.get(i)), "problem " + i + ": " + problems.get(i));
+            }
+        }
+    }
+
+    @Test
+    void validFileHasNoProblems() throws Exception {
+        String json = modJson("\"group\": \"org.example\", \"id\": \"example\", \"version\": \"1.0.0\"");
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            assertNotNull(FinalQuiltModJsonV1.read(reader));
+        }
+        assertNotNull(FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read(null, json)));
+    }
+
+    @Test
+    void wrongTypesAreReportedOnce() throws Exception {
+        assertBothReport(
+            modJson("\"group\": 1, \"id\": \"example\", \"version\": \"1.0.0\""), WrongTypeProblem.class
+        );
+        assertBothReport(
+            modJson("\"group\": \"org.example\", \"id\": [], \"version\": \"1.0.0\""), WrongTypeProblem.class
+        );
+        assertBothReport(
+            modJson("\"group\": \"org.example\", \"id\": \"example\", \"version\": false"), WrongTypeProblem.class
+        );
+    }
+
+    @Test
+    void invalidProvidesIdsAreReported() throws Exception {
+        String prefix = "\"group\": \"org.example\", \"id\": \"example\", \"version\": \"1.0.0\", ";
+        assertBothReport(modJson(prefix + "\"provides\": [\"Bad Id!\"]"), InvalidValueProblem.class);
+        assertBothReport(modJson(prefix + "\"provides\": [{\"id\": \"Bad Id!\"}]"), InvalidValueProblem.class);
+        assertBothReport(modJson(prefix + "\"provides\": [{\"id\": 5}]"), WrongTypeProblem.class);
+    }
+
+    private static String rootLocation(String json) throws Exception {
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            reader.peek();
+            return reader.locationString();
+        }
+    }
+
+    @Test
+    void streamedLocationsAreDescribedAsPaths() throws Exception {
+        String prefix = "\"group\": \"org.example\", \"id\": \"example\", \"version\": \"1.0.0\", ";
+        String json = modJson(
+            prefix + "\"provides\": [\"other\", {\"version\": \"1.0.0\"}],"
+                + " \"entrypoints\": {\"main\": [\"org.example.Main\", {\"adapter\": \"kotlin\"}]}"
+        );
+        String root = rootLocation(json);
+
+        List<ModJsonProblem> problems = readProblems(json);
+        assertEquals(2, problems.size(), "problems: " + problems);
+        assertEquals(root + ".quilt_loader.provides[1]", ((MissingValueProblem) problems.get(0)).location());
+        assertEquals(root + ".quilt_loader.entrypoints.main[1]", ((MissingValueProblem) problems.get(1)).location());
+    }
+
+    @Test
+    void streamedValuesKeepTheirLocations() throws Exception {
+        String prefix = "\"group\": \"org.example\", \"id\": \"example\", \"version\": \"1.0.0\", ";
+        String json = modJson(prefix + "\"provides\": [\"other\", {\"id\": \"another\"}]");
+        FinalQuiltModJsonV1 read;
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            read = FinalQuiltModJsonV1.read(reader);
+        }
+        String root = rootLocation(json);
+        assertEquals(root, read.source.location());
+        assertTrue(read.provides().get(0).source instanceof CustomJsonString);
+        assertEquals(root + ".quilt_loader.provides[0]", read.provides().get(0).source.location());
+        assertTrue(read.provides().get(1).source instanceof CustomJsonObject);
+        assertEquals(root + ".quilt_loader.provides[1]", read.provides().get(1).source.location());
+    }
+
+    @Test
+    void invalidProvidesIdsAreRejectedByOf() {
+        assertThrows(InvalidModJsonException.class, () -> FinalQuiltModJsonV1.FinalProvidesV1.of("Bad Id!", null));
+    }
+}
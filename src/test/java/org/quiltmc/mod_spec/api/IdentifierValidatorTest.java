@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/** Checks that {@link IdentifierValidator} agrees with the regular expressions in {@link QuiltModJsonV1}. */
+class IdentifierValidatorTest {
+
+    /** Characters which are interesting to the validators, plus a few which are never valid. */
+    private static final String ALPHABET = "azAZ09-_.:! \né";
+
+    private static void check(Pattern pattern, ToIntFunction<String> validator, String value) {
+        boolean matches = pattern.matcher(value).matches();
+        int invalid = validator.applyAsInt(value);
+        assertEquals(
+            matches, invalid < 0, "'" + value + "' matches " + matches + ", but the validator returned " + invalid
+        );
+        if (!matches) {
+            assertTrue(invalid <= value.length(), "'" + value + "' invalid index " + invalid + " is out of range");
+        }
+    }
+
+    private static void checkAll(String value) {
+        check(QuiltModJsonV1.ID_PATTERN, IdentifierValidator::indexOfInvalidId, value);
+        check(QuiltModJsonV1.GROUP_PATTERN, IdentifierValidator::indexOfInvalidGroup, value);
+        check(
+            QuiltModJsonV1.INTERMEDIATE_MAPPINGS_PATTERN, IdentifierValidator::indexOfInvalidIntermediateMappings, value
+        );
+    }
+
+    @Test
+    void everyAsciiStringUpToLengthTwo() {
+        checkAll("");
+        for (char a = 0; a < 128; a++) {
+            checkAll(String.valueOf(a));
+            for (char b = 0; b < 128; b++) {
+                checkAll(new String(new char[] { a, b }));
+            }
+        }
+    }
+
+    @Test
+    void everyShortStringOverInterestingCharacters() {
+        int n = ALPHABET.length();
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                for (int c = 0; c < n; c++) {
+                    for (int d = 0; d < n; d++) {
+                        checkAll(new String(new char[] {
+                            ALPHABET.charAt(a), ALPHABET.charAt(b), ALPHABET.charAt(c), ALPHABET.charAt(d) }));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomStringsAroundTheLengthLimits() {
+        Random random = new Random(20);
+        int[] lengths = { 1, 2, 3, 63, 64, 65, 66, 128 };
+        for (int length : lengths) {
+            for (int i = 0; i < 20_000; i++) {
+                char[] chars = new char[length];
+                // Mostly valid characters, so that long strings can still match
+                boolean mostlyValid = random.nextBoolean();
+                for (int j = 0; j < length; j++) {
+                    if (mostlyValid && random.nextInt(length * 2) != 0) {
+                        chars[j] = "abcxyz0189-_".charAt(random.nextInt(12));
+                    } else {
+                        chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                    }
+                }
+                checkAll(new String(chars));
+            }
+        }
+    }
+
+    @Test
+    void idLengthBoundaries() {
+        assertEquals(1, IdentifierValidator.indexOfInvalidId("a"));
+        assertEquals(-1, IdentifierValidator.indexOfInvalidId("ab"));
+        assertEquals(-1, IdentifierValidator.indexOfInvalidId(repeat('a', 64)));
+        assertEquals(64, IdentifierValidator.indexOfInvalidId(repeat('a', 65)));
+        assertEquals(0, IdentifierValidator.indexOfInvalidId(""));
+        assertEquals(3, IdentifierValidator.indexOfInvalidId("bad Id"));
+    }
+
+    @Test
+    void invalidIndexes() {
+        assertEquals(3, IdentifierValidator.indexOfInvalidGroup("org example"));
+        assertEquals(0, IdentifierValidator.indexOfInvalidGroup(""));
+        assertEquals(7, IdentifierValidator.indexOfInvalidIntermediateMappings("net.fab"));
+        assertEquals(0, IdentifierValidator.indexOfInvalidIntermediateMappings(":intermediary"));
+        assertEquals(8, IdentifierValidator.indexOfInvalidIntermediateMappings("net.fab:"));
+        assertEquals(-1, IdentifierValidator.indexOfInvalidIntermediateMappings("net.fabricmc:intermediary"));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.JsonWriter;
+
+class JsonFingerprintTest {
+
+    private static final String MOD_JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\", \"provides\": [\"other\", {\"id\": \"third\"}],"
+        + " \"entrypoints\": {\"init\": \"org.example.Init\", \"client\": [\"org.example.A\"]}},"
+        + " \"custom\": {\"a\": [1, 2.5, -0.0, 0.1, 1e300, null, true], \"b\": {\"d\": \"x\", \"c\": {}}}}";
+
+    /** Writes the given json text without ever building a tree, so only the streaming path can hash it. */
+    private static final class StreamOnly implements JsonWritable {
+        private final CustomJsonValue json;
+
+        StreamOnly(String text) throws Exception {
+            this.json = CustomJsonValue.read("test", text);
+        }
+
+        @Override
+        public CustomJsonValue toJson() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            json.write(writer);
+        }
+    }
+
+    private static byte[] of(JsonWritable value) {
+        return JsonFingerprint.of(value, JsonFingerprint.sha256());
+    }
+
+    private static byte[] number(Number number) {
+        return of(CustomJsonValue.createNumber(number));
+    }
+
+    private static void assertSameAsTree(String text) throws Exception {
+        assertArrayEquals(of(CustomJsonValue.read("test", text)), of(new StreamOnly(text)), text);
+    }
+
+    @Test
+    void streamedMatchesTree() throws Exception {
+        FinalQuiltModJsonV1 mod = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("test", MOD_JSON));
+        assertArrayEquals(of(mod.toJson()), of(mod));
+        assertArrayEquals(JsonFingerprint.of(mod.toJson(), JsonFingerprint.murmur3_128()),
+            JsonFingerprint.of(mod, JsonFingerprint.murmur3_128()));
+
+        assertSameAsTree(MOD_JSON);
+        assertSameAsTree("[]");
+        assertSameAsTree("{}");
+        assertSameAsTree("\"\"");
+        assertSameAsTree("{\"b\": 1, \"a\": [{\"d\": 2, \"c\": 3}, {}], \"\": null}");
+    }
+
+    @Test
+    void streamedEscapesAndLiterals() throws Exception {
+        // Escaped quotes and punctuation inside strings mustn't end them, or be taken for the start of a value
+        assertSameAsTree("{\"a\\\"b\": \"x\\\\y\\n\\u00e9,}]:\", \"\\u0001\": [\"\\t{\", \"[\"], \"c\": \"\"}");
+        // Top level literals have nothing after them to end them
+        assertSameAsTree("1");
+        assertSameAsTree("-2.5e-3");
+        assertSameAsTree("true");
+        assertSameAsTree("false");
+        assertSameAsTree("null");
+        assertSameAsTree("[true, false, null, 1, -1, 1e300]");
+    }
+
+    @Test
+    void streamedLargeObjects() throws Exception {
+        // Bigger than the buffer, so sorting the entries has to grow it
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 200; i > 0; i--) {
+            text.append(i == 200 ? "" : ", ").append("\"key").append(i).append("\": {\"value\": ").append(i)
+                .append(", \"nested\": [\"").append(i).append("\"]}");
+        }
+        assertSameAsTree(text.append("}").toString());
+    }
+
+    @Test
+    void keyOrderIsIgnored() throws Exception {
+        assertArrayEquals(of(CustomJsonValue.read("a", "{\"a\": 1, \"b\": [2]}")),
+            of(CustomJsonValue.read("b", "{\"b\": [2], \"a\": 1}")));
+        assertArrayEquals(of(new StreamOnly("{\"a\": 1, \"b\": [2]}")), of(new StreamOnly("{\"b\": [2], \"a\": 1}")));
+    }
+
+    @Test
+    void zerosAreEqual() {
+        byte[] zero = number(0);
+        assertArrayEquals(zero, number(-0.0));
+        assertArrayEquals(zero, number(0.0));
+        assertArrayEquals(zero, number(-0.0f));
+        assertArrayEquals(zero, number(new BigDecimal("-0.0")));
+        assertArrayEquals(zero, number(BigInteger.ZERO));
+    }
+
+    @Test
+    void equalNumbersAreEqual() throws Exception {
+        assertArrayEquals(number(1), number(1.0));
+        assertArrayEquals(number(1), number(new BigDecimal("1e0")));
+        assertArrayEquals(number(0.1), number(new BigDecimal("0.1")));
+        assertArrayEquals(number(2.5), number(new BigDecimal("2.50")));
+        assertArrayEquals(number(1e300), number(new BigDecimal("1e300")));
+        assertArrayEquals(number(1e20), number(new BigInteger("100000000000000000000")));
+        assertArrayEquals(number(Long.MIN_VALUE), number((double) Long.MIN_VALUE));
+        assertArrayEquals(of(CustomJsonValue.read("test", "[0.10, -0.0]")), of(new StreamOnly("[0.1, 0]")));
+    }
+
+    @Test
+    void differentValuesAreDifferent() throws Exception {
+        assertFalse(Arrays.equals(number(1), number(2)));
+        assertFalse(Arrays.equals(number(0.1), number(0.10000000000000002)));
+        assertFalse(Arrays.equals(number(Long.MAX_VALUE), number((double) Long.MAX_VALUE)));
+        assertFalse(Arrays.equals(number(1), of(CustomJsonValue.createString("1"))));
+        assertFalse(Arrays.equals(of(CustomJsonValue.read("test", "[[]]")), of(CustomJsonValue.read("test", "[{}]"))));
+        assertFalse(Arrays.equals(of(new StreamOnly("{\"a\": 1}")), of(new StreamOnly("{\"a\": 2}"))));
+    }
+
+    @Test
+    void rejectsNaN() {
+        assertThrows(IllegalArgumentException.class, () -> number(Double.NaN));
+    }
+}
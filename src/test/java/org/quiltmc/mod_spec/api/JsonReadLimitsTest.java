@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.ParseException;
+
+/** Checks that {@link CustomJsonReader} enforces each of the {@link JsonReadLimits}, and doesn't recurse. */
+class JsonReadLimitsTest {
+
+    private static CustomJsonValue read(String json, JsonReadLimits limits) throws Exception {
+        try (JsonReader reader = JsonReader.json(new StringReader(json))) {
+            return CustomJsonValue.read(reader, limits);
+        }
+    }
+
+    private static String nested(int depth) {
+        StringBuilder sb = new StringBuilder(depth * 2);
+        for (int i = 0; i < depth; i++) {
+            sb.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void depthIsLimited() throws Exception {
+        JsonReadLimits limits = JsonReadLimits.UNLIMITED.withMaxDepth(3);
+        read(nested(3), limits);
+        read("{\"a\": {\"b\": [1, 2]}, \"c\": [[]]}", limits);
+        assertThrows(ParseException.class, () -> read(nested(4), limits));
+        assertThrows(ParseException.class, () -> read("{\"a\": {\"b\": [{}]}}", limits));
+    }
+
+    @Test
+    void nodesAreLimited() throws Exception {
+        // The array itself, and its three elements
+        JsonReadLimits limits = JsonReadLimits.UNLIMITED.withMaxNodes(4);
+        read("[1, 2, 3]", limits);
+        assertThrows(ParseException.class, () -> read("[1, 2, 3, 4]", limits));
+        assertThrows(ParseException.class, () -> read("{\"a\": [1, 2], \"b\": 3}", limits));
+    }
+
+    @Test
+    void stringLengthIsLimited() throws Exception {
+        JsonReadLimits limits = JsonReadLimits.UNLIMITED.withMaxStringLength(3);
+        read("{\"abc\": \"def\"}", limits);
+        assertThrows(ParseException.class, () -> read("[\"abcd\"]", limits));
+        assertThrows(ParseException.class, () -> read("{\"abcd\": 1}", limits));
+    }
+
+    @Test
+    void objectKeysAreLimited() throws Exception {
+        JsonReadLimits limits = JsonReadLimits.UNLIMITED.withMaxObjectKeys(2);
+        read("{\"a\": {\"b\": 1, \"c\": 2}, \"d\": [1, 2, 3]}", limits);
+        assertThrows(ParseException.class, () -> read("{\"a\": 1, \"b\": 2, \"c\": 3}", limits));
+    }
+
+    @Test
+    void limitsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> JsonReadLimits.DEFAULT.withMaxDepth(0));
+        assertThrows(IllegalArgumentException.class, () -> JsonReadLimits.DEFAULT.withMaxNodes(0));
+        assertThrows(IllegalArgumentException.class, () -> JsonReadLimits.DEFAULT.withMaxStringLength(-1));
+        assertThrows(IllegalArgumentException.class, () -> JsonReadLimits.DEFAULT.withMaxObjectKeys(0));
+    }
+
+    @Test
+    void defaultDepthOverflowIsReported() {
+        int depth = JsonReadLimits.DEFAULT.maxDepth();
+        assertThrows(ParseException.class, () -> CustomJsonValue.read("deep.json", nested(depth + 1)));
+    }
+
+    @Test
+    void deepNestingDoesNotRecurse() throws Exception {
+        int depth = 20_000;
+        String json = "{\"a\": " + nested(depth) + "}";
+        AtomicReference<Object> result = new AtomicReference<>();
+        // A small stack, which a reader with a frame per level would overflow
+        Thread thread = new Thread(null, () -> {
+            try {
+                result.set(read(json, JsonReadLimits.UNLIMITED));
+            } catch (Throwable t) {
+                result.set(t);
+            }
+        }, "deep reader", 256 * 1024);
+        thread.start();
+        thread.join();
+
+        if (result.get() instanceof Throwable) {
+            throw new AssertionError("reading failed", (Throwable) result.get());
+        }
+        // Don't print the value on failure, since toString() does recurse
+        assertTrue(result.get() instanceof CustomJsonObject, "result: " + result.get().getClass());
+        CustomJsonValue value = ((CustomJsonObject) result.get()).get("a");
+        int levels = 0;
+        while (!((CustomJsonArray) value).isEmpty()) {
+            value = ((CustomJsonArray) value).get(0);
+            levels++;
+        }
+        assertEquals(depth - 1, levels);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.JsonWriter;
+
+class JsonSerializationContextTest {
+
+    private static final String MOD_JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\", \"provides\": [\"other\"],"
+        + " \"entrypoints\": {\"init\": \"org.example.Init\"}},"
+        + " \"custom\": {\"a\": [1, 2.5, null, {}], \"b\": \"caf\u00e9 \u20ac \ud83d\ude00 \u2028\"}}";
+
+    /** A value which can only be streamed, to check the context never asks for the tree. */
+    private static final class StreamOnly implements JsonWritable {
+        private final String text;
+
+        StreamOnly(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public CustomJsonValue toJson() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            writer.beginArray();
+            writer.value(text);
+            writer.endArray();
+        }
+    }
+
+    private static String withWriter(JsonWritable value, String indent) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = JsonWriter.json(out);
+        if (indent != null) {
+            writer.setIndent(indent);
+        }
+        value.write(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    @Test
+    void matchesJsonWriter() throws Exception {
+        FinalQuiltModJsonV1 mod = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("test", MOD_JSON));
+        byte[] compact = new JsonSerializationContext().write(mod).toByteArray();
+        assertArrayEquals(withWriter(mod, null).getBytes(StandardCharsets.UTF_8), compact);
+
+        byte[] pretty = new JsonSerializationContext("\t").write(mod).toByteArray();
+        assertArrayEquals(withWriter(mod, "\t").getBytes(StandardCharsets.UTF_8), pretty);
+    }
+
+    @Test
+    void streamsValues() throws Exception {
+        JsonSerializationContext context = new JsonSerializationContext();
+        context.write(new StreamOnly("a")).newLine().write(new StreamOnly("b"));
+        assertEquals("[\"a\"]\n[\"b\"]", new String(context.toByteArray(), StandardCharsets.UTF_8));
+
+        context.reset();
+        context.write(new StreamOnly("c"));
+        assertEquals("[\"c\"]", new String(context.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encodesUtf8() {
+        String text = "a\u00e9\u20ac\ud83d\ude00\ud83d";
+        JsonSerializationContext context = new JsonSerializationContext();
+        context.write(new StreamOnly(text));
+        // The unpaired surrogate is replaced, just like String.getBytes does
+        assertArrayEquals(("[\"" + text + "\"]").getBytes(StandardCharsets.UTF_8), context.toByteArray());
+
+        context.reset();
+        context.write(new StreamOnly("\udc00x"));
+        assertArrayEquals("[\"\udc00x\"]".getBytes(StandardCharsets.UTF_8), context.toByteArray());
+    }
+
+    @Test
+    void rejectsNaN() {
+        CustomJsonValue nan = CustomJsonValue.createNumber(Double.NaN);
+        assertThrows(IllegalArgumentException.class, () -> new JsonSerializationContext().write(nan));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.parsers.json.JsonReader;
+
+class JsonSourceTest {
+
+    /** Strings contain escaped quotes and punctuation, which mustn't be mistaken for the start or end of a value. */
+    private static final String JSON = "{\n  \"a\": [1, 2.5, \"th\\\"r,ee}\", true, null],\n"
+        + "  \"b\": {\"c\": {}, \"d\": []}\n}";
+
+    /** @return Every value in the order they begin, which is the order of their positions. */
+    private static List<CustomJsonValue> values(CustomJsonValue value) {
+        List<CustomJsonValue> into = new ArrayList<>();
+        collect(value, into);
+        return into;
+    }
+
+    private static void collect(CustomJsonValue value, List<CustomJsonValue> into) {
+        into.add(value);
+        if (value instanceof CustomJsonObject) {
+            for (Map.Entry<String, CustomJsonValue> entry : ((CustomJsonObject) value).entrySet()) {
+                collect(entry.getValue(), into);
+            }
+        } else if (value instanceof CustomJsonArray) {
+            for (CustomJsonValue element : (CustomJsonArray) value) {
+                collect(element, into);
+            }
+        }
+    }
+
+    private static List<String> locations(CustomJsonValue value) {
+        List<String> locations = new ArrayList<>();
+        for (CustomJsonValue element : values(value)) {
+            locations.add(element.location());
+        }
+        return locations;
+    }
+
+    @Test
+    void textIsDescribedByLineAndColumn() throws Exception {
+        int[][] expected = { { 1, 1 }, { 2, 8 }, { 2, 9 }, { 2, 12 }, { 2, 17 }, { 2, 30 }, { 2, 36 }, { 3, 8 },
+            { 3, 14 }, { 3, 23 } };
+        List<String> locations = locations(CustomJsonValue.read("test.json", JSON));
+        assertEquals(expected.length, locations.size());
+        for (int i = 0; i < expected.length; i++) {
+            String location = "test.json at line " + expected[i][0] + " column " + expected[i][1];
+            assertEquals(location, locations.get(i));
+        }
+    }
+
+    @Test
+    void buffersAreDescribedLikeText() throws Exception {
+        String json = "{\"\u00e9\": \"\ud83d\ude00\", \"x\": [\"\u00e9\", 1],\n\"y\":    null}";
+        ByteBuffer utf8 = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        List<String> fromBuffer = locations(CustomJsonValue.read("test.json", utf8));
+        assertEquals(0, utf8.position());
+        assertEquals(locations(CustomJsonValue.read("test.json", json)), fromBuffer);
+        assertEquals("test.json at line 2 column 9", fromBuffer.get(fromBuffer.size() - 1));
+    }
+
+    @Test
+    void readerValuesAreDescribedByPath() throws Exception {
+        String root;
+        CustomJsonValue value;
+        try (JsonReader reader = JsonReader.json(new StringReader(JSON))) {
+            reader.peek();
+            root = reader.locationString();
+            value = CustomJsonValue.read(reader);
+        }
+        String[] paths = { "", ".a", ".a[0]", ".a[1]", ".a[2]", ".a[3]", ".a[4]", ".b", ".b.c", ".b.d" };
+        List<String> locations = locations(value);
+        assertEquals(paths.length, locations.size());
+        for (int i = 0; i < paths.length; i++) {
+            assertEquals(root + paths[i], locations.get(i));
+        }
+    }
+}
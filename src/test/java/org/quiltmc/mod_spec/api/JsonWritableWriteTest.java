@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableModConstraintV1;
+import org.quiltmc.mod_spec.api.MutableQuiltModJsonV1.MutableModDependencyV1;
+import org.quiltmc.parsers.json.JsonWriter;
+
+class JsonWritableWriteTest {
+
+    private static final String MOD_JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\", \"provides\": [\"other\", {\"id\": \"third\","
+        + " \"version\": \"2.0\"}], \"entrypoints\": {\"init\": \"org.example.Init\", \"client\": [\"org.example.A\","
+        + " {\"adapter\": \"kotlin\", \"value\": \"org.example.B\"}]}}, \"custom\": {\"a\": [1, 2.5, -0.0, null],"
+        + " \"b\": {\"c\": true, \"d\": \"\\u2028\"}}}";
+
+    private static String streamed(JsonWritable value) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = JsonWriter.json(out)) {
+            value.write(writer);
+        }
+        return out.toString();
+    }
+
+    private static String built(JsonWritable value) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = JsonWriter.json(out)) {
+            value.toJson().write(writer);
+        }
+        return out.toString();
+    }
+
+    private static void assertWritesAgree(JsonWritable value) throws IOException {
+        assertEquals(built(value), streamed(value));
+    }
+
+    @Test
+    void finalModJson() throws Exception {
+        FinalQuiltModJsonV1 mod = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("test", MOD_JSON));
+        assertWritesAgree(mod);
+        for (FinalQuiltModJsonV1.FinalProvidesV1 provides : mod.provides()) {
+            assertWritesAgree(provides);
+        }
+        assertWritesAgree(mod.entrypoints());
+    }
+
+    @Test
+    void mutableDependencyFromString() throws Exception {
+        MutableModDependencyV1 dependency = new MutableModDependencyV1(CustomJsonValue.read("test", "\"other\""));
+        assertWritesAgree(dependency);
+        assertEquals("\"other\"", streamed(dependency));
+    }
+
+    @Test
+    void mutableDependencyFromObject() throws Exception {
+        MutableModDependencyV1 idOnly = new MutableModDependencyV1(CustomJsonValue.read("test", "{\"id\": \"other\"}"));
+        assertWritesAgree(idOnly);
+        assertEquals("{\"id\":\"other\"}", streamed(idOnly));
+
+        MutableModDependencyV1 full = new MutableModDependencyV1(CustomJsonValue.read("test",
+            "{\"id\": \"other\", \"versions\": \">=1.0\", \"reason\": \"why\", \"optional\": true}"));
+        assertWritesAgree(full);
+    }
+
+    @Test
+    void mutableConstraintSerialisationType() throws Exception {
+        MutableModConstraintV1 constraint = new MutableModConstraintV1().id("other");
+        assertWritesAgree(constraint);
+        assertEquals("\"other\"", streamed(constraint));
+
+        constraint.setSerialisationType(CustomJsonType.OBJECT);
+        assertWritesAgree(constraint);
+        assertEquals("{\"id\":\"other\"}", streamed(constraint));
+    }
+}
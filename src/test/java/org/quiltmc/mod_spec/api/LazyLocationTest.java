@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalEntrypointV1;
+import org.quiltmc.mod_spec.api.FinalQuiltModJsonV1.FinalProvidesV1;
+
+/** Checks that valid files never have their locations described, since building every location string would cost more
+ * than reading the file. */
+class LazyLocationTest {
+
+    private static final String JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\", \"provides\": [\"other\", {\"id\": \"another\"}],"
+        + " \"entrypoints\": {\"main\": [\"org.example.Main\", {\"value\": \"org.example.Other\"}]}}}";
+
+    @Test
+    void validFilesDontDescribeLocations() throws Exception {
+        CountingJsonSource source = new CountingJsonSource(JSON);
+        FinalQuiltModJsonV1 json = FinalQuiltModJsonV1.from((CustomJsonObject) source.read());
+
+        for (FinalProvidesV1 provides : json.provides()) {
+            FinalProvidesV1.from(provides);
+        }
+        for (FinalEntrypointV1 entrypoint : json.entrypoints().get("main")) {
+            FinalEntrypointV1.from(entrypoint);
+        }
+        assertEquals(0, source.described);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.parsers.json.JsonReader;
+import org.quiltmc.parsers.json.JsonWriter;
+
+/** Checks that equality of the Final types and {@link CustomJsonValue}s ignores locations, and that hashes of
+ * containers are only computed once. */
+class LocationFreeEqualityTest {
+
+    private static final String COMPACT = "{\"schema_version\":1,\"quilt_loader\":{\"group\":\"org.example\","
+        + "\"id\":\"example\",\"version\":\"1.0.0\",\"provides\":[\"other\"],\"entrypoints\":{\"main\":"
+        + "[\"org.example.Main\"]}},\"extra\":{\"list\":[1,true,null,\"x\"]}}";
+
+    private static final String PRETTY = "{\n  \"schema_version\": 1,\n  \"quilt_loader\": {\n"
+        + "    \"group\": \"org.example\",\n    \"id\": \"example\",\n    \"version\": \"1.0.0\",\n"
+        + "    \"provides\": [\n      \"other\"\n    ],\n"
+        + "    \"entrypoints\": {\n      \"main\": [\n        \"org.example.Main\"\n      ]\n    }\n  },\n"
+        + "  \"extra\": {\n    \"list\": [\n      1,\n      true,\n      null,\n      \"x\"\n    ]\n  }\n}\n";
+
+    private static FinalQuiltModJsonV1 mod(String name, String json) throws Exception {
+        return FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read(name, json));
+    }
+
+    /** A string which counts how many times its hash is computed. */
+    private static final class CountingString implements CustomJsonString {
+        final String value;
+        int hashed;
+
+        CountingString(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+
+        @Override
+        public String location() {
+            return DEFAULT_LOCATION;
+        }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            writer.value(value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CustomJsonString && value.equals(((CustomJsonString) obj).value());
+        }
+
+        @Override
+        public int hashCode() {
+            hashed++;
+            return value.hashCode();
+        }
+    }
+
+    @Test
+    void customValuesIgnoreLocations() throws Exception {
+        CustomJsonValue compact = CustomJsonValue.read("compact.json", COMPACT);
+        CustomJsonValue pretty = CustomJsonValue.read("pretty.json", PRETTY);
+        CustomJsonValue streamed;
+        try (JsonReader reader = JsonReader.json(new StringReader(PRETTY))) {
+            streamed = CustomJsonValue.read(reader);
+        }
+        CustomJsonValue binary = BinaryModJson.readValue(ByteBuffer.wrap(BinaryModJson.write(pretty, false)));
+
+        String compactLocation = ((CustomJsonObject) compact).get("extra").location();
+        assertNotEquals(compactLocation, ((CustomJsonObject) pretty).get("extra").location());
+        for (CustomJsonValue other : Arrays.asList(pretty, streamed, binary)) {
+            assertEquals(compact, other);
+            assertEquals(other, compact);
+            assertEquals(compact.hashCode(), other.hashCode());
+        }
+
+        assertNotEquals(compact, CustomJsonValue.read("changed.json", COMPACT.replace("\"x\"", "\"y\"")));
+    }
+
+    @Test
+    void finalTypesIgnoreLocations() throws Exception {
+        FinalQuiltModJsonV1 compact = mod("compact.json", COMPACT);
+        FinalQuiltModJsonV1 pretty = mod("pretty.json", PRETTY);
+        FinalQuiltModJsonV1 binary = BinaryModJson.readQuiltModJson(
+            ByteBuffer.wrap(BinaryModJson.write(pretty, false))
+        );
+
+        for (FinalQuiltModJsonV1 other : Arrays.asList(pretty, binary)) {
+            assertEquals(compact, other);
+            assertEquals(compact.hashCode(), other.hashCode());
+            assertEquals(compact.provides(), other.provides());
+            assertEquals(compact.provides().hashCode(), other.provides().hashCode());
+            assertEquals(compact.entrypoints(), other.entrypoints());
+            assertEquals(compact.entrypoints().hashCode(), other.entrypoints().hashCode());
+            assertEquals(compact.entrypoints().get("main"), other.entrypoints().get("main"));
+        }
+
+        Set<FinalQuiltModJsonV1> set = new HashSet<>(Arrays.asList(compact, pretty, binary));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void finalTypesCompareContent() throws Exception {
+        FinalQuiltModJsonV1 mod = mod("a.json", COMPACT);
+        for (String changed : Arrays.asList(
+            COMPACT.replace("1.0.0", "1.0.1"),
+            COMPACT.replace("\"other\"", "{\"id\":\"other\",\"version\":\"2.0.0\"}"),
+            COMPACT.replace("org.example.Main", "org.example.Other"),
+            COMPACT.replace("\"x\"", "\"y\"")
+        )) {
+            FinalQuiltModJsonV1 other = mod("b.json", changed);
+            assertNotEquals(mod, other, changed);
+        }
+    }
+
+    @Test
+    void containerHashesAreOnlyComputedOnce() {
+        CountingString inObject = new CountingString("value");
+        CustomObject object = CustomObject.adopt(
+            JsonSource.CREATED_THROUGH_CODE, 0, new String[] { "key" }, new CustomJsonValue[] { inObject }, 1
+        );
+        object.hashCode();
+        object.hashCode();
+        assertEquals(1, inObject.hashed);
+
+        CountingString inArray = new CountingString("value");
+        CustomArray array = CustomArray.adopt(JsonSource.CREATED_THROUGH_CODE, 0, new CustomJsonValue[] { inArray }, 1);
+        array.hashCode();
+        array.hashCode();
+        assertEquals(1, inArray.hashed);
+    }
+}
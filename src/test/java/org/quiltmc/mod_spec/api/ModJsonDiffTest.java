@@ -0,0 +1,291 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonType;
+import org.quiltmc.mod_spec.api.ModJsonDiff.Change;
+import org.quiltmc.mod_spec.api.ModJsonDiff.Kind;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.LicenseV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModConstraintV1.VersionConstraintV1;
+import org.quiltmc.mod_spec.api.QuiltModJsonV1.ModDependencyV1;
+import org.quiltmc.parsers.json.JsonWriter;
+
+class ModJsonDiffTest {
+
+    /** @return A mod json which returns the given values from its getters, and null from every other getter. */
+    private static QuiltModJsonV1 mod(Object... getterValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < getterValues.length; i += 2) {
+            values.put((String) getterValues[i], getterValues[i + 1]);
+        }
+        return (QuiltModJsonV1) Proxy.newProxyInstance(
+            QuiltModJsonV1.class.getClassLoader(), new Class<?>[] { QuiltModJsonV1.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "mod" + values;
+                default:
+                    return values.get(method.getName());
+                }
+            }
+        );
+    }
+
+    private static final class Constraint implements ModConstraintV1 {
+        final String id;
+        final String reason;
+
+        Constraint(String id, String reason) {
+            this.id = id;
+            this.reason = reason;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public VersionConstraintV1 versions() {
+            return null;
+        }
+
+        @Override
+        public String reason() {
+            return reason;
+        }
+
+        @Override
+        public boolean optional() {
+            return false;
+        }
+
+        @Override
+        public ModDependencyV1 unless() {
+            return null;
+        }
+    }
+
+    private static final class Dependency implements ModDependencyV1 {
+        final List<Constraint> constraints;
+
+        Dependency(Constraint... constraints) {
+            this.constraints = Arrays.asList(constraints);
+        }
+
+        @Override
+        public List<Constraint> constraints() {
+            return constraints;
+        }
+
+        @Override
+        public CustomJsonValue toJson() {
+            return constraints.get(0).toJson();
+        }
+    }
+
+    private static final class License implements LicenseV1 {
+        final String id;
+        final String name;
+
+        License(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public SpdxLicense spdxLicense() {
+            return null;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String url() {
+            return "";
+        }
+
+        @Override
+        public String description() {
+            return "";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof License && id.equals(((License) obj).id) && name.equals(((License) obj).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+    /** A string which counts how many times it's compared, to check that values with different hashes never are. */
+    private static final class CountingString implements CustomJsonString {
+        final String value;
+        int compared;
+
+        CountingString(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+
+        @Override
+        public String location() {
+            return DEFAULT_LOCATION;
+        }
+
+        @Override
+        public CustomJsonType type() {
+            return CustomJsonType.STRING;
+        }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            writer.value(value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            compared++;
+            return obj instanceof CountingString && value.equals(((CountingString) obj).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    private static Dependency dependency(String id, String reason) {
+        return new Dependency(new Constraint(id, reason));
+    }
+
+    @Test
+    void dependenciesAreMatchedById() {
+        Dependency a = dependency("a", null);
+        Dependency b1 = dependency("b", "first");
+        Dependency b2 = dependency("b", "second");
+        Dependency c = dependency("c", null);
+        List<Change> changes = ModJsonDiff.diff(
+            mod("depends", Arrays.asList(a, b1)), mod("depends", Arrays.asList(b2, c))
+        );
+        assertEquals(
+            Arrays.asList(
+                new Change(Kind.REMOVED, "quilt_loader.depends[id=a]", a, null),
+                new Change(Kind.CHANGED, "quilt_loader.depends[id=b]", b1, b2),
+                new Change(Kind.ADDED, "quilt_loader.depends[id=c]", null, c)
+            ), changes
+        );
+    }
+
+    @Test
+    void reorderingIsNotAChange() {
+        Dependency a = dependency("a", null);
+        Dependency b = dependency("b", "reason");
+        License mit = new License("MIT", "MIT License");
+        License apache = new License("Apache-2.0", "Apache License 2.0");
+        QuiltModJsonV1 before = mod("depends", Arrays.asList(a, b), "license", Arrays.asList(mit, apache));
+        QuiltModJsonV1 after = mod("depends", Arrays.asList(b, a), "license", Arrays.asList(apache, mit));
+        assertEquals(Collections.emptyList(), ModJsonDiff.diff(before, after));
+    }
+
+    @Test
+    void licensesAreMatchedById() {
+        License before = new License("custom", "Old name");
+        License after = new License("custom", "New name");
+        List<Change> changes = ModJsonDiff.diff(
+            mod("license", Collections.singletonList(before)), mod("license", Collections.singletonList(after))
+        );
+        Change expected = new Change(Kind.CHANGED, "quilt_loader.metadata.license[id=custom]", before, after);
+        assertEquals(Collections.singletonList(expected), changes);
+    }
+
+    @Test
+    void customValuesAreAddressedByPath() throws Exception {
+        CustomJsonObject before = (CustomJsonObject) CustomJsonValue.read(
+            "before", "{\"x\": {\"a\": [1, 2], \"b\": true}}"
+        );
+        CustomJsonObject after = (CustomJsonObject) CustomJsonValue.read(
+            "after", "{\"x\": {\"a\": [1, 3]}, \"y\": null}"
+        );
+        List<Change> changes = ModJsonDiff.diff(mod("custom", before), mod("custom", after));
+
+        assertEquals(3, changes.size(), "changes: " + changes);
+        CustomJsonObject beforeX = (CustomJsonObject) before.get("x");
+        CustomJsonObject afterX = (CustomJsonObject) after.get("x");
+        assertEquals(
+            new Change(
+                Kind.CHANGED, "x.a[1]", ((List<?>) beforeX.get("a")).get(1), ((List<?>) afterX.get("a")).get(1)
+            ), changes.get(0)
+        );
+        assertEquals(new Change(Kind.REMOVED, "x.b", beforeX.get("b"), null), changes.get(1));
+        assertEquals(new Change(Kind.ADDED, "y", null, after.get("y")), changes.get(2));
+    }
+
+    @Test
+    void valuesAreOnlyComparedWhenTheirHashesMatch() throws Exception {
+        CountingString before = new CountingString("before");
+        CountingString after = new CountingString("after");
+        List<Change> changes = ModJsonDiff.diff("", before, after);
+        assertEquals(Collections.singletonList(new Change(Kind.CHANGED, "", before, after)), changes);
+        assertEquals(0, before.compared + after.compared);
+
+        CountingString same = new CountingString("before");
+        assertTrue(ModJsonDiff.diff("", before, same).isEmpty());
+        assertEquals(1, before.compared + same.compared);
+
+        String text = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\", \"id\": \"example\","
+            + " \"version\": \"1.0.0\"}}";
+        FinalQuiltModJsonV1 a = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("a", text));
+        FinalQuiltModJsonV1 b = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("b", text));
+        assertSame(Collections.emptyList(), ModJsonDiff.diff(a, b));
+    }
+}
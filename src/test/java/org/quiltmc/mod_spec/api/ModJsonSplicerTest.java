@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class ModJsonSplicerTest {
+
+    private static String splice(String original, String edited, boolean spliced) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer bytes = ByteBuffer.wrap(original.getBytes(StandardCharsets.UTF_8));
+        assertEquals(spliced, ModJsonSplicer.splice(bytes, CustomJsonValue.read("edited", edited), out));
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void replacesChangedValues() throws Exception {
+        String original = "{\n  \"id\" :  \"old\",\n\t\"list\": [1,   2],\n  \"keep\": {\"x\": true}\n}\n";
+        String edited = "{\"id\": \"new\\n\", \"list\": [1, 2.5], \"keep\": {\"x\": true}}";
+        String expected = "{\n  \"id\" :  \"new\\n\",\n\t\"list\": [1,   2.5],\n  \"keep\": {\"x\": true}\n}\n";
+        assertEquals(expected, splice(original, edited, true));
+    }
+
+    @Test
+    void rewritesWithTheOriginalIndent() throws Exception {
+        String original = "{\n    \"id\": \"old\",\n    \"list\": [1]\n}\n";
+        String edited = "{\"id\": \"old\", \"list\": [1, 2], \"added\": {}}";
+        String expected = "{\n    \"id\": \"old\",\n    \"list\": [\n        1,\n        2\n    ],\n"
+            + "    \"added\": {}\n}\n";
+        assertEquals(expected, splice(original, edited, false));
+    }
+
+    @Test
+    void rewritesWithTabs() throws Exception {
+        String original = "[\n\t{\"id\": \"old\"}\n]";
+        String edited = "[{\"id\": \"old\", \"added\": null}]";
+        String expected = "[\n\t{\n\t\t\"id\": \"old\",\n\t\t\"added\": null\n\t}\n]";
+        assertEquals(expected, splice(original, edited, false));
+    }
+
+    @Test
+    void rewritesCompactFilesCompactly() throws Exception {
+        String original = "{\"id\": \"old\", \"list\": [1]}";
+        String edited = "{\"id\": \"old\", \"list\": [1, 2]}";
+        assertEquals("{\"id\":\"old\",\"list\":[1,2]}", splice(original, edited, false));
+    }
+
+    @Test
+    void unchangedFilesAreCopied() throws Exception {
+        String original = "\ufeff {\n  \"id\": \"same\"\n}\n\n";
+        assertEquals(original, splice(original, "{\"id\": \"same\"}", true));
+    }
+}
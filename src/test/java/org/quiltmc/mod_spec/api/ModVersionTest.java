@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ModVersionTest {
+
+    /** Versions which mix every kind of component, including the ones which FlexVer can't order transitively. */
+    private static final String[] VERSIONS = { "", "+build", "0", "1", "1-", "1!", "1-a", "1a", "1.0", "1.0.0",
+        "1.0.0-0", "1.0.0-1", "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta", "1.0.0-beta.2",
+        "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0-rc.9a", "1.0.0-rc.10", "1.0.0-rc.9z_", "1.0.0-rc_1", "1.0.0+build",
+        "1.0.0.0", "1.0.0_01", "1.0.1", "1.0.1-", "1.0.1-!", "1.2", "1.10", "1.10.0", "01.2.3", "1.2.3-01",
+        "1.2.3-0.a", "1.18.2", "b1.7.3", "a1.2.6", "1.0.0-x.7.z.92", "99999999999999999999.0.0", "1.0.0-\u00e9",
+        "1.0.0\ud83d\ude00", "1.0.0\uffff" };
+
+    private static int compare(String a, String b) {
+        return Integer.signum(ModVersion.parse(a).compareTo(ModVersion.parse(b)));
+    }
+
+    private static void assertOrdered(String... versions) {
+        for (int i = 0; i < versions.length; i++) {
+            for (int j = 0; j < versions.length; j++) {
+                assertEquals(Integer.signum(Integer.compare(i, j)), compare(versions[i], versions[j]),
+                    versions[i] + " vs " + versions[j]);
+            }
+        }
+    }
+
+    @Test
+    void semanticPrecedence() {
+        // The example from the SemVer specification
+        assertOrdered("1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta", "1.0.0-beta.2",
+            "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0", "2.0.0", "2.1.0", "2.1.1");
+        assertOrdered("1.0.0-0", "1.0.0-1", "1.0.0-A", "1.0.0-a", "1.0.0");
+        assertOrdered("1.9.0", "1.10.0", "1.10.1-rc.1", "1.10.1");
+        assertEquals(0, compare("1.0.0+a", "1.0.0+b"));
+        assertEquals(0, compare("1.0.0-rc.1+a", "1.0.0-rc.1"));
+    }
+
+    @Test
+    void flexVerOrder() {
+        assertOrdered("1.0", "1.0.1", "1.1", "1.9", "1.10");
+        assertOrdered("1.0-pre1", "1.0", "1.0_01");
+        assertOrdered("a1.2.6", "b1.0", "b1.7.3");
+        assertOrdered("1.0.0_1", "1.0.0_9", "1.0.0_10");
+        assertEquals(0, compare("1.0+a", "1.0+b"));
+        assertEquals(0, compare("1.01", "1.1"));
+        assertEquals(-1, compare("1.99999999999999999998", "1.99999999999999999999"));
+    }
+
+    @Test
+    void mixedKindsAreTransitive() {
+        // 1.0.0-rc.10 < 1.0.0-rc.9a by SemVer, and 1.0.0-rc.9z_ isn't a semantic version
+        assertOrdered("1.0.0-rc.10", "1.0.0-rc.9a", "1.0.0-rc.9z_", "1.0.0");
+        // FlexVer alone orders these in cycles, such as 1! < 1-a < 1 < 1!
+        assertOrdered("1-a", "1", "1!", "1-");
+    }
+
+    @Test
+    void totalOrder() {
+        for (String a : VERSIONS) {
+            assertEquals(0, compare(a, a), a);
+            for (String b : VERSIONS) {
+                assertEquals(-compare(b, a), compare(a, b), a + " vs " + b);
+                for (String c : VERSIONS) {
+                    if (compare(a, b) <= 0 && compare(b, c) <= 0) {
+                        assertTrue(compare(a, c) <= 0, a + " <= " + b + " <= " + c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void sortingIsStable() {
+        List<ModVersion> versions = new ArrayList<>();
+        for (String version : VERSIONS) {
+            versions.add(ModVersion.parse(version));
+        }
+        List<ModVersion> sorted = new ArrayList<>(versions);
+        Collections.sort(sorted);
+        for (long seed = 0; seed < 20; seed++) {
+            List<ModVersion> shuffled = new ArrayList<>(versions);
+            Collections.shuffle(shuffled, new Random(seed));
+            Collections.sort(shuffled);
+            for (int i = 0; i < sorted.size(); i++) {
+                assertEquals(0, sorted.get(i).compareTo(shuffled.get(i)), sorted + " vs " + shuffled);
+            }
+        }
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).compareTo(sorted.get(i)) <= 0);
+        }
+    }
+
+    @Test
+    void accessors() {
+        ModVersion version = ModVersion.parse("1.2.3-rc.4+build.5");
+        assertTrue(version.isSemantic());
+        assertEquals(1, version.major());
+        assertEquals(2, version.minor());
+        assertEquals(3, version.patch());
+        assertTrue(version.isPreRelease());
+        assertEquals(2, version.preReleaseCount());
+        assertEquals("rc", version.preRelease(0));
+        assertEquals("4", version.preRelease(1));
+        assertEquals("1.2.3-rc.4+build.5", version.raw());
+
+        ModVersion flex = ModVersion.parse("1.2");
+        assertFalse(flex.isSemantic());
+        assertEquals(-1, flex.major());
+        assertFalse(flex.isPreRelease());
+        assertFalse(ModVersion.parse("01.2.3").isSemantic());
+        assertFalse(ModVersion.parse("1.2.3-01").isSemantic());
+    }
+
+    @Test
+    void equalityUsesTheRawString() {
+        assertEquals(ModVersion.parse("1.0.0+a"), ModVersion.parse("1.0.0+a"));
+        assertEquals(ModVersion.parse("1.0.0+a").hashCode(), ModVersion.parse("1.0.0+a").hashCode());
+        assertNotEquals(ModVersion.parse("1.0.0+a"), ModVersion.parse("1.0.0+b"));
+    }
+}
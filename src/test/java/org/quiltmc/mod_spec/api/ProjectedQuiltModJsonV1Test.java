@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.mod_spec.api.ProjectedQuiltModJsonV1.Field;
+import org.quiltmc.parsers.json.JsonReader;
+
+class ProjectedQuiltModJsonV1Test {
+
+    private static final String JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": 5, \"id\": \"example\","
+        + " \"version\": \"1.0.0\", \"metadata\": {\"name\": \"Example\"}}, \"custom_key\": [1, 2]}";
+
+    private static ProjectedQuiltModJsonV1 read(Set<Field> fields) throws Exception {
+        try (JsonReader reader = JsonReader.json(new StringReader(JSON))) {
+            return ProjectedQuiltModJsonV1.read(reader, fields);
+        }
+    }
+
+    @Test
+    void fieldsWhichArentProjectedArentValidated() throws Exception {
+        ProjectedQuiltModJsonV1 projected = read(EnumSet.of(Field.ID, Field.NAME));
+        assertEquals("example", projected.id());
+        assertEquals("Example", projected.name());
+        assertThrows(IllegalStateException.class, projected::group);
+        assertThrows(IllegalStateException.class, projected::custom);
+    }
+
+    @Test
+    void projectedFieldsAreValidatedOnce() {
+        InvalidModJsonException e = assertThrows(InvalidModJsonException.class, () -> read(EnumSet.of(Field.GROUP)));
+        assertEquals(1, e.problems().size(), "problems: " + e.problems());
+        assertTrue(e.problems().get(0) instanceof WrongTypeProblem);
+    }
+
+    @Test
+    void customIsOnlyKeptWhenProjected() throws Exception {
+        ProjectedQuiltModJsonV1 projected = read(EnumSet.of(Field.CUSTOM));
+        assertEquals(1, projected.custom().size());
+        assertTrue(projected.custom().containsKey("custom_key"));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.QuiltModJsonBatchReader.Parser;
+import org.quiltmc.mod_spec.api.QuiltModJsonBatchReader.Result;
+
+class QuiltModJsonBatchReaderTest {
+
+    private static final QuiltModJson MOD;
+
+    static {
+        String json = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\", \"id\": \"example\","
+            + " \"version\": \"1.0.0\"}}";
+        try {
+            MOD = FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read("quilt.mod.json", json));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /** An executor which holds on to tasks until they're run by the test. */
+    private static final class DeferredExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runInReverse() {
+            List<Runnable> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            Collections.reverse(toRun);
+            toRun.forEach(Runnable::run);
+        }
+    }
+
+    /** Counts how many sources have been taken, to check that abandoned iterators stop submitting them. */
+    private static final class CountingIterator implements Iterator<Integer> {
+        final int count;
+        int taken;
+
+        CountingIterator(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return taken < count;
+        }
+
+        @Override
+        public Integer next() {
+            return taken++;
+        }
+    }
+
+    private static List<Integer> sources(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> readInOrder(Iterator<Result<Integer>> results) {
+        List<Integer> order = new ArrayList<>();
+        while (results.hasNext()) {
+            Result<Integer> result = results.next();
+            assertTrue(result.isSuccess(), "exception: " + result.exception());
+            assertSame(MOD, result.value());
+            order.add(result.source());
+        }
+        return order;
+    }
+
+    @Test
+    void unorderedResultsAreReturnedAsTheyFinish() {
+        DeferredExecutor executor = new DeferredExecutor();
+        QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(executor, 4);
+        Iterator<Result<Integer>> results = reader.read(sources(4).iterator(), source -> MOD, false);
+        assertEquals(4, executor.tasks.size());
+        executor.runInReverse();
+        assertEquals(Arrays.asList(3, 2, 1, 0), readInOrder(results));
+    }
+
+    @Test
+    void orderedResultsAreReturnedInSourceOrder() {
+        DeferredExecutor executor = new DeferredExecutor();
+        QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(executor, 4);
+        Iterator<Result<Integer>> results = reader.read(sources(4).iterator(), source -> MOD, true);
+        assertEquals(4, executor.tasks.size());
+        executor.runInReverse();
+        assertEquals(Arrays.asList(0, 1, 2, 3), readInOrder(results));
+    }
+
+    @Test
+    void failingSourcesOnlyFailTheirOwnResult() {
+        IOException io = new IOException("unreadable");
+        IllegalStateException runtime = new IllegalStateException("broken");
+        Parser<Integer> parser = source -> {
+            switch (source) {
+            case 1:
+                throw io;
+            case 2:
+                throw runtime;
+            default:
+                return MOD;
+            }
+        };
+
+        for (boolean ordered : new boolean[] { true, false }) {
+            QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(Runnable::run, 2);
+            List<Result<Integer>> results = new ArrayList<>();
+            reader.read(sources(4).iterator(), parser, ordered).forEachRemaining(results::add);
+
+            assertEquals(4, results.size());
+            assertTrue(results.get(0).isSuccess());
+            assertSame(io, results.get(1).exception());
+            assertSame(io, assertThrows(IOException.class, results.get(1)::get));
+            assertSame(runtime, results.get(2).exception());
+            assertSame(runtime, assertThrows(IllegalStateException.class, results.get(2)::get));
+            assertTrue(results.get(3).isSuccess());
+        }
+    }
+
+    @Test
+    void errorsAreThrownRatherThanReported() {
+        AssertionError error = new AssertionError("fatal");
+        for (boolean ordered : new boolean[] { true, false }) {
+            DeferredExecutor executor = new DeferredExecutor();
+            QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(executor, 1);
+            Iterator<Result<Integer>> results = reader.read(sources(2).iterator(), source -> {
+                throw error;
+            }, ordered);
+
+            // The executor sees the error, and so does whoever takes the result
+            Runnable task = executor.tasks.remove(0);
+            assertSame(error, assertThrows(AssertionError.class, task::run));
+            assertTrue(results.hasNext());
+            assertSame(error, assertThrows(AssertionError.class, results::next));
+        }
+    }
+
+    @Test
+    void rejectedSourcesFailTheirOwnResult() {
+        RejectedExecutionException rejected = new RejectedExecutionException("shut down");
+        Executor executor = command -> {
+            throw rejected;
+        };
+        for (boolean ordered : new boolean[] { true, false }) {
+            QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(executor, 2);
+            List<Result<Integer>> results = new ArrayList<>();
+            reader.read(sources(3).iterator(), source -> MOD, ordered).forEachRemaining(results::add);
+
+            assertEquals(3, results.size());
+            for (Result<Integer> result : results) {
+                assertFalse(result.isSuccess());
+                assertSame(rejected, result.exception());
+            }
+        }
+    }
+
+    @Test
+    void abandonedIteratorsStopSubmittingSources() {
+        for (boolean ordered : new boolean[] { true, false }) {
+            CountingIterator sources = new CountingIterator(100);
+            QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(Runnable::run, 3);
+            Iterator<Result<Integer>> results = reader.read(sources, source -> MOD, ordered);
+            assertEquals(3, sources.taken);
+
+            results.next();
+            results.next();
+            assertEquals(5, sources.taken);
+        }
+    }
+}
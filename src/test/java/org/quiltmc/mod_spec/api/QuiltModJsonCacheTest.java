@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QuiltModJsonCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private Path jar(String name, String loader) throws Exception {
+        Path jar = dir.resolve(name + ".jar");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            zip.putNextEntry(new ZipEntry(QuiltModJsonBatchReader.QUILT_MOD_JSON));
+            String json = "{\"schema_version\": 1, \"quilt_loader\": {" + loader + "}}";
+            zip.write(json.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return jar;
+    }
+
+    private Path validJar(String id) throws Exception {
+        return jar(id, "\"group\": \"org.example\", \"id\": \"" + id + "\", \"version\": \"1.0.0\"");
+    }
+
+    private static void append(Path file, byte[] bytes) throws Exception {
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.APPEND)) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void entriesSurviveReopening() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        Path valid = validJar("valid");
+        Path invalid = jar("invalid", "\"group\": \"org.example\", \"id\": [], \"version\": \"1.0.0\"");
+
+        FinalQuiltModJsonV1 json;
+        int problems;
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertNull(cache.lookup(valid));
+            json = cache.read(valid);
+            assertEquals(json, cache.lookup(valid));
+            problems = assertThrows(InvalidModJsonException.class, () -> cache.read(invalid)).problems().size();
+        }
+
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(json, cache.lookup(valid));
+            InvalidModJsonException e = assertThrows(InvalidModJsonException.class, () -> cache.lookup(invalid));
+            assertEquals(problems, e.problems().size());
+        }
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, true)) {
+            // Entries cached without a hash of the jar don't match once hashes are compared
+            assertNull(cache.lookup(valid));
+        }
+    }
+
+    @Test
+    void onlyOneInstanceMayOpenAFile() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertThrows(Exception.class, () -> QuiltModJsonCache.open(file, false));
+        }
+        QuiltModJsonCache.open(file, false).close();
+    }
+
+    @Test
+    void tornTailIsTruncated() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        Path first = validJar("first");
+        Path second = validJar("second");
+        long firstEnd;
+        FinalQuiltModJsonV1 json;
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            json = cache.read(first);
+            firstEnd = Files.size(file);
+            cache.read(second);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(firstEnd + 20);
+        }
+
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(firstEnd, Files.size(file));
+            assertEquals(json, cache.lookup(first));
+            assertNull(cache.lookup(second));
+            cache.read(second);
+        }
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(json, cache.lookup(first));
+            assertNotNull(cache.lookup(second));
+        }
+    }
+
+    @Test
+    void zeroFilledTailIsTruncated() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        Path jar = validJar("example");
+        long end;
+        FinalQuiltModJsonV1 json;
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            json = cache.read(jar);
+            end = Files.size(file);
+        }
+        // A zero length record has a zero checksum, so this passes the checksum test
+        append(file, new byte[4096]);
+
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(end, Files.size(file));
+            assertEquals(json, cache.lookup(jar));
+        }
+    }
+
+    @Test
+    void undecodableRecordIsTruncated() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        Path jar = validJar("example");
+        long end;
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            cache.read(jar);
+            end = Files.size(file);
+        }
+        // A record with a correct checksum, but whose key claims to be longer than the record
+        byte[] payload = new byte[32];
+        payload[1] = 0x7f;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        append(file, record.array());
+
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(end, Files.size(file));
+            assertNotNull(cache.lookup(jar));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveEntries() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        Path kept = validJar("kept");
+        Path removed = validJar("removed");
+        FinalQuiltModJsonV1 json;
+        long compacted;
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            json = cache.read(kept);
+            for (int i = 0; i < 10; i++) {
+                cache.put(kept, json);
+            }
+            cache.read(removed);
+            cache.remove(removed);
+            long before = Files.size(file);
+
+            cache.compact();
+            compacted = Files.size(file);
+            assertTrue(compacted < before, compacted + " < " + before);
+            assertEquals(json, cache.lookup(kept));
+            assertNull(cache.lookup(removed));
+
+            // Appending after compaction must go to the new file
+            cache.read(removed);
+        }
+        assertTrue(Files.size(file) > compacted);
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+
+        try (QuiltModJsonCache cache = QuiltModJsonCache.open(file, false)) {
+            assertEquals(json, cache.lookup(kept));
+            assertNotNull(cache.lookup(removed));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.MissingValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.mod_spec.api.QuiltModJsonBatchReader.Result;
+import org.quiltmc.mod_spec.api.QuiltModJsonCatalog.Record;
+import org.quiltmc.parsers.json.ParseException;
+
+class QuiltModJsonCatalogTest {
+
+    private static String modJson(String id) {
+        return "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\", \"id\": \"" + id
+            + "\", \"version\": \"1.0.0\"}}";
+    }
+
+    private static FinalQuiltModJsonV1 mod(String id) throws Exception {
+        return FinalQuiltModJsonV1.from((CustomJsonObject) CustomJsonValue.read(id, modJson(id)));
+    }
+
+    private static List<Result<Record>> read(String catalog, QuiltModJsonBatchReader reader, boolean ordered) {
+        Iterator<Result<Record>> results = QuiltModJsonCatalog.read(
+            new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)), reader, ordered
+        );
+        List<Result<Record>> list = new ArrayList<>();
+        results.forEachRemaining(list::add);
+        return list;
+    }
+
+    private static List<ModJsonProblem> problems(Result<Record> result) {
+        assertTrue(result.exception() instanceof InvalidModJsonException, "exception: " + result.exception());
+        return ((InvalidModJsonException) result.exception()).problems();
+    }
+
+    @Test
+    void writtenRecordsAreReadBack() throws Exception {
+        List<FinalQuiltModJsonV1> mods = Arrays.asList(mod("first"), mod("second"), mod("third"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuiltModJsonCatalog.Writer writer = new QuiltModJsonCatalog.Writer(out)) {
+            for (FinalQuiltModJsonV1 mod : mods) {
+                writer.write("mods/" + mod.id() + ".jar", mod);
+            }
+        }
+
+        String catalog = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        List<Result<Record>> results = read(catalog, new QuiltModJsonBatchReader(Runnable::run, 2), true);
+        assertEquals(mods.size(), results.size());
+        for (int i = 0; i < mods.size(); i++) {
+            Result<Record> result = results.get(i);
+            assertTrue(result.isSuccess(), "exception: " + result.exception());
+            assertEquals(i + 1, result.source().line());
+            assertEquals("mods/" + mods.get(i).id() + ".jar", result.source().source());
+            assertEquals(mods.get(i), result.value());
+        }
+    }
+
+    @Test
+    void orderedReadsKeepLineOrder() throws Exception {
+        StringBuilder catalog = new StringBuilder();
+        int count = 50;
+        for (int i = 0; i < count; i++) {
+            catalog.append("{\"source\": \"").append(i).append("\", \"json\": ").append(modJson("mod" + i));
+            // Blank lines and CRLF line endings are skipped, but still counted
+            catalog.append(i % 7 == 0 ? "}\r\n\n" : "}\n");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            QuiltModJsonBatchReader reader = new QuiltModJsonBatchReader(executor, 8);
+            List<Result<Record>> ordered = read(catalog.toString(), reader, true);
+            assertEquals(count, ordered.size());
+            long line = 0;
+            for (int i = 0; i < count; i++) {
+                Result<Record> result = ordered.get(i);
+                assertTrue(result.isSuccess(), "exception: " + result.exception());
+                assertEquals(String.valueOf(i), result.source().source());
+                assertTrue(result.source().line() > line);
+                line = result.source().line();
+            }
+
+            List<Result<Record>> unordered = read(catalog.toString(), reader, false);
+            assertEquals(count, unordered.size());
+            boolean[] seen = new boolean[count];
+            for (Result<Record> result : unordered) {
+                assertTrue(result.isSuccess(), "exception: " + result.exception());
+                seen[Integer.parseInt(result.source().source())] = true;
+            }
+            for (int i = 0; i < count; i++) {
+                assertTrue(seen[i], "missing record " + i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void malformedLinesOnlyFailTheirOwnResult() throws Exception {
+        String catalog = String.join(
+            "\n",
+            "{\"source\": \"valid\", \"json\": " + modJson("valid") + "}",
+            "{\"source\": \"broken\" \"json\": 1}",
+            "[]",
+            "{\"json\": " + modJson("nosource") + "}",
+            "{\"source\": 5, \"json\": " + modJson("numbered") + "}",
+            "{\"source\": \"nojson\"}",
+            "{\"source\": \"after\", \"json\": " + modJson("after") + "}"
+        );
+        List<Result<Record>> results = read(catalog, new QuiltModJsonBatchReader(Runnable::run, 2), true);
+        assertEquals(7, results.size());
+
+        assertTrue(results.get(0).isSuccess(), "exception: " + results.get(0).exception());
+
+        assertTrue(results.get(1).exception() instanceof ParseException, "exception: " + results.get(1).exception());
+
+        List<ModJsonProblem> notAnObject = problems(results.get(2));
+        assertEquals(1, notAnObject.size(), "problems: " + notAnObject);
+        assertTrue(notAnObject.get(0) instanceof WrongTypeProblem, "problem: " + notAnObject.get(0));
+
+        List<ModJsonProblem> noSource = problems(results.get(3));
+        assertEquals(1, noSource.size(), "problems: " + noSource);
+        assertTrue(noSource.get(0) instanceof MissingValueProblem, "problem: " + noSource.get(0));
+        assertNull(results.get(3).source().source());
+
+        // A source of the wrong type is only reported as the wrong type, not also as missing
+        List<ModJsonProblem> wrongSource = problems(results.get(4));
+        assertEquals(1, wrongSource.size(), "problems: " + wrongSource);
+        assertTrue(wrongSource.get(0) instanceof WrongTypeProblem, "problem: " + wrongSource.get(0));
+
+        List<ModJsonProblem> noJson = problems(results.get(5));
+        assertEquals(1, noJson.size(), "problems: " + noJson);
+        assertTrue(noJson.get(0) instanceof MissingValueProblem, "problem: " + noJson.get(0));
+        assertEquals("nojson", results.get(5).source().source());
+
+        assertTrue(results.get(6).isSuccess(), "exception: " + results.get(6).exception());
+        assertEquals(7, results.get(6).source().line());
+    }
+}
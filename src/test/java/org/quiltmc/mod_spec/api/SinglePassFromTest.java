@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonArray;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonNumber;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonObject;
+import org.quiltmc.mod_spec.api.CustomJsonValue.CustomJsonString;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.InvalidValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.MissingValueProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.ModJsonProblem;
+import org.quiltmc.mod_spec.api.InvalidModJsonException.WrongTypeProblem;
+import org.quiltmc.parsers.json.JsonWriter;
+
+/** Checks that the single pass {@link FinalQuiltModJsonV1#from(CustomJsonObject)} gives the same results and problems
+ * as looking up each known key in turn, for both {@link CustomObject}s and other {@link CustomJsonObject}s. */
+class SinglePassFromTest {
+
+    private static final List<String> NOT_CUSTOM = Arrays.asList(
+        "schema_version", "quilt_loader", "mixin", "access_widener", "minecraft"
+    );
+
+    private static final List<String> INPUTS = Arrays.asList(
+        "{\"before\": 1, \"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\", \"id\": \"example\","
+            + " \"version\": \"1.0.0\", \"provides\": [\"other\", {\"id\": \"versioned\", \"version\": \"2\"}],"
+            + " \"entrypoints\": {\"main\": \"org.example.Main\"}, \"metadata\": {\"name\": \"Example\"}},"
+            + " \"mixin\": \"example.mixins.json\", \"minecraft\": {}, \"after\": [true], \"access_widener\": []}",
+        "{\"custom\": {}}",
+        "{\"schema_version\": \"1\", \"quilt_loader\": []}",
+        "{\"schema_version\": 2, \"quilt_loader\": {\"group\": 5, \"id\": \"Bad Id!\"}}",
+        "{\"quilt_loader\": {\"group\": \"bad group!\", \"version\": true}, \"schema_version\": 1}",
+        "{\"schema_version\": 1, \"quilt_loader\": {\"id\": 1, \"version\": null, \"group\": null}}"
+    );
+
+    /** The fields and problems found by looking up each known key. */
+    private static final class Expected {
+        final List<String> problems = new ArrayList<>();
+        final Map<String, CustomJsonValue> custom = new LinkedHashMap<>();
+        String group;
+        String id;
+        String version;
+        Object provides = Collections.emptyList();
+        Object entrypoints = FinalQuiltModJsonV1.FinalEntrypointContainerV1.EMPTY;
+    }
+
+    private static Expected lookUpEachKey(CustomJsonObject json) throws Exception {
+        Expected expected = new Expected();
+        for (Map.Entry<String, CustomJsonValue> entry : json.entrySet()) {
+            if (!NOT_CUSTOM.contains(entry.getKey())) {
+                expected.custom.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        CustomJsonValue schemaVersion = json.get("schema_version");
+        if (schemaVersion == null) {
+            expected.problems.add("missing schema_version");
+        } else if (!(schemaVersion instanceof CustomJsonNumber)) {
+            expected.problems.add("wrong type schema_version");
+        } else if (((CustomJsonNumber) schemaVersion).value().doubleValue() != 1) {
+            expected.problems.add("invalid schema_version");
+        }
+
+        CustomJsonValue loaderValue = json.get("quilt_loader");
+        if (loaderValue == null) {
+            expected.problems.add("missing quilt_loader");
+            return expected;
+        } else if (!(loaderValue instanceof CustomJsonObject)) {
+            expected.problems.add("wrong type quilt_loader");
+            return expected;
+        }
+        CustomJsonObject loader = (CustomJsonObject) loaderValue;
+
+        expected.group = string(loader, "group", expected);
+        if (expected.group != null && IdentifierValidator.indexOfInvalidGroup(expected.group) >= 0) {
+            expected.problems.add("invalid group");
+        }
+        expected.id = string(loader, "id", expected);
+        if (expected.id != null && IdentifierValidator.indexOfInvalidId(expected.id) >= 0) {
+            expected.problems.add("invalid id");
+        }
+        expected.version = string(loader, "version", expected);
+
+        // The nested types have their own tests, so only check that they're read from the right value
+        if (loader.containsKey("provides")) {
+            List<FinalQuiltModJsonV1.FinalProvidesV1> provides = new ArrayList<>();
+            for (CustomJsonValue element : (CustomJsonArray) loader.get("provides")) {
+                provides.add(
+                    element instanceof CustomJsonString
+                        ? new FinalQuiltModJsonV1.FinalProvidesV1(((CustomJsonString) element).value(), null)
+                        : FinalQuiltModJsonV1.FinalProvidesV1.from((CustomJsonObject) element)
+                );
+            }
+            expected.provides = provides;
+        }
+        if (loader.containsKey("entrypoints")) {
+            expected.entrypoints = FinalQuiltModJsonV1.FinalEntrypointContainerV1.from(loader.get("entrypoints"));
+        }
+        return expected;
+    }
+
+    private static String string(CustomJsonObject object, String key, Expected expected) {
+        CustomJsonValue value = object.get(key);
+        if (value == null) {
+            expected.problems.add("missing " + key);
+            return null;
+        }
+        if (!(value instanceof CustomJsonString)) {
+            expected.problems.add("wrong type " + key);
+            return null;
+        }
+        return ((CustomJsonString) value).value();
+    }
+
+    private static String describe(ModJsonProblem problem) {
+        if (problem instanceof MissingValueProblem) {
+            return "missing " + ((MissingValueProblem) problem).valueName();
+        } else if (problem instanceof WrongTypeProblem) {
+            return "wrong type " + ((WrongTypeProblem) problem).valueName();
+        } else {
+            return "invalid " + ((InvalidValueProblem) problem).valueName();
+        }
+    }
+
+    private static List<String> sorted(List<String> list) {
+        List<String> copy = new ArrayList<>(list);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    /** A {@link CustomJsonObject} which isn't a {@link CustomObject}, so its entries are copied before being read. */
+    private static final class ForeignObject extends AbstractMap<String, CustomJsonValue> implements CustomJsonObject {
+        final Map<String, CustomJsonValue> map;
+
+        ForeignObject(Map<String, CustomJsonValue> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Set<Entry<String, CustomJsonValue>> entrySet() {
+            return map.entrySet();
+        }
+
+        @Override
+        public String location() {
+            return "foreign";
+        }
+
+        @Override
+        public void write(JsonWriter writer) throws IOException {
+            writer.beginObject();
+            for (Entry<String, CustomJsonValue> entry : map.entrySet()) {
+                writer.name(entry.getKey());
+                entry.getValue().write(writer);
+            }
+            writer.endObject();
+        }
+    }
+
+    private static void check(String input, CustomJsonObject json) throws Exception {
+        Expected expected = lookUpEachKey(json);
+        if (!expected.problems.isEmpty()) {
+            InvalidModJsonException e = assertThrows(
+                InvalidModJsonException.class, () -> FinalQuiltModJsonV1.from(json)
+            );
+            List<String> actual = new ArrayList<>();
+            for (ModJsonProblem problem : e.problems()) {
+                actual.add(describe(problem));
+            }
+            // A single pass finds problems in the order of the keys, rather than the order they're looked up in
+            assertEquals(sorted(expected.problems), sorted(actual), input);
+            return;
+        }
+
+        FinalQuiltModJsonV1 mod = FinalQuiltModJsonV1.from(json);
+        assertEquals(expected.group, mod.group(), input);
+        assertEquals(expected.id, mod.id(), input);
+        assertEquals(expected.version, mod.version(), input);
+        assertEquals(expected.provides, mod.provides(), input);
+        assertEquals(expected.entrypoints, mod.entrypoints(), input);
+        assertEquals(expected.custom, mod.custom(), input);
+        assertEquals(new ArrayList<>(expected.custom.keySet()), new ArrayList<>(mod.custom().keySet()), input);
+    }
+
+    @Test
+    void matchesLookingUpEachKey() throws Exception {
+        for (String input : INPUTS) {
+            CustomJsonObject json = (CustomJsonObject) CustomJsonValue.read("quilt.mod.json", input);
+            check(input, json);
+            check(input, new ForeignObject(new LinkedHashMap<>(json)));
+        }
+    }
+}
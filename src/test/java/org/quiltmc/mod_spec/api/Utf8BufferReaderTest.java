@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Checks the {@link ByteBuffer} entry points, and the {@link Utf8BufferReader} they decode with. */
+class Utf8BufferReaderTest {
+
+    /** One, two, three and four byte code points. */
+    private static final String TEXT = "ascii \u00e9\u00df \u20ac\u4e2d \ud83d\ude00\ud834\udd1e end";
+
+    private static final String MOD_JSON = "{\"schema_version\": 1, \"quilt_loader\": {\"group\": \"org.example\","
+        + " \"id\": \"example\", \"version\": \"1.0.0\"}, \"custom\": \"" + TEXT + "\"}";
+
+    @TempDir
+    Path dir;
+
+    private static String readAll(ByteBuffer buffer, int chunk) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] chars = new char[chunk];
+        try (Utf8BufferReader reader = new Utf8BufferReader(buffer)) {
+            int read;
+            while ((read = reader.read(chars, 0, chunk)) >= 0) {
+                sb.append(chars, 0, read);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    @Test
+    void decodesEveryChunkSize() throws Exception {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        for (int chunk = 1; chunk <= 8; chunk++) {
+            // A chunk size of one splits every surrogate pair across two reads
+            assertEquals(TEXT, readAll(ByteBuffer.wrap(bytes), chunk), "heap, chunk " + chunk);
+            assertEquals(TEXT, readAll(direct(bytes), chunk), "direct, chunk " + chunk);
+        }
+    }
+
+    @Test
+    void onlyReadsBetweenPositionAndLimit() throws Exception {
+        byte[] bytes = ("xx" + TEXT + "yy").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 4);
+        assertEquals(TEXT, readAll(buffer, 16));
+    }
+
+    @Test
+    void skipsTheByteOrderMark() throws Exception {
+        byte[] bytes = ("\ufeff" + TEXT).getBytes(StandardCharsets.UTF_8);
+        assertEquals(TEXT, readAll(ByteBuffer.wrap(bytes), 16));
+    }
+
+    @Test
+    void malformedInputIsAnError() throws Exception {
+        byte[] bytes = { 'a', (byte) 0xC3, 'b' };
+        assertThrows(IOException.class, () -> readAll(ByteBuffer.wrap(bytes), 16));
+        // The decoder returned to the cache must have been reset
+        assertEquals(TEXT, readAll(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), 16));
+    }
+
+    @Test
+    void closedReadersCantBeRead() throws Exception {
+        Utf8BufferReader reader = new Utf8BufferReader(ByteBuffer.wrap(new byte[] { 'a' }));
+        reader.close();
+        assertThrows(IOException.class, () -> reader.read(new char[1], 0, 1));
+    }
+
+    @Test
+    void buffersAreReadLikeText() throws Exception {
+        ByteBuffer buffer = direct(MOD_JSON.getBytes(StandardCharsets.UTF_8));
+        CustomJsonValue expected = CustomJsonValue.read("quilt.mod.json", MOD_JSON);
+        assertEquals(expected, CustomJsonValue.read("quilt.mod.json", buffer));
+        assertEquals(0, buffer.position());
+
+        QuiltModJson mod = QuiltModJson.read(buffer);
+        assertEquals(0, buffer.position());
+        assertEquals(FinalQuiltModJsonV1.from((CustomJsonValue.CustomJsonObject) expected), mod);
+    }
+
+    @Test
+    void mappedFilesCanBeRead() throws Exception {
+        Path file = dir.resolve("quilt.mod.json");
+        Files.write(file, MOD_JSON.getBytes(StandardCharsets.UTF_8));
+        QuiltModJson expected = QuiltModJson.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            assertEquals(expected, QuiltModJson.read(mapped));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.VersionConstraintMatcher.Range;
+
+class VersionConstraintMatcherTest {
+
+    private static void assertMatches(String pattern, String... versions) {
+        VersionConstraintMatcher matcher = VersionConstraintMatcher.compile(pattern);
+        for (String version : versions) {
+            assertTrue(matcher.matches(version), pattern + " should match " + version);
+        }
+    }
+
+    private static void assertNotMatches(String pattern, String... versions) {
+        VersionConstraintMatcher matcher = VersionConstraintMatcher.compile(pattern);
+        for (String version : versions) {
+            assertFalse(matcher.matches(version), pattern + " shouldn't match " + version);
+        }
+    }
+
+    /** Checks the bounds of a pattern, which are both semantic versions. */
+    private static void assertBounds(String pattern, String lower, String upper) {
+        Range range = (Range) VersionConstraintMatcher.compile(pattern);
+        assertEquals(lower, range.lower.raw(), pattern);
+        assertTrue(range.lowerInclusive, pattern);
+        assertTrue(range.lower.isSemantic(), pattern);
+        assertEquals(upper, range.upper.raw(), pattern);
+        assertFalse(range.upperInclusive, pattern);
+        assertTrue(range.upper.isSemantic(), pattern);
+    }
+
+    @Test
+    void any() {
+        assertMatches("*", "0.0.0", "1.0.0-alpha", "99.0", "anything");
+        assertSame(VersionConstraintMatcher.ANY, VersionConstraintMatcher.compile("*"));
+        assertFalse(VersionConstraintMatcher.NONE.matches("1.0.0"));
+    }
+
+    @Test
+    void plainVersion() {
+        assertBounds("1.0.0", "1.0.0", "2.0.0-0");
+        assertBounds("1.2", "1.2.0", "2.0.0-0");
+        assertMatches("1.0.0", "1.0.0", "1.0.1", "1.5.2", "1.99.99", "1.0.0+build");
+        assertNotMatches("1.0.0", "0.9.9", "1.0.0-rc.1", "2.0.0-0", "2.0.0-alpha", "2.0.0");
+    }
+
+    @Test
+    void exact() {
+        assertMatches("=1.0.0", "1.0.0", "1.0.0+build");
+        assertNotMatches("=1.0.0", "1.0.0-rc.1", "1.0.1", "0.9.9");
+        assertMatches("=1.2", "1.2");
+        assertNotMatches("=1.2", "1.2.0");
+    }
+
+    @Test
+    void comparisons() {
+        assertMatches(">=1.0.0", "1.0.0", "1.0.1", "2.0.0-alpha", "100.0.0");
+        assertNotMatches(">=1.0.0", "0.9.9", "1.0.0-rc.1");
+        assertMatches(">1.0.0", "1.0.1", "1.1.0-alpha");
+        assertNotMatches(">1.0.0", "1.0.0", "1.0.0+build", "0.1.0");
+        assertMatches("<=1.0.0", "1.0.0", "1.0.0-rc.1", "0.0.1");
+        assertNotMatches("<=1.0.0", "1.0.1", "1.0.1-alpha");
+        assertMatches("<1.0.0", "0.9.9", "1.0.0-rc.1");
+        assertNotMatches("<1.0.0", "1.0.0", "1.0.1");
+
+        Range range = (Range) VersionConstraintMatcher.compile(">=1.0.0");
+        assertEquals("1.0.0", range.lower.raw());
+        assertNull(range.upper);
+    }
+
+    @Test
+    void wildcard() {
+        assertBounds("1.0.x", "1.0.0", "1.1.0-0");
+        assertBounds("1.X", "1.0.0", "2.0.0-0");
+        assertBounds("1.2.*", "1.2.0", "1.3.0-0");
+        assertBounds("1.2.3.x", "1.2.3", "1.2.4-0");
+        assertMatches("1.0.x", "1.0.0", "1.0.9", "1.0.10");
+        assertNotMatches("1.0.x", "0.9.0", "1.0.0-alpha", "1.1.0-alpha", "1.1.0");
+    }
+
+    @Test
+    void tilde() {
+        assertBounds("~1.0.0", "1.0.0", "1.1.0-0");
+        assertBounds("~1.2", "1.2.0", "1.3.0-0");
+        assertBounds("~1", "1.0.0", "2.0.0-0");
+        assertBounds("~1.2.3-beta.1", "1.2.3-beta.1", "1.3.0-0");
+        assertMatches("~1.2", "1.2.0", "1.2.9", "1.2.10");
+        assertNotMatches("~1.2", "1.1.9", "1.2.0-rc.1", "1.3.0-0", "1.3.0");
+    }
+
+    @Test
+    void caret() {
+        assertBounds("^1.0.0", "1.0.0", "2.0.0-0");
+        assertBounds("^1.2.3", "1.2.3", "2.0.0-0");
+        assertBounds("^0.9", "0.9.0", "1.0.0-0");
+        assertBounds("^99999.0.0", "99999.0.0", "100000.0.0-0");
+        assertMatches("^1.2.3", "1.2.3", "1.2.4", "1.9.0", "1.99.0-alpha");
+        assertNotMatches("^1.2.3", "1.2.2", "1.2.3-rc.1", "2.0.0-0", "2.0.0-alpha", "2.0.0");
+    }
+
+    @Test
+    void compiledPatternsAreCached() {
+        assertSame(VersionConstraintMatcher.compile("^1.2.3"), VersionConstraintMatcher.compile("^1.2.3"));
+    }
+
+    @Test
+    void invalidPatterns() {
+        for (String pattern : new String[] { "^", "~", ">=", "<", "=", "a.x", "1.a.x", "^abc" }) {
+            assertThrows(IllegalArgumentException.class, () -> VersionConstraintMatcher.compile(pattern), pattern);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.quiltmc.mod_spec.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.mod_spec.api.VersionConstraintMatcher.Combined;
+
+class VersionIntervalSetTest {
+
+    private static final String[] PATTERNS = { "*", "1.0.0", "=1.0.0", ">=1.0.0", ">1.0.0", "<=1.0.0", "<1.0.0",
+        "1.0.x", "~1.0.0", "^1.0.0", "^1.2.3", "~1.2", "^2.0.0", ">=2.0.0-alpha", "<2.0.0-0", "=1.2", ">1.0",
+        "<1.0.0-rc.9z_", ">=1.0.0-rc.10", "<=1.0.0-rc.9a", "1.x" };
+
+    /** Semantic and non-semantic versions, around every bound in {@link #PATTERNS}. */
+    private static final String[] VERSIONS = { "0.0.1", "0.9", "1", "1.0", "1.0.0-0", "1.0.0-alpha", "1.0.0-rc.9a",
+        "1.0.0-rc.10", "1.0.0-rc.9z_", "1.0.0", "1.0.0+build", "1.0.1", "1.0_01", "1.1.0-0", "1.1.0", "1.2", "1.2.0",
+        "1.2.3-rc.1", "1.2.3", "1.2.9", "1.3.0-0", "1.9.9", "2", "2.0", "2.0.0-0", "2.0.0-alpha", "2.0.0", "2.0.1",
+        "3.0.0", "b1.7.3" };
+
+    private static VersionIntervalSet set(String pattern) {
+        return VersionIntervalSet.of(pattern);
+    }
+
+    private static void assertContains(VersionIntervalSet set, String... versions) {
+        for (String version : versions) {
+            assertTrue(set.contains(ModVersion.parse(version)), set + " should contain " + version);
+        }
+    }
+
+    private static void assertNotContains(VersionIntervalSet set, String... versions) {
+        for (String version : versions) {
+            assertFalse(set.contains(ModVersion.parse(version)), set + " shouldn't contain " + version);
+        }
+    }
+
+    @Test
+    void agreesWithMatcher() {
+        for (String pattern : PATTERNS) {
+            VersionConstraintMatcher matcher = VersionConstraintMatcher.compile(pattern);
+            VersionIntervalSet set = set(pattern);
+            for (String version : VERSIONS) {
+                ModVersion parsed = ModVersion.parse(version);
+                assertEquals(matcher.matches(parsed), set.contains(parsed), pattern + " with " + version);
+            }
+        }
+    }
+
+    @Test
+    void unionAndIntersectionAgreeWithMatchers() {
+        Random random = new Random(0);
+        for (int n = 0; n < 500; n++) {
+            VersionConstraintMatcher[] children = new VersionConstraintMatcher[1 + random.nextInt(4)];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = VersionConstraintMatcher.compile(PATTERNS[random.nextInt(PATTERNS.length)]);
+            }
+            for (boolean any : new boolean[] { true, false }) {
+                Combined combined = new Combined(any, children);
+                VersionIntervalSet set = VersionIntervalSet.of(combined);
+                VersionIntervalSet folded = any ? VersionIntervalSet.EMPTY : VersionIntervalSet.ALL;
+                for (VersionConstraintMatcher child : children) {
+                    VersionIntervalSet childSet = VersionIntervalSet.of(child);
+                    folded = any ? folded.union(childSet) : folded.intersection(childSet);
+                }
+                for (String version : VERSIONS) {
+                    ModVersion parsed = ModVersion.parse(version);
+                    assertEquals(combined.matches(parsed), set.contains(parsed), combined + " with " + version);
+                    assertEquals(combined.matches(parsed), folded.contains(parsed), combined + " with " + version);
+                }
+                assertEquals(set.toString(), folded.toString());
+            }
+        }
+    }
+
+    @Test
+    void touchingIntervals() {
+        assertTrue(set("<1.0.0").union(set(">=1.0.0")).isAll());
+        assertTrue(set("<=1.0.0").union(set(">1.0.0")).isAll());
+
+        VersionIntervalSet gap = set("<1.0.0").union(set(">1.0.0"));
+        assertEquals(2, gap.intervalCount());
+        assertNotContains(gap, "1.0.0");
+        assertContains(gap, "1.0.0-rc.1", "1.0.1");
+
+        // ^1.0.0 ends where ^2.0.0 would start if it included pre-releases
+        VersionIntervalSet joined = set("^1.0.0").union(set(">=2.0.0-0")).union(set("<1.0.0"));
+        assertTrue(joined.isAll());
+        assertEquals(2, set("^1.0.0").union(set("^2.0.0")).intervalCount());
+
+        assertTrue(set("<1.0.0").intersection(set(">=1.0.0")).isEmpty());
+        assertTrue(set("<1.0.0").intersection(set(">1.0.0")).isEmpty());
+        VersionIntervalSet point = set("<=1.0.0").intersection(set(">=1.0.0"));
+        assertEquals(1, point.intervalCount());
+        assertContains(point, "1.0.0", "1.0.0+build");
+        assertNotContains(point, "1.0.0-rc.1", "1.0.1");
+    }
+
+    @Test
+    void overlappingIntervals() {
+        VersionIntervalSet union = set("^1.0.0").union(set("~1.5"));
+        assertEquals(1, union.intervalCount());
+        assertEquals("[1.0.0, 2.0.0-0)", union.toString());
+
+        VersionIntervalSet intersection = set(">=1.2.0").intersection(set("<1.5.0"));
+        assertEquals("[1.2.0, 1.5.0)", intersection.toString());
+        assertContains(intersection, "1.2.0", "1.4.9");
+        assertNotContains(intersection, "1.1.9", "1.5.0", "1.2.0-rc.1");
+
+        VersionIntervalSet split = set("^1.0.0").union(set("^3.0.0")).intersection(set(">=1.5.0")
+            .intersection(set("<3.5.0")));
+        assertEquals("[1.5.0, 2.0.0-0) | [3.0.0, 3.5.0)", split.toString());
+        assertContains(split, "1.5.0", "1.9.9", "3.0.0", "3.4.0");
+        assertNotContains(split, "1.4.0", "2.0.0", "2.5.0", "3.5.0");
+    }
+
+    @Test
+    void emptiness() {
+        assertTrue(set("^1.0.0").intersection(set("^2.0.0")).isEmpty());
+        assertTrue(set("^1.0.0").intersection(set(">=2.0.0-alpha")).isEmpty());
+        assertTrue(set("1.0.x").intersection(set("<1.0.0")).isEmpty());
+        assertTrue(set("=1.2").intersection(set("=1.2.0")).isEmpty());
+        assertFalse(set("^1.0.0").intersection(set("<1.0.1")).isEmpty());
+        assertTrue(VersionIntervalSet.of(VersionConstraintMatcher.NONE).isEmpty());
+        assertTrue(set("*").isAll());
+        assertEquals("{}", VersionIntervalSet.EMPTY.toString());
+
+        VersionIntervalSet set = set("^1.0.0");
+        assertSame(set, set.union(VersionIntervalSet.EMPTY));
+        assertSame(set, set.intersection(VersionIntervalSet.ALL));
+        assertTrue(set.intersection(VersionIntervalSet.EMPTY).isEmpty());
+        assertTrue(set.union(VersionIntervalSet.ALL).isAll());
+    }
+}